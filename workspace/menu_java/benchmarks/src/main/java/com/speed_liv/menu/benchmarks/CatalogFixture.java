@@ -0,0 +1,95 @@
+package com.speed_liv.menu.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.speed_liv.menu.config.DataSourceStrategy;
+import com.speed_liv.menu.model.entity.Plat;
+import com.speed_liv.menu.model.entity.Restaurant;
+import org.openapitools.OpenApiGeneratorApplication;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Boots the menu service on a random port with a synthetic catalog
+ * H2 is seeded through plain JDBC batches and the JSON adapter reads a generated temp file,
+ * so each source only holds data when the strategy actually uses it
+ */
+final class CatalogFixture implements AutoCloseable {
+
+    private static final int SEED_BATCH_SIZE = 10_000;
+
+    private final ConfigurableApplicationContext context;
+    private final Path jsonFile;
+
+    private CatalogFixture(ConfigurableApplicationContext context, Path jsonFile) {
+        this.context = context;
+        this.jsonFile = jsonFile;
+    }
+
+    static CatalogFixture start(DataSourceStrategy strategy, int catalogSize) throws IOException {
+        List<Restaurant> catalog = CatalogGenerator.generate(catalogSize);
+        boolean jsonEnabled = strategy != DataSourceStrategy.H2;
+        boolean h2Enabled = strategy != DataSourceStrategy.JSON;
+
+        Path jsonFile = Files.createTempFile("restaurants-", ".json");
+        new ObjectMapper().writeValue(jsonFile.toFile(), jsonEnabled ? catalog : Collections.emptyList());
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(OpenApiGeneratorApplication.class)
+                .bannerMode(Banner.Mode.OFF)
+                // command line arguments, so they win over application.properties
+                .run("--server.port=0",
+                        "--app.datasource.strategy=" + strategy,
+                        "--app.datasource.json-location=" + jsonFile.toUri(),
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+
+        if (h2Enabled) {
+            seedH2(context.getBean(JdbcTemplate.class), catalog);
+        }
+        return new CatalogFixture(context, jsonFile);
+    }
+
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    private static void seedH2(JdbcTemplate jdbc, List<Restaurant> catalog) {
+        // Drop what RestaurantDataLoader inserted at startup
+        jdbc.update("DELETE FROM plats");
+        jdbc.update("DELETE FROM restaurants");
+
+        List<Object[]> restaurantRows = new ArrayList<>(SEED_BATCH_SIZE);
+        List<Object[]> platRows = new ArrayList<>(SEED_BATCH_SIZE);
+        for (Restaurant restaurant : catalog) {
+            restaurantRows.add(new Object[]{restaurant.getId(), restaurant.getName()});
+            for (Plat plat : restaurant.getPlats()) {
+                platRows.add(new Object[]{plat.getId(), plat.getName(), plat.getPrice(), plat.getDisponible(), restaurant.getId()});
+            }
+            if (restaurantRows.size() == SEED_BATCH_SIZE) {
+                flush(jdbc, restaurantRows, platRows);
+            }
+        }
+        flush(jdbc, restaurantRows, platRows);
+    }
+
+    private static void flush(JdbcTemplate jdbc, List<Object[]> restaurantRows, List<Object[]> platRows) {
+        jdbc.batchUpdate("INSERT INTO restaurants (id, name) VALUES (?, ?)", restaurantRows);
+        jdbc.batchUpdate("INSERT INTO plats (id, name, price, disponible, restaurant_id) VALUES (?, ?, ?, ?, ?)", platRows);
+        restaurantRows.clear();
+        platRows.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        Files.deleteIfExists(jsonFile);
+    }
+}
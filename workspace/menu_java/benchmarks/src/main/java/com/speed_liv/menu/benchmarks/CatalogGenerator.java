@@ -0,0 +1,54 @@
+package com.speed_liv.menu.benchmarks;
+
+import com.speed_liv.menu.model.entity.Plat;
+import com.speed_liv.menu.model.entity.Restaurant;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds deterministic synthetic restaurant catalogs for the benchmarks
+ * Restaurant ids go from 1 to size, each restaurant gets PLATS_PER_RESTAURANT plats
+ */
+final class CatalogGenerator {
+
+    static final int PLATS_PER_RESTAURANT = 3;
+
+    private static final String[] DISHES = {
+        "Coq au Vin", "Bouillabaisse", "Ratatouille", "Crêpe Suzette", "Gratin Dauphinois",
+        "Dragon Roll", "Tempura Udon", "Chirashi Bowl", "Cheeseburger", "Pizza Margherita"
+    };
+
+    private CatalogGenerator() {
+    }
+
+    static List<Restaurant> generate(int size) {
+        List<Restaurant> restaurants = new ArrayList<>(size);
+        long platId = 1;
+        for (long id = 1; id <= size; id++) {
+            Restaurant restaurant = new Restaurant(id, "Restaurant " + id);
+            for (int i = 0; i < PLATS_PER_RESTAURANT; i++) {
+                Plat plat = new Plat(platId, DISHES[(int) (platId % DISHES.length)] + " " + platId,
+                        5.0 + (platId % 200) / 10.0);
+                plat.setDisponible(platId % 7 != 0);
+                restaurant.addPlat(plat);
+                platId++;
+            }
+            restaurants.add(restaurant);
+        }
+        return restaurants;
+    }
+
+    /**
+     * Pseudo-random ids in [1, size], used to spread lookups over the whole catalog
+     */
+    static long[] lookupIds(int size, int count) {
+        long[] ids = new long[count];
+        long seed = 42;
+        for (int i = 0; i < count; i++) {
+            seed = seed * 6364136223846793005L + 1442695040888963407L;
+            ids[i] = 1 + Long.remainderUnsigned(seed >>> 16, size);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,101 @@
+package com.speed_liv.menu.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.speed_liv.menu.infrastructure.persistance.RestaurantCatalog;
+import com.speed_liv.menu.infrastructure.persistance.RestaurantJsonReader;
+import com.speed_liv.menu.infrastructure.persistance.RestaurantSnapshotReader;
+import com.speed_liv.menu.infrastructure.persistance.RestaurantSnapshotWriter;
+import com.speed_liv.menu.model.entity.Restaurant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start of the JSON adapter: time to turn a catalog file into a RestaurantCatalog,
+ * measured once per fresh JVM (no warmed-up JIT), for each catalog format
+ * The files are written by the setup, so they are in the OS page cache
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 5, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class CatalogLoadBenchmark {
+
+    public enum Format {
+        // ObjectMapper.readValue into a List<Restaurant>, as before the streaming reader
+        JSON_DATABIND,
+        JSON_STREAMING,
+        SNAPSHOT
+    }
+
+    @Param({"JSON_DATABIND", "JSON_STREAMING", "SNAPSHOT"})
+    public Format format;
+
+    @Param({"1000", "100000", "1000000"})
+    public int catalogSize;
+
+    private Path file;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<Restaurant> catalog = CatalogGenerator.generate(catalogSize);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        if (format == Format.SNAPSHOT) {
+            file = Files.createTempFile("restaurants-", ".mcat");
+            try (RestaurantSnapshotWriter writer = RestaurantSnapshotWriter.create(file)) {
+                for (Restaurant restaurant : catalog) {
+                    writer.write(restaurant);
+                }
+            }
+        } else {
+            file = Files.createTempFile("restaurants-", ".json");
+            objectMapper.writeValue(file.toFile(), catalog);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public RestaurantCatalog load() throws IOException {
+        List<Restaurant> restaurants = new ArrayList<>();
+        switch (format) {
+            case JSON_DATABIND:
+                try (InputStream in = Files.newInputStream(file)) {
+                    restaurants = objectMapper.readValue(in, new TypeReference<List<Restaurant>>() {});
+                }
+                break;
+            case JSON_STREAMING:
+                new RestaurantJsonReader(objectMapper.getFactory(), false).read(new FileSystemResource(file), restaurants::add);
+                break;
+            default:
+                RestaurantSnapshotReader.read(new FileSystemResource(file), restaurants::add);
+        }
+        return RestaurantCatalog.of(restaurants);
+    }
+}
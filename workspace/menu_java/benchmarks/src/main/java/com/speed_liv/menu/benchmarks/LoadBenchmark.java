@@ -0,0 +1,395 @@
+package com.speed_liv.menu.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openapitools.OpenApiGeneratorApplication;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * GET /restaurants/{id} under 1k to 10k concurrent connections, thread-per-request against virtual threads
+ * (app.threads.virtual). H2 strategy with the restaurant and response caches off, so every request runs
+ * a JPA query and blocks its request thread on JDBC
+ *
+ * Not a JMH benchmark: the service runs in a process of its own (same classpath, -Xmx1g), started once per mode.
+ * Each connection is a virtual thread of this JVM that sends its next request as soon as the previous one is
+ * answered (closed loop), or after thinkTime milliseconds (clients polling), on a kept-alive socket.
+ * Each service is first warmed up (JIT) for serverWarmup seconds by SERVER_WARMUP_CONNECTIONS connections, so the
+ * first connection count is not measured on a colder JVM than the last. Per connection count: warmup, then throughput
+ * and latency percentiles of the requests sent during the measurement window
+ *
+ * Options (key=value): modes=platform,virtual connections=1000,2500,5000,10000 serverWarmup=60 warmup=10 duration=20 thinkTime=0
+ * catalogSize=1000 out=target/load-result.json; server.*, spring.* and app.* are passed to the service as --key=value
+ */
+public final class LoadBenchmark {
+
+    // Saturated, a closed loop of 10k connections waits connections / throughput per request
+    private static final long SOCKET_TIMEOUT_MILLIS = 180_000;
+    private static final int SERVER_WARMUP_CONNECTIONS = 200;
+
+    private LoadBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        List<String> serverOptions = new ArrayList<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected key=value, got " + arg);
+            }
+            if (arg.startsWith("server.") || arg.startsWith("spring.") || arg.startsWith("app.")) {
+                serverOptions.add("--" + arg);
+            } else {
+                options.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        List<String> modes = Arrays.asList(options.getOrDefault("modes", "platform,virtual").split(","));
+        int[] connectionCounts = Arrays.stream(options.getOrDefault("connections", "1000,2500,5000,10000").split(","))
+                .mapToInt(Integer::parseInt).toArray();
+        int serverWarmupSeconds = Integer.parseInt(options.getOrDefault("serverWarmup", "60"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "20"));
+        int catalogSize = Integer.parseInt(options.getOrDefault("catalogSize", "1000"));
+        long thinkMillis = Long.parseLong(options.getOrDefault("thinkTime", "0"));
+        Path out = Paths.get(options.getOrDefault("out", "target/load-result.json"));
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        Path seedFile = Files.createTempFile("restaurants-h2-", ".json");
+        Path jsonFile = Files.createTempFile("restaurants-", ".json");
+        objectMapper.writeValue(seedFile.toFile(), CatalogGenerator.generate(catalogSize));
+        Files.write(jsonFile, "[]".getBytes(StandardCharsets.UTF_8));
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        System.out.printf("%-9s %11s %10s %9s %9s %9s %9s %8s%n",
+                "mode", "connections", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+        try {
+            for (String mode : modes) {
+                try (Server server = Server.start(mode, seedFile, jsonFile, catalogSize, serverOptions)) {
+                    if (serverWarmupSeconds > 0) {
+                        run(server.port, catalogSize, SERVER_WARMUP_CONNECTIONS, 0, serverWarmupSeconds, 1);
+                    }
+                    for (int connections : connectionCounts) {
+                        Map<String, Object> result = run(server.port, catalogSize, connections, thinkMillis, warmupSeconds, durationSeconds);
+                        result.put("mode", mode);
+                        results.add(result);
+                        System.out.printf("%-9s %11d %10.0f %9.2f %9.2f %9.2f %9.2f %8d%n", mode, connections,
+                                result.get("throughput"), result.get("p50Ms"), result.get("p99Ms"), result.get("p999Ms"),
+                                result.get("maxMs"), result.get("errors"));
+                    }
+                }
+            }
+        } finally {
+            Files.deleteIfExists(seedFile);
+            Files.deleteIfExists(jsonFile);
+        }
+        if (out.getParent() != null) {
+            Files.createDirectories(out.getParent());
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(out.toFile(), results);
+        System.out.println("Results written to " + out);
+    }
+
+    private static Map<String, Object> run(int port, int catalogSize, int connections, long thinkMillis,
+                                           int warmupSeconds, int durationSeconds) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long measureTo = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+        long[] ids = CatalogGenerator.lookupIds(catalogSize, 4096);
+        AtomicInteger connected = new AtomicInteger();
+        Connection[] workers = new Connection[connections];
+        Thread[] threads = new Thread[connections];
+        for (int i = 0; i < connections; i++) {
+            workers[i] = new Connection(port, ids, i, thinkMillis, measureFrom, measureTo, connected);
+            threads[i] = Thread.ofVirtual().name("load-", i).start(workers[i]);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        int count = 0;
+        long errors = 0;
+        for (Connection worker : workers) {
+            count += worker.count;
+            errors += worker.errors;
+        }
+        long[] latencies = new long[count];
+        int position = 0;
+        for (Connection worker : workers) {
+            System.arraycopy(worker.latencies, 0, latencies, position, worker.count);
+            position += worker.count;
+        }
+        Arrays.sort(latencies);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("connections", connections);
+        result.put("thinkTimeMs", thinkMillis);
+        result.put("connected", connected.get());
+        result.put("requests", count);
+        result.put("errors", errors);
+        result.put("throughput", count / (double) durationSeconds);
+        result.put("p50Ms", percentile(latencies, 0.50));
+        result.put("p99Ms", percentile(latencies, 0.99));
+        result.put("p999Ms", percentile(latencies, 0.999));
+        result.put("maxMs", count == 0 ? 0.0 : latencies[count - 1] / 1e6);
+        return result;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)] / 1e6;
+    }
+
+    /**
+     * One client connection, reopened when the server closes it or a request fails
+     */
+    private static final class Connection implements Runnable {
+
+        private final int port;
+        private final long[] ids;
+        private final long thinkMillis;
+        private final long measureFrom;
+        private final long measureTo;
+        private final AtomicInteger connected;
+        private int next;
+        private long[] latencies = new long[256];
+        private int count;
+        private long errors;
+
+        Connection(int port, long[] ids, int offset, long thinkMillis, long measureFrom, long measureTo, AtomicInteger connected) {
+            this.port = port;
+            this.ids = ids;
+            this.next = offset % ids.length;
+            this.thinkMillis = thinkMillis;
+            this.measureFrom = measureFrom;
+            this.measureTo = measureTo;
+            this.connected = connected;
+        }
+
+        @Override
+        public void run() {
+            boolean counted = false;
+            while (System.nanoTime() < measureTo) {
+                try (Socket socket = new Socket()) {
+                    socket.setTcpNoDelay(true);
+                    socket.setSoTimeout((int) SOCKET_TIMEOUT_MILLIS);
+                    socket.connect(new InetSocketAddress("localhost", port), (int) SOCKET_TIMEOUT_MILLIS);
+                    if (!counted) {
+                        connected.incrementAndGet();
+                        counted = true;
+                    }
+                    OutputStream output = socket.getOutputStream();
+                    InputStream input = new BufferedInputStream(socket.getInputStream());
+                    boolean open = true;
+                    while (open) {
+                        long sent = System.nanoTime();
+                        if (sent >= measureTo) {
+                            return;
+                        }
+                        long id = ids[next];
+                        next = (next + 1) % ids.length;
+                        output.write(("GET /restaurants/" + id + " HTTP/1.1\r\nHost: localhost\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+                        output.flush();
+                        int status = readResponse(input);
+                        open = status > 0;
+                        long received = System.nanoTime();
+                        if (sent >= measureFrom) {
+                            if (Math.abs(status) != 200) {
+                                errors++;
+                            } else {
+                                record(received - sent);
+                            }
+                        }
+                        if (thinkMillis > 0) {
+                            Thread.sleep(thinkMillis);
+                        }
+                    }
+                } catch (IOException e) {
+                    if (System.nanoTime() >= measureFrom) {
+                        errors++;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        private void record(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+    }
+
+    /**
+     * Reads one HTTP/1.1 response, with a Content-Length or chunked body
+     * @return the status, negated when the server closes the connection after it
+     */
+    private static int readResponse(InputStream input) throws IOException {
+        String statusLine = readLine(input);
+        int status = Integer.parseInt(statusLine.substring(9, 12));
+        long length = 0;
+        boolean chunked = false;
+        boolean close = false;
+        for (String line = readLine(input); !line.isEmpty(); line = readLine(input)) {
+            int colon = line.indexOf(':');
+            String name = line.substring(0, colon).trim();
+            String value = line.substring(colon + 1).trim();
+            if (name.equalsIgnoreCase("Content-Length")) {
+                length = Long.parseLong(value);
+            } else if (name.equalsIgnoreCase("Transfer-Encoding")) {
+                chunked = value.equalsIgnoreCase("chunked");
+            } else if (name.equalsIgnoreCase("Connection")) {
+                close = value.equalsIgnoreCase("close");
+            }
+        }
+        if (chunked) {
+            for (long size = chunkSize(input); size > 0; size = chunkSize(input)) {
+                skip(input, size);
+                readLine(input);
+            }
+            // Trailers
+            while (!readLine(input).isEmpty()) {
+                // skipped
+            }
+        } else {
+            skip(input, length);
+        }
+        return close ? -status : status;
+    }
+
+    private static long chunkSize(InputStream input) throws IOException {
+        String line = readLine(input);
+        int extension = line.indexOf(';');
+        return Long.parseLong(extension < 0 ? line.trim() : line.substring(0, extension).trim(), 16);
+    }
+
+    private static String readLine(InputStream input) throws IOException {
+        StringBuilder line = new StringBuilder(64);
+        int b;
+        while ((b = input.read()) != '\n') {
+            if (b < 0) {
+                throw new EOFException();
+            }
+            if (b != '\r') {
+                line.append((char) b);
+            }
+        }
+        return line.toString();
+    }
+
+    private static void skip(InputStream input, long length) throws IOException {
+        while (length > 0) {
+            long skipped = input.skip(length);
+            if (skipped <= 0) {
+                if (input.read() < 0) {
+                    throw new EOFException();
+                }
+                skipped = 1;
+            }
+            length -= skipped;
+        }
+    }
+
+    /**
+     * The menu service in a child JVM, on the classpath of this one
+     */
+    private static final class Server implements AutoCloseable {
+
+        private final Process process;
+        private final int port;
+
+        private Server(Process process, int port) {
+            this.process = process;
+            this.port = port;
+        }
+
+        static Server start(String mode, Path seedFile, Path jsonFile, int catalogSize, List<String> serverOptions)
+                throws IOException, InterruptedException {
+            int port;
+            try (ServerSocket socket = new ServerSocket(0)) {
+                port = socket.getLocalPort();
+            }
+            List<String> command = new ArrayList<>(Arrays.asList(
+                    Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                    "-Xms1g", "-Xmx1g",
+                    "-cp", System.getProperty("java.class.path"),
+                    OpenApiGeneratorApplication.class.getName(),
+                    "--server.port=" + port,
+                    "--app.threads.virtual=" + "virtual".equals(mode),
+                    "--app.datasource.strategy=H2",
+                    "--app.datasource.h2-seed-location=" + seedFile.toUri(),
+                    "--app.datasource.json-location=" + jsonFile.toUri(),
+                    "--app.datasource.json-watch.enabled=false",
+                    "--app.datasource.h2-cache.enabled=false",
+                    "--app.datasource.response-cache.enabled=false",
+                    // Every connection stays open; none is closed after a number of requests
+                    "--server.tomcat.max-connections=20000",
+                    "--server.tomcat.accept-count=1000",
+                    "--server.tomcat.max-keep-alive-requests=-1",
+                    "--spring.jpa.show-sql=false",
+                    "--logging.level.root=WARN"));
+            command.addAll(serverOptions);
+            Path log = Paths.get("target", "load-server-" + mode + ".log");
+            Files.createDirectories(log.getParent());
+            Process process = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(log.toFile())
+                    .start();
+            Server server = new Server(process, port);
+            long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+            while (!server.answers(catalogSize)) {
+                if (!process.isAlive() || System.nanoTime() > deadline) {
+                    server.close();
+                    throw new IllegalStateException("The service did not start, see " + log);
+                }
+                Thread.sleep(500);
+            }
+            return server;
+        }
+
+        // Also checks that the whole catalog was seeded
+        private boolean answers(int catalogSize) {
+            try (Socket socket = new Socket("localhost", port)) {
+                socket.setSoTimeout(5000);
+                OutputStream output = socket.getOutputStream();
+                output.write(("GET /restaurants/" + catalogSize + " HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n")
+                        .getBytes(StandardCharsets.US_ASCII));
+                output.flush();
+                return Math.abs(readResponse(new BufferedInputStream(socket.getInputStream()))) == 200;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public void close() throws InterruptedException {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.speed_liv.menu.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.speed_liv.menu.config.DataSourceStrategy;
+import com.speed_liv.menu.services.ResponseSnapshotCache;
+import com.speed_liv.menu.services.RestaurantService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response bodies of GET /restaurants and GET /restaurants/{id}:
+ * service read + Jackson (the path without ResponseSnapshotCache) against the pre-serialized snapshots
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ResponseSnapshotBenchmark {
+
+    private static final int LOOKUP_MASK = 4095;
+
+    @Param({"JSON", "H2"})
+    public DataSourceStrategy strategy;
+
+    @Param({"10", "1000", "100000"})
+    public int catalogSize;
+
+    private CatalogFixture fixture;
+    private RestaurantService restaurantService;
+    private ResponseSnapshotCache responseSnapshotCache;
+    private ObjectMapper objectMapper;
+    private long[] lookupIds;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        fixture = CatalogFixture.start(strategy, catalogSize);
+        restaurantService = fixture.getBean(RestaurantService.class);
+        responseSnapshotCache = fixture.getBean(ResponseSnapshotCache.class);
+        // The mapper Spring MVC writes responses with
+        objectMapper = fixture.getBean(ObjectMapper.class);
+        lookupIds = CatalogGenerator.lookupIds(catalogSize, LOOKUP_MASK + 1);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        fixture.close();
+    }
+
+    @Benchmark
+    public byte[] catalogJackson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(restaurantService.getAllRestaurants());
+    }
+
+    @Benchmark
+    public byte[] catalogSnapshot() {
+        return responseSnapshotCache.catalog().getJson();
+    }
+
+    @Benchmark
+    public byte[] catalogSnapshotGzip() {
+        return responseSnapshotCache.catalog().getGzip();
+    }
+
+    @Benchmark
+    public byte[] restaurantJackson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(restaurantService.getRestaurantById(lookupIds[next++ & LOOKUP_MASK]).get());
+    }
+
+    @Benchmark
+    public byte[] restaurantSnapshot() {
+        return responseSnapshotCache.restaurant(lookupIds[next++ & LOOKUP_MASK]).get().getJson();
+    }
+}
@@ -0,0 +1,57 @@
+package com.speed_liv.menu.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.speed_liv.menu.model.entity.Restaurant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of model.entity.Restaurant graphs, as done by the controller
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RestaurantSerializationBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int catalogSize;
+
+    private ObjectMapper objectMapper;
+    private List<Restaurant> catalog;
+    private Restaurant restaurant;
+
+    @Setup
+    public void setUp() {
+        // Same builder Spring MVC uses for its message converters
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        catalog = CatalogGenerator.generate(catalogSize);
+        restaurant = catalog.get(catalog.size() / 2);
+    }
+
+    @Benchmark
+    public byte[] serializeCatalog() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(catalog);
+    }
+
+    @Benchmark
+    public byte[] serializeRestaurant() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(restaurant);
+    }
+}
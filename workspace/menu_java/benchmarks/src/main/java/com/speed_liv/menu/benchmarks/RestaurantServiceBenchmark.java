@@ -0,0 +1,69 @@
+package com.speed_liv.menu.benchmarks;
+
+import com.speed_liv.menu.config.DataSourceStrategy;
+import com.speed_liv.menu.model.entity.Restaurant;
+import com.speed_liv.menu.services.RestaurantService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read paths of RestaurantService for every DataSourceStrategy
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RestaurantServiceBenchmark {
+
+    private static final int LOOKUP_MASK = 4095;
+
+    @Param({"JSON", "H2", "BOTH"})
+    public DataSourceStrategy strategy;
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int catalogSize;
+
+    private CatalogFixture fixture;
+    private RestaurantService restaurantService;
+    private long[] lookupIds;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        fixture = CatalogFixture.start(strategy, catalogSize);
+        restaurantService = fixture.getBean(RestaurantService.class);
+        lookupIds = CatalogGenerator.lookupIds(catalogSize, LOOKUP_MASK + 1);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        fixture.close();
+    }
+
+    @Benchmark
+    public List<Restaurant> getAllRestaurants() {
+        return restaurantService.getAllRestaurants();
+    }
+
+    @Benchmark
+    public Optional<Restaurant> getRestaurantById() {
+        return restaurantService.getRestaurantById(lookupIds[next++ & LOOKUP_MASK]);
+    }
+}
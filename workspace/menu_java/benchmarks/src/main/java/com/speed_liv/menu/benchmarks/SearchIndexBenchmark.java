@@ -0,0 +1,64 @@
+package com.speed_liv.menu.benchmarks;
+
+import com.speed_liv.menu.config.DataSourceStrategy;
+import com.speed_liv.menu.model.SearchHit;
+import com.speed_liv.menu.services.SearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /search autocomplete: SearchIndex.search while a name is being typed
+ * Sampled, so the JMH report gives the p99 per query; 333,334 restaurants make 1,000,002 plats
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SearchIndexBenchmark {
+
+    // Keystrokes of a few searches, from one letter to several words
+    private static final String[] QUERIES = {
+        "c", "cr", "crep", "crepe suz", "coq au v", "p", "pizza marg", "restaurant 1", "restaurant 16",
+        "tempura udon 5", "gratin d", "r", "ratatouille 9999", "dragon roll 42"
+    };
+
+    @Param({"1000", "333334"})
+    public int catalogSize;
+
+    private CatalogFixture fixture;
+    private SearchIndex searchIndex;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        fixture = CatalogFixture.start(DataSourceStrategy.JSON, catalogSize);
+        searchIndex = fixture.getBean(SearchIndex.class);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        fixture.close();
+    }
+
+    @Benchmark
+    public List<SearchHit> autocomplete() {
+        next = (next + 1) % QUERIES.length;
+        return searchIndex.search(QUERIES[next], SearchIndex.DEFAULT_LIMIT);
+    }
+}
@@ -1,9 +1,12 @@
 package com.speed_liv.menu.api;
 
 import com.speed_liv.menu.model.Plat;
+import com.speed_liv.menu.services.MenuDuJour;
 
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -18,9 +21,12 @@ import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.context.request.NativeWebRequest;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.constraints.*;
 import javax.validation.Valid;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -32,10 +38,12 @@ import javax.annotation.Generated;
 public class MenusApiController implements MenusApi {
 
     private final NativeWebRequest request;
+    private final MenuDuJour menuDuJour;
 
     @Autowired
-    public MenusApiController(NativeWebRequest request) {
+    public MenusApiController(NativeWebRequest request, MenuDuJour menuDuJour) {
         this.request = request;
+        this.menuDuJour = menuDuJour;
     }
 
     @Override
@@ -43,4 +51,27 @@ public class MenusApiController implements MenusApi {
         return Optional.ofNullable(request);
     }
 
+    /**
+     * GET /menus/jour
+     * Available plats, written from the pre-serialized menu of the day (no selection or serialization per request)
+     * The body is written directly, as ApiUtil does for the generated examples: the declared type is List<Plat>
+     */
+    @Override
+    public ResponseEntity<List<Plat>> getMenuDuJour() {
+        MenuDuJour.Snapshot snapshot = menuDuJour.current();
+        if (request.checkNotModified(snapshot.getETag())) {
+            return null;
+        }
+        HttpServletResponse response = request.getNativeResponse(HttpServletResponse.class);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        response.setContentLength(snapshot.getJson().length);
+        try {
+            response.getOutputStream().write(snapshot.getJson());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return null;
+    }
+
 }
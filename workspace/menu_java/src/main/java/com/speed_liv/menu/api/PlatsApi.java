@@ -44,7 +44,11 @@ public interface PlatsApi {
     /**
      * GET /plats : Liste tous les plats
      *
+     * @param minPrice Prix minimum (inclus) (optional)
+     * @param maxPrice Prix maximum (inclus) (optional)
+     * @param sort Ordre de la liste: id (par défaut) ou price (du moins cher au plus cher) (optional)
      * @return Liste des plats (status code 200)
+     *         or Paramètres invalides (status code 400)
      */
     @Operation(
         operationId = "getAllPlats",
@@ -52,7 +56,8 @@ public interface PlatsApi {
         responses = {
             @ApiResponse(responseCode = "200", description = "Liste des plats", content = {
                 @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = Plat.class)))
-            })
+            }),
+            @ApiResponse(responseCode = "400", description = "Paramètres invalides")
         }
     )
     @RequestMapping(
@@ -62,7 +67,9 @@ public interface PlatsApi {
     )
     
     default ResponseEntity<List<Plat>> getAllPlats(
-        
+        @Parameter(name = "minPrice", description = "Prix minimum (inclus)", in = ParameterIn.QUERY) @Valid @RequestParam(value = "minPrice", required = false) Double minPrice,
+        @Parameter(name = "maxPrice", description = "Prix maximum (inclus)", in = ParameterIn.QUERY) @Valid @RequestParam(value = "maxPrice", required = false) Double maxPrice,
+        @Parameter(name = "sort", description = "Ordre de la liste: id (par défaut) ou price (du moins cher au plus cher)", in = ParameterIn.QUERY, schema = @Schema(allowableValues = {"id", "price"})) @Valid @RequestParam(value = "sort", required = false) String sort
     ) {
         getRequest().ifPresent(request -> {
             for (MediaType mediaType: MediaType.parseMediaTypes(request.getHeader("Accept"))) {
@@ -117,4 +124,52 @@ public interface PlatsApi {
 
     }
 
+
+    /**
+     * PATCH /plats/{id}/disponible : Changer la disponibilité d&#39;un plat
+     *
+     * @param id  (required)
+     * @param body Nouvelle disponibilité du plat (required)
+     * @return Plat mis à jour (status code 200)
+     *         or Corps invalide (status code 400)
+     *         or Plat non trouvé (status code 404)
+     */
+    @Operation(
+        operationId = "updatePlatDisponible",
+        summary = "Changer la disponibilité d'un plat",
+        description = "Visible aussitôt dans /plats, /plats/{id} et /menus/jour. Les lectures de /restaurants "
+            + "(liste, détail, flux NDJSON) gardent l'ancienne valeur jusqu'à l'écriture en base, "
+            + "au plus app.plat-availability.flush-delay-ms plus tard",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Plat mis à jour", content = {
+                @Content(mediaType = "application/json", schema = @Schema(implementation = Plat.class))
+            }),
+            @ApiResponse(responseCode = "400", description = "Corps invalide"),
+            @ApiResponse(responseCode = "404", description = "Plat non trouvé")
+        }
+    )
+    @RequestMapping(
+        method = RequestMethod.PATCH,
+        value = "/plats/{id}/disponible",
+        produces = { "application/json" },
+        consumes = { "application/json" }
+    )
+    
+    default ResponseEntity<Plat> updatePlatDisponible(
+        @Parameter(name = "id", description = "", required = true, in = ParameterIn.PATH) @PathVariable("id") Integer id,
+        @Parameter(name = "body", description = "Nouvelle disponibilité du plat", required = true) @Valid @RequestBody Boolean body
+    ) {
+        getRequest().ifPresent(request -> {
+            for (MediaType mediaType: MediaType.parseMediaTypes(request.getHeader("Accept"))) {
+                if (mediaType.isCompatibleWith(MediaType.valueOf("application/json"))) {
+                    String exampleString = "{ \"price\" : 6.027456183070403, \"name\" : \"name\", \"id\" : 0, \"disponible\" : true }";
+                    ApiUtil.setExampleResponse(request, "application/json", exampleString);
+                    break;
+                }
+            }
+        });
+        return new ResponseEntity<>(HttpStatus.NOT_IMPLEMENTED);
+
+    }
+
 }
@@ -1,6 +1,7 @@
 package com.speed_liv.menu.api;
 
 import com.speed_liv.menu.model.Plat;
+import com.speed_liv.menu.services.PlatIndex;
 
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,6 +22,7 @@ import org.springframework.web.context.request.NativeWebRequest;
 import javax.validation.constraints.*;
 import javax.validation.Valid;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -32,10 +34,12 @@ import javax.annotation.Generated;
 public class PlatsApiController implements PlatsApi {
 
     private final NativeWebRequest request;
+    private final PlatIndex platIndex;
 
     @Autowired
-    public PlatsApiController(NativeWebRequest request) {
+    public PlatsApiController(NativeWebRequest request, PlatIndex platIndex) {
         this.request = request;
+        this.platIndex = platIndex;
     }
 
     @Override
@@ -43,4 +47,59 @@ public class PlatsApiController implements PlatsApi {
         return Optional.ofNullable(request);
     }
 
+    /**
+     * GET /plats
+     * All plats of the configured data sources, from the plat index
+     * A price bound or sort=price reads the price index: two binary searches, then only the plats in range
+     */
+    @Override
+    public ResponseEntity<List<Plat>> getAllPlats(Double minPrice, Double maxPrice, String sort) {
+        boolean byPrice = "price".equals(sort);
+        if (sort != null && !byPrice && !"id".equals(sort)) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (minPrice == null && maxPrice == null && !byPrice) {
+            return ResponseEntity.ok(platIndex.findAll());
+        }
+        List<Plat> plats;
+        try {
+            plats = platIndex.findByPrice(minPrice != null ? minPrice : Double.NEGATIVE_INFINITY,
+                    maxPrice != null ? maxPrice : Double.POSITIVE_INFINITY);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!byPrice) {
+            plats.sort(Comparator.comparing(Plat::getId));
+        }
+        return ResponseEntity.ok(plats);
+    }
+
+    /**
+     * GET /plats/{id}
+     * One plat by id, without loading its restaurant
+     */
+    @Override
+    public ResponseEntity<Plat> getPlatById(Integer id) {
+        return platIndex.findById(id.longValue())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * PATCH /plats/{id}/disponible
+     * Flips the availability in the plat index, which every plat read sees at once;
+     * PlatAvailabilityWriter writes it to H2 with the other flips of its round. Until then, for at most
+     * app.plat-availability.flush-delay-ms plus the write, /restaurants reads return the previous value.
+     * Only H2 plats can be changed
+     */
+    @Override
+    public ResponseEntity<Plat> updatePlatDisponible(Integer id, Boolean body) {
+        if (body == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return platIndex.setDisponible(id.longValue(), body)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
 }
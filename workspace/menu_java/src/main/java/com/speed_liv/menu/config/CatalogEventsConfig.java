@@ -0,0 +1,83 @@
+package com.speed_liv.menu.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties of the catalog change stream (GET /restaurants/events)
+ * Reads from application.properties: app.catalog-events.*
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.catalog-events")
+public class CatalogEventsConfig {
+
+    // Last events kept for all subscribers, rounded up to a power of two
+    // A subscriber that falls further behind is disconnected and told to reload when it reconnects
+    private int bufferSize = 1024;
+
+    // Threads writing events to the subscribers
+    private int senders = 2;
+
+    // A connection is closed after this long; the client reconnects and resumes from its last event
+    private Duration timeout = Duration.ofMinutes(30);
+
+    // Delay the client waits before reconnecting (the SSE retry field)
+    private Duration retry = Duration.ofSeconds(3);
+
+    // A subscriber whose write takes longer (client not reading) is disconnected,
+    // and its sender thread replaced until the write gives up
+    private Duration sendTimeout = Duration.ofSeconds(5);
+
+    // How often writes are checked against sendTimeout
+    private Duration watchdog = Duration.ofSeconds(1);
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public int getSenders() {
+        return senders;
+    }
+
+    public void setSenders(int senders) {
+        this.senders = senders;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    public Duration getRetry() {
+        return retry;
+    }
+
+    public void setRetry(Duration retry) {
+        this.retry = retry;
+    }
+
+    public Duration getSendTimeout() {
+        return sendTimeout;
+    }
+
+    public void setSendTimeout(Duration sendTimeout) {
+        this.sendTimeout = sendTimeout;
+    }
+
+    public Duration getWatchdog() {
+        return watchdog;
+    }
+
+    public void setWatchdog(Duration watchdog) {
+        this.watchdog = watchdog;
+    }
+}
@@ -0,0 +1,9 @@
+package com.speed_liv.menu.config;
+
+/**
+ * Where the JSON adapter keeps its catalog once loaded
+ */
+public enum CatalogStorage {
+    HEAP,       // Restaurant and Plat entities, shared by all readers
+    OFF_HEAP    // Fixed-width records in direct buffers, entities built on each read
+}
@@ -21,6 +21,9 @@ public class CorsConfig {
         
         config.addAllowedMethod("*");
         config.addAllowedHeader("*");
+        // Let the browser client read the pagination cursor and the catalog ETag
+        config.addExposedHeader("X-Next-Cursor");
+        config.addExposedHeader("ETag");
         config.setAllowCredentials(false);
         
         source.registerCorsConfiguration("/**", config);
@@ -3,6 +3,8 @@ package com.speed_liv.menu.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 /**
  * Configuration properties for data source strategy
  * Reads from application.properties: app.datasource.strategy
@@ -13,6 +15,37 @@ public class DataSourceConfig {
 
     private DataSourceStrategy strategy = DataSourceStrategy.H2; // Default to H2
 
+    // Location of the JSON catalog (any Spring resource: classpath:, file:, ...)
+    private String jsonLocation = "classpath:bd/restaurants.json";
+
+    // Catalog seeded into H2 at startup (JSON or binary snapshot)
+    private String h2SeedLocation = "classpath:bd/restaurants-h2.json";
+
+    // How the H2 seed is written (app.datasource.seed-import.*)
+    private final SeedImport seedImport = new SeedImport();
+
+    // POST /restaurants/batch (app.datasource.batch-write.*)
+    private final BatchWrite batchWrite = new BatchWrite();
+
+    // Parse the JSON catalog from a memory mapping of the file (file: locations only)
+    private boolean jsonMemoryMap = false;
+
+    // Keep the loaded JSON catalog as entities on the heap, or as records in direct buffers
+    private CatalogStorage jsonStorage = CatalogStorage.HEAP;
+
+    // Reload the JSON catalog when a file: location changes on disk (app.datasource.json-watch.*)
+    private final JsonWatch jsonWatch = new JsonWatch();
+
+    // BOTH strategy: H2 and JSON are read concurrently (app.datasource.fan-out.*)
+    private final FanOut fanOut = new FanOut();
+
+    // Read-through cache in front of each adapter (app.datasource.h2-cache.*, app.datasource.json-cache.*)
+    private final RepositoryCache h2Cache = new RepositoryCache(true);
+    private final RepositoryCache jsonCache = new RepositoryCache(false);
+
+    // Serialized JSON of GET /restaurants/{id} responses (app.datasource.response-cache.*)
+    private final RepositoryCache responseCache = new RepositoryCache(true);
+
     public DataSourceStrategy getStrategy() {
         return strategy;
     }
@@ -21,6 +54,66 @@ public class DataSourceConfig {
         this.strategy = strategy;
     }
 
+    public String getJsonLocation() {
+        return jsonLocation;
+    }
+
+    public void setJsonLocation(String jsonLocation) {
+        this.jsonLocation = jsonLocation;
+    }
+
+    public String getH2SeedLocation() {
+        return h2SeedLocation;
+    }
+
+    public void setH2SeedLocation(String h2SeedLocation) {
+        this.h2SeedLocation = h2SeedLocation;
+    }
+
+    public SeedImport getSeedImport() {
+        return seedImport;
+    }
+
+    public BatchWrite getBatchWrite() {
+        return batchWrite;
+    }
+
+    public boolean isJsonMemoryMap() {
+        return jsonMemoryMap;
+    }
+
+    public void setJsonMemoryMap(boolean jsonMemoryMap) {
+        this.jsonMemoryMap = jsonMemoryMap;
+    }
+
+    public CatalogStorage getJsonStorage() {
+        return jsonStorage;
+    }
+
+    public void setJsonStorage(CatalogStorage jsonStorage) {
+        this.jsonStorage = jsonStorage;
+    }
+
+    public JsonWatch getJsonWatch() {
+        return jsonWatch;
+    }
+
+    public FanOut getFanOut() {
+        return fanOut;
+    }
+
+    public RepositoryCache getH2Cache() {
+        return h2Cache;
+    }
+
+    public RepositoryCache getJsonCache() {
+        return jsonCache;
+    }
+
+    public RepositoryCache getResponseCache() {
+        return responseCache;
+    }
+
     public boolean isJsonEnabled() {
         return strategy == DataSourceStrategy.JSON || strategy == DataSourceStrategy.BOTH;
     }
@@ -32,4 +125,152 @@ public class DataSourceConfig {
     public boolean isBothEnabled() {
         return strategy == DataSourceStrategy.BOTH;
     }
+
+    /**
+     * Bulk import of a catalog into H2: chunks of restaurants, one transaction each
+     */
+    public static class SeedImport {
+
+        private int chunkSize = 1000;
+
+        // Chunks written concurrently; with more than 1, ids no longer follow the file order
+        private int threads = 1;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+    }
+
+    /**
+     * Batch writes to H2: restaurants are saved in chunks, one transaction each
+     */
+    public static class BatchWrite {
+
+        private int chunkSize = 500;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    /**
+     * File watch of the JSON catalog (classpath: locations are never watched)
+     */
+    public static class JsonWatch {
+
+        private boolean enabled = true;
+
+        // Quiet period after the last file event before reloading, so a file being written is read once
+        private Duration debounce = Duration.ofMillis(500);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getDebounce() {
+            return debounce;
+        }
+
+        public void setDebounce(Duration debounce) {
+            this.debounce = debounce;
+        }
+    }
+
+    /**
+     * Bounded pool used to query both data sources in parallel
+     */
+    public static class FanOut {
+
+        private int threads = 4;
+
+        private int queueCapacity = 100;
+
+        // Max time to wait for each source before answering with partial data
+        private Duration timeout = Duration.ofSeconds(2);
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    /**
+     * Settings of a bounded cache of restaurants (adapter lookups or serialized responses)
+     */
+    public static class RepositoryCache {
+
+        private boolean enabled;
+
+        // Max number of restaurants kept; least valuable entries are evicted (W-TinyLFU)
+        private long maximumSize = 10_000;
+
+        private Duration ttl = Duration.ofMinutes(10);
+
+        public RepositoryCache(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
 }
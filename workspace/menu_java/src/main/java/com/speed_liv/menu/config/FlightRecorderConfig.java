@@ -0,0 +1,58 @@
+package com.speed_liv.menu.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties of the request flight recorder
+ * Reads from application.properties: app.flight-recorder.*
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.flight-recorder")
+public class FlightRecorderConfig {
+
+    private boolean enabled = true;
+
+    // Last requests kept in memory, rounded up to a power of two
+    private int capacity = 1024;
+
+    // Requests slower than this are logged, sampled by slowLogInterval
+    private Duration slowThreshold = Duration.ofMillis(500);
+
+    // At most one slow request logged per interval; the others are only counted in the next log line
+    private Duration slowLogInterval = Duration.ofSeconds(10);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public Duration getSlowThreshold() {
+        return slowThreshold;
+    }
+
+    public void setSlowThreshold(Duration slowThreshold) {
+        this.slowThreshold = slowThreshold;
+    }
+
+    public Duration getSlowLogInterval() {
+        return slowLogInterval;
+    }
+
+    public void setSlowLogInterval(Duration slowLogInterval) {
+        this.slowLogInterval = slowLogInterval;
+    }
+}
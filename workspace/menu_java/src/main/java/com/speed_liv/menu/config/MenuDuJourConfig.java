@@ -0,0 +1,40 @@
+package com.speed_liv.menu.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.ZoneId;
+
+/**
+ * Configuration properties of the menu of the day (GET /menus/jour)
+ * Reads from application.properties: app.menu-du-jour.*
+ * Also switches on @Scheduled, used to rebuild the menu at the day boundary
+ */
+@Configuration
+@EnableScheduling
+@ConfigurationProperties(prefix = "app.menu-du-jour")
+public class MenuDuJourConfig {
+
+    // When the menu is rebuilt for the new day (Spring cron, with seconds)
+    private String cron = "0 0 0 * * *";
+
+    // Time zone of the restaurants: gives the cron its midnight and the menu its date
+    private ZoneId zone = ZoneId.of("Europe/Paris");
+
+    public String getCron() {
+        return cron;
+    }
+
+    public void setCron(String cron) {
+        this.cron = cron;
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    public void setZone(ZoneId zone) {
+        this.zone = zone;
+    }
+}
@@ -0,0 +1,42 @@
+package com.speed_liv.menu.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.speed_liv.menu.infrastructure.diagnostics.FlightRecorder;
+import com.speed_liv.menu.infrastructure.diagnostics.FlightRecorderFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+/**
+ * Metrics of the web layer, next to the http.server.requests timers of Spring Boot:
+ * JSON serialization time (menu.serialization) and response sizes (menu.http.response.size),
+ * and the per-request breakdowns of the flight recorder
+ */
+@Configuration
+public class MetricsConfig {
+
+    // Replaces the converter Spring Boot would register, with the same ObjectMapper
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                                                   MeterRegistry meterRegistry) {
+        return new TimedJacksonHttpMessageConverter(objectMapper, meterRegistry);
+    }
+
+    @Bean
+    public ResponseSizeFilter responseSizeFilter(MeterRegistry meterRegistry) {
+        return new ResponseSizeFilter(meterRegistry);
+    }
+
+    // First filter, so the recorded total covers the other filters too
+    @Bean
+    @ConditionalOnProperty(name = "app.flight-recorder.enabled", matchIfMissing = true)
+    public FilterRegistrationBean<FlightRecorderFilter> flightRecorderFilter(FlightRecorder flightRecorder) {
+        FilterRegistrationBean<FlightRecorderFilter> registration = new FilterRegistrationBean<>(new FlightRecorderFilter(flightRecorder));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,40 @@
+package com.speed_liv.menu.config;
+
+import com.speed_liv.menu.infrastructure.persistance.CachingRestaurantRepository;
+import com.speed_liv.menu.infrastructure.persistance.TimedRestaurantRepository;
+import com.speed_liv.menu.model.repository.RestaurantRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Repositories used by the services: the adapters, decorated according to DataSourceConfig
+ * The timers wrap the adapter itself, so cache hits do not hide the latency of the data source
+ */
+@Configuration
+public class RestaurantRepositoryConfig {
+
+    @Bean
+    public RestaurantRepository h2RestaurantRepository(@Qualifier("h2RestaurantAdapter") RestaurantRepository adapter,
+                                                       DataSourceConfig dataSourceConfig, MeterRegistry meterRegistry) {
+        return decorate("H2", adapter, dataSourceConfig, dataSourceConfig.getH2Cache(), meterRegistry);
+    }
+
+    @Bean
+    public RestaurantRepository jsonRestaurantRepository(@Qualifier("jsonRestaurantAdapter") RestaurantRepository adapter,
+                                                         DataSourceConfig dataSourceConfig, MeterRegistry meterRegistry) {
+        return decorate("JSON", adapter, dataSourceConfig, dataSourceConfig.getJsonCache(), meterRegistry);
+    }
+
+    private static RestaurantRepository decorate(String name, RestaurantRepository adapter, DataSourceConfig dataSourceConfig,
+                                                 DataSourceConfig.RepositoryCache cache, MeterRegistry meterRegistry) {
+        RestaurantRepository timed = new TimedRestaurantRepository(name, dataSourceConfig.getStrategy().name(), adapter, meterRegistry);
+        if (!cache.isEnabled()) {
+            return timed;
+        }
+        CachingRestaurantRepository caching = new CachingRestaurantRepository(name, timed, cache);
+        caching.bindTo(meterRegistry);
+        return caching;
+    }
+}
@@ -0,0 +1,57 @@
+package com.speed_liv.menu.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Threads that run requests
+ * Reads from application.properties: app.threads.*
+ *
+ * With app.threads.virtual=true each request gets a virtual thread instead of one of the server.tomcat.threads.max
+ * platform threads of Tomcat, and so does MVC async work and each read of the BOTH fan-out (DataSourceFanOut).
+ * A request blocked on JDBC then parks its virtual thread and frees the carrier for other requests
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.threads")
+public class ThreadsConfig {
+
+    private boolean virtual = false;
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    public void setVirtual(boolean virtual) {
+        this.virtual = virtual;
+    }
+
+    /**
+     * @return an executor starting one virtual thread per task, named prefix + counter
+     */
+    public static ExecutorService virtualThreadExecutor(String prefix) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(prefix, 1).factory());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.threads.virtual", havingValue = "true")
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor("tomcat-handler-"));
+    }
+
+    // Replaces the pool Spring Boot would create for MVC async requests and @Async
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    @ConditionalOnProperty(name = "app.threads.virtual", havingValue = "true")
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(virtualThreadExecutor("task-"));
+    }
+}
@@ -0,0 +1,43 @@
+package com.speed_liv.menu.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.speed_liv.menu.infrastructure.diagnostics.RequestTrace;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson converter of Spring MVC that records how long each response body takes to write
+ * Recorded as menu.serialization (writer=message-converter); this includes copying into the response buffer,
+ * and flushing it to the client for bodies larger than the buffer
+ */
+public class TimedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final Timer timer;
+
+    public TimedJacksonHttpMessageConverter(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        super(objectMapper);
+        this.timer = Timer.builder("menu.serialization")
+                .description("Time spent serializing response bodies to JSON")
+                .tag("writer", "message-converter")
+                .tag("body", "any")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        long start = System.nanoTime();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            timer.record(elapsed, TimeUnit.NANOSECONDS);
+            RequestTrace.addSerialization(elapsed);
+        }
+    }
+}
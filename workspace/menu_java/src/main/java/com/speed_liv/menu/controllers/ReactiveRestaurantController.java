@@ -0,0 +1,99 @@
+package com.speed_liv.menu.controllers;
+
+import com.speed_liv.menu.model.RestaurantSummary;
+import com.speed_liv.menu.model.entity.Restaurant;
+import com.speed_liv.menu.services.ReactiveRestaurantService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-only restaurant API over the reactive port (API Layer in Hexagonal Architecture)
+ * Spring MVC subscribes to the Flux/Mono and releases the request thread; a streamed Flux (NDJSON, SSE)
+ * is requested one restaurant at a time, the next one only once the previous one was written,
+ * so a slow client slows down the read instead of buffering the catalog
+ */
+@RestController
+@RequestMapping("/reactive/restaurants")
+@Tag(name = "Reactive restaurants", description = "Read-only restaurant API streamed with backpressure, for slow clients")
+public class ReactiveRestaurantController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveRestaurantController.class);
+
+    private final ReactiveRestaurantService reactiveRestaurantService;
+
+    @Autowired
+    public ReactiveRestaurantController(ReactiveRestaurantService reactiveRestaurantService) {
+        this.reactiveRestaurantService = reactiveRestaurantService;
+    }
+
+    /**
+     * GET /reactive/restaurants
+     * Streamed as NDJSON or Server-Sent Events, or collected into one JSON array
+     */
+    @Operation(summary = "Get all restaurants", description = "Same data as GET /restaurants. With Accept: application/x-ndjson "
+            + "or text/event-stream, restaurants are read from the data source as the client consumes them")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved restaurants",
+                     content = {
+                         @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = Restaurant.class)),
+                         @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE, schema = @Schema(implementation = Restaurant.class)),
+                         @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = Restaurant.class)))
+                     })
+    })
+    // No produces: Spring MVC streams when Accept asks for NDJSON or SSE, and collects the Flux otherwise
+    @GetMapping
+    public Flux<Restaurant> getAllRestaurants() {
+        logger.debug("📡 API: GET /reactive/restaurants (using configured strategy)");
+        return reactiveRestaurantService.getAllRestaurants();
+    }
+
+    /**
+     * GET /reactive/restaurants/summaries
+     * Id and name of all restaurants, without plats
+     */
+    @Operation(summary = "Get restaurant summaries", description = "Same data as GET /restaurants/summaries")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved restaurant summaries",
+                     content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                       array = @ArraySchema(schema = @Schema(implementation = RestaurantSummary.class))))
+    })
+    @GetMapping("/summaries")
+    public Flux<RestaurantSummary> getRestaurantSummaries() {
+        logger.debug("📡 API: GET /reactive/restaurants/summaries (using configured strategy)");
+        return reactiveRestaurantService.getAllRestaurantSummaries();
+    }
+
+    /**
+     * GET /reactive/restaurants/{id}
+     */
+    @Operation(summary = "Get restaurant by ID", description = "Same data as GET /restaurants/{id}")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved restaurant",
+                     content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                       schema = @Schema(implementation = Restaurant.class))),
+        @ApiResponse(responseCode = "404", description = "Restaurant not found")
+    })
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Restaurant>> getRestaurantById(@PathVariable Long id) {
+        logger.debug("📡 API: GET /reactive/restaurants/{} (using configured strategy)", id);
+        return reactiveRestaurantService.getRestaurantById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
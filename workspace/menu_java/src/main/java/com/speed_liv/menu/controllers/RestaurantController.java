@@ -1,8 +1,27 @@
 package com.speed_liv.menu.controllers;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.speed_liv.menu.config.DataSourceConfig;
+import com.speed_liv.menu.model.CatalogChange;
+import com.speed_liv.menu.model.RestaurantSummary;
 import com.speed_liv.menu.model.entity.Restaurant;
+import com.speed_liv.menu.services.CatalogEventBroadcaster;
+import com.speed_liv.menu.services.CatalogVersion;
+import com.speed_liv.menu.services.RestaurantBatchResult;
+import com.speed_liv.menu.services.RestaurantBatchWriter;
+import com.speed_liv.menu.services.RestaurantPage;
+import com.speed_liv.menu.services.ResponseSnapshotCache;
 import com.speed_liv.menu.services.RestaurantService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -11,11 +30,20 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 /**
@@ -28,31 +56,213 @@ import java.util.List;
 public class RestaurantController {
 
     private static final Logger logger = LoggerFactory.getLogger(RestaurantController.class);
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
     
     private final RestaurantService restaurantService;
+    private final RestaurantBatchWriter batchWriter;
+    private final CatalogVersion catalogVersion;
+    private final CatalogEventBroadcaster catalogEvents;
+    // Pre-serialized bodies of the listing and of single restaurants, null when disabled
+    private final ResponseSnapshotCache responseSnapshots;
+    // One restaurant per line; flushing is left to the servlet buffer instead of every value
+    private final ObjectWriter ndjsonWriter;
+    // Reads a batch body one restaurant at a time
+    private final ObjectReader batchReader;
 
     @Autowired
-    public RestaurantController(RestaurantService restaurantService) {
+    public RestaurantController(RestaurantService restaurantService, RestaurantBatchWriter batchWriter,
+                                CatalogVersion catalogVersion, CatalogEventBroadcaster catalogEvents,
+                                ResponseSnapshotCache responseSnapshots, DataSourceConfig dataSourceConfig,
+                                ObjectMapper objectMapper) {
         this.restaurantService = restaurantService;
+        this.batchWriter = batchWriter;
+        this.catalogVersion = catalogVersion;
+        this.catalogEvents = catalogEvents;
+        this.responseSnapshots = dataSourceConfig.getResponseCache().isEnabled() ? responseSnapshots : null;
+        this.ndjsonWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.batchReader = objectMapper.readerFor(Restaurant.class);
     }
 
     /**
      * GET /restaurants
      * Get all restaurants using configured strategy (JSON, H2, or BOTH)
      * Frontend doesn't need to know which data source is used
+     * With limit and/or cursor, returns one page ordered by id and the next page token in X-Next-Cursor
+     * Answers 304 without touching the data source when If-None-Match holds the current catalog ETag
      */
-    @Operation(summary = "Get all restaurants", description = "Returns restaurants from configured data source (see app.datasource.strategy in application.properties)")
+    @Operation(summary = "Get all restaurants", description = "Returns restaurants from configured data source (see app.datasource.strategy in application.properties). "
+            + "Pass limit (and then the X-Next-Cursor value as cursor) to page through the catalog")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved list of restaurants",
+                     headers = @Header(name = NEXT_CURSOR_HEADER, description = "Cursor of the next page, absent on the last page"),
                      content = @Content(mediaType = "application/json", 
-                                       schema = @Schema(implementation = Restaurant.class)))
+                                       schema = @Schema(implementation = Restaurant.class))),
+        @ApiResponse(responseCode = "304", description = "Catalog unchanged since the ETag sent in If-None-Match"),
+        @ApiResponse(responseCode = "400", description = "Invalid limit or cursor")
     })
     @GetMapping
-    public ResponseEntity<List<Restaurant>> getAllRestaurants() {
-        logger.info("📡 API: GET /restaurants (using configured strategy)");
+    public ResponseEntity<?> getAllRestaurants(
+            @Parameter(description = "Page size (max " + RestaurantService.MAX_PAGE_SIZE + ")")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Opaque cursor from the X-Next-Cursor header of the previous page")
+            @RequestParam(required = false) String cursor,
+            WebRequest request) {
+        // Read the version before the data: a concurrent write can only make the ETag stale, never too new
+        String eTag = catalogVersion.catalogETag();
+        boolean paged = limit != null || cursor != null;
+        boolean gzip = !paged && gzipSnapshot(request);
+        if (request.checkNotModified(gzip ? gzipETag(eTag) : eTag)) {
+            return null;
+        }
+        if (paged) {
+            return getRestaurantPage(cursor, limit != null ? limit : RestaurantService.DEFAULT_PAGE_SIZE, eTag);
+        }
+        logger.debug("📡 API: GET /restaurants (using configured strategy)");
+        if (responseSnapshots != null) {
+            return snapshotResponse(responseSnapshots.catalog(), gzip);
+        }
         List<Restaurant> restaurants = restaurantService.getAllRestaurants();
-        logger.info("📡 API: Returning {} restaurants", restaurants.size());
-        return ResponseEntity.ok(restaurants);
+        logger.debug("📡 API: Returning {} restaurants", restaurants.size());
+        return revalidated(eTag).varyBy(HttpHeaders.ACCEPT).body(restaurants);
+    }
+
+    /**
+     * GET /restaurants with Accept: application/x-ndjson
+     * Streams the whole catalog, one JSON restaurant per line, straight from the repository cursor
+     * Heap use does not depend on the catalog size (for the search indexer and the nightly export)
+     * Revalidated like the JSON listing, with an ETag of its own: the bytes differ for the same catalog version
+     */
+    @Operation(summary = "Stream all restaurants", description = "Same data as GET /restaurants, written as newline-delimited JSON while it is read from the data source")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "One restaurant per line",
+                     content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                                       schema = @Schema(implementation = Restaurant.class)))
+    })
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAllRestaurants(WebRequest request, HttpServletResponse response) throws IOException {
+        String eTag = catalogVersion.catalogETag("ndjson");
+        if (request.checkNotModified(eTag)) {
+            return;
+        }
+        logger.debug("📡 API: GET /restaurants as NDJSON (using configured strategy)");
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        try (JsonGenerator generator = ndjsonWriter.getFactory().createGenerator(response.getOutputStream())) {
+            generator.setRootValueSeparator(null);
+            restaurantService.streamAllRestaurants(restaurant -> {
+                try {
+                    ndjsonWriter.writeValue(generator, restaurant);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    // Client went away: stop reading from the data source
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private ResponseEntity<List<Restaurant>> getRestaurantPage(String cursor, int limit, String eTag) {
+        logger.debug("📡 API: GET /restaurants?limit={}&cursor={} (using configured strategy)", limit, cursor);
+        RestaurantPage page;
+        try {
+            page = restaurantService.getRestaurantPage(cursor, limit);
+        } catch (IllegalArgumentException e) {
+            logger.debug("📡 API: Rejecting page request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        ResponseEntity.BodyBuilder response = revalidated(eTag).varyBy(HttpHeaders.ACCEPT);
+        if (page.hasNext()) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getRestaurants());
+    }
+
+    /**
+     * 200 carrying a strong ETag; no-cache lets clients keep the body but makes them revalidate it
+     */
+    private static ResponseEntity.BodyBuilder revalidated(String eTag) {
+        return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache());
+    }
+
+    /**
+     * Writes pre-serialized JSON as is, or its gzip variant under an ETag of its own:
+     * the two bodies differ byte for byte, a strong ETag cannot be shared
+     */
+    private static ResponseEntity<byte[]> snapshotResponse(ResponseSnapshotCache.Snapshot snapshot, boolean gzip) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING, HttpHeaders.ACCEPT);
+        if (gzip) {
+            return response.eTag(gzipETag(snapshot.getETag()))
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(snapshot.getGzip());
+        }
+        return response.eTag(snapshot.getETag()).body(snapshot.getJson());
+    }
+
+    private boolean gzipSnapshot(WebRequest request) {
+        return responseSnapshots != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    private static String gzipETag(String eTag) {
+        return CatalogVersion.variant(eTag, "gz");
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * GET /restaurants/summaries
+     * Id and name of all restaurants, without plats (list views)
+     */
+    @Operation(summary = "Get restaurant summaries", description = "Returns id and name of every restaurant from configured data source, without loading plats")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved restaurant summaries",
+                     content = @Content(mediaType = "application/json",
+                                       array = @ArraySchema(schema = @Schema(implementation = RestaurantSummary.class)))),
+        @ApiResponse(responseCode = "304", description = "Catalog unchanged since the ETag sent in If-None-Match")
+    })
+    @GetMapping("/summaries")
+    public ResponseEntity<List<RestaurantSummary>> getRestaurantSummaries(WebRequest request) {
+        String eTag = catalogVersion.catalogETag();
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        logger.debug("📡 API: GET /restaurants/summaries (using configured strategy)");
+        return revalidated(eTag).body(restaurantService.getAllRestaurantSummaries());
+    }
+
+    /**
+     * GET /restaurants/events
+     * Server-Sent Events stream of the catalog changes, so clients stop polling /restaurants
+     */
+    @Operation(summary = "Stream catalog changes",
+               description = "Server-Sent Events: a 'change' event (type, source, restaurantId) after every committed write or reload. "
+                       + "Clients reconnecting with Last-Event-ID get the events they missed, or a 'reset' event when too many were "
+                       + "missed and the catalog must be reloaded")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Event stream",
+                     content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                                       schema = @Schema(implementation = CatalogChange.class)))
+    })
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCatalogEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return catalogEvents.subscribe(lastEventId);
     }
 
     /**
@@ -65,13 +275,24 @@ public class RestaurantController {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved restaurant",
                      content = @Content(mediaType = "application/json", 
                                        schema = @Schema(implementation = Restaurant.class))),
+        @ApiResponse(responseCode = "304", description = "Restaurant unchanged since the ETag sent in If-None-Match"),
         @ApiResponse(responseCode = "404", description = "Restaurant not found")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<Restaurant> getRestaurantById(@PathVariable Long id) {
-        logger.info("📡 API: GET /restaurants/{} (using configured strategy)", id);
+    public ResponseEntity<?> getRestaurantById(@PathVariable Long id, WebRequest request) {
+        String eTag = catalogVersion.restaurantETag(id);
+        boolean gzip = gzipSnapshot(request);
+        if (request.checkNotModified(gzip ? gzipETag(eTag) : eTag)) {
+            return null;
+        }
+        logger.debug("📡 API: GET /restaurants/{} (using configured strategy)", id);
+        if (responseSnapshots != null) {
+            return responseSnapshots.restaurant(id)
+                    .<ResponseEntity<?>>map(snapshot -> snapshotResponse(snapshot, gzip))
+                    .orElse(ResponseEntity.notFound().build());
+        }
         return restaurantService.getRestaurantById(id)
-                .map(ResponseEntity::ok)
+                .<ResponseEntity<?>>map(restaurant -> revalidated(eTag).body(restaurant))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -96,6 +317,40 @@ public class RestaurantController {
         return ResponseEntity.status(HttpStatus.CREATED).body(savedRestaurant);
     }
 
+    /**
+     * POST /restaurants/batch
+     * Create or update many restaurants from a JSON array
+     * The body is parsed as it arrives and saved in chunks (app.datasource.batch-write.chunk-size), one transaction each
+     *
+     * @param request the request whose body is a JSON array of restaurants
+     * @return the status of each restaurant, in request order
+     */
+    @Operation(summary = "Create or update restaurants in bulk",
+               description = "Reads a JSON array of restaurants and saves them to H2 in chunks of app.datasource.batch-write.chunk-size, "
+                       + "one transaction per chunk. Returns one result per restaurant (SAVED with its id, INVALID or FAILED with the reason)",
+               requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(required = true, content = @Content(
+                       mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = Restaurant.class)))))
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch processed, see the status of each item",
+                     content = @Content(mediaType = "application/json",
+                                       schema = @Schema(implementation = RestaurantBatchResult.class))),
+        @ApiResponse(responseCode = "400", description = "Body is not JSON"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<RestaurantBatchResult> createRestaurants(HttpServletRequest request) throws IOException {
+        MappingIterator<Restaurant> restaurants;
+        try {
+            restaurants = batchReader.readValues(request.getInputStream());
+        } catch (JsonProcessingException e) {
+            logger.warn("❌ Batch body rejected: {}", e.getOriginalMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        try (MappingIterator<Restaurant> iterator = restaurants) {
+            return ResponseEntity.ok(batchWriter.write(iterator));
+        }
+    }
+
     /**
      * DELETE /restaurants/{id}
      * Delete a restaurant
@@ -0,0 +1,69 @@
+package com.speed_liv.menu.controllers;
+
+import com.speed_liv.menu.model.SearchHit;
+import com.speed_liv.menu.services.SearchIndex;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Search of restaurants and plats by name (API Layer in Hexagonal Architecture)
+ * Answered from the in-memory SearchIndex, fast enough to be called on every keystroke
+ */
+@RestController
+@RequestMapping("/search")
+@Tag(name = "Search", description = "Restaurant and plat name search, with autocomplete of the last word")
+public class SearchController {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchController.class);
+
+    private final SearchIndex searchIndex;
+
+    @Autowired
+    public SearchController(SearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    /**
+     * GET /search?q=...
+     * Restaurants and plats whose name has every word of q, the last word being completed
+     * Case and accents are ignored
+     */
+    @Operation(summary = "Search restaurants and plats", description = "Matches every word of q in restaurant and plat names, "
+            + "ignoring case and accents; the last word is matched as a prefix, for autocomplete")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Matching restaurants and plats, best completions first",
+                     content = @Content(mediaType = "application/json",
+                                       array = @ArraySchema(schema = @Schema(implementation = SearchHit.class)))),
+        @ApiResponse(responseCode = "400", description = "Invalid limit")
+    })
+    @GetMapping
+    public ResponseEntity<List<SearchHit>> search(
+            @Parameter(description = "Words to look for, e.g. \"creme bru\"")
+            @RequestParam(defaultValue = "") String q,
+            @Parameter(description = "Maximum number of results (max " + SearchIndex.MAX_LIMIT + ")")
+            @RequestParam(defaultValue = "" + SearchIndex.DEFAULT_LIMIT) int limit) {
+        logger.debug("📡 API: GET /search?q={}", q);
+        try {
+            return ResponseEntity.ok(searchIndex.search(q, limit));
+        } catch (IllegalArgumentException e) {
+            logger.debug("📡 API: Rejecting search: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
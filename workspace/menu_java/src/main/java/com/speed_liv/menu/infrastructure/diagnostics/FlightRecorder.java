@@ -0,0 +1,222 @@
+package com.speed_liv.menu.infrastructure.diagnostics;
+
+import com.speed_liv.menu.config.FlightRecorderConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Timing breakdowns of the last requests, kept in a fixed-size ring buffer
+ * Recording is lock-free and allocates nothing: a request claims the next slot with one atomic increment
+ * and copies its numbers into it. Readers copy the slots out and drop those overwritten while being read
+ *
+ * Requests slower than app.flight-recorder.slow-threshold are logged, at most one per slow-log-interval,
+ * instead of logging every call on the hot path
+ */
+@Component
+public class FlightRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecorder.class);
+
+    private static final long EMPTY = -1;
+    private static final long WRITING = -2;
+
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLong next = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final long slowThresholdNanos;
+    private final long slowLogIntervalNanos;
+    private final AtomicLong nextSlowLog;
+    private final AtomicLong unloggedSlow = new AtomicLong();
+
+    @Autowired
+    public FlightRecorder(FlightRecorderConfig config) {
+        int capacity = Integer.highestOneBit(Math.max(2, config.getCapacity() - 1)) << 1;
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = capacity - 1;
+        this.slowThresholdNanos = config.getSlowThreshold().toNanos();
+        this.slowLogIntervalNanos = config.getSlowLogInterval().toNanos();
+        this.nextSlowLog = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Record a finished request
+     */
+    public void record(String method, String uri, int status, RequestTrace trace) {
+        long endNanos = System.nanoTime();
+        long totalNanos = endNanos - trace.startNanos;
+        long sequence = next.getAndIncrement();
+        Slot slot = slots[(int) (sequence & mask)];
+        long previous = slot.sequence;
+        // Only contended when the buffer wraps around while a slot is still being written: drop this one
+        if (previous == WRITING || !Slot.SEQUENCE.compareAndSet(slot, previous, WRITING)) {
+            dropped.incrementAndGet();
+        } else {
+            slot.timestamp = System.currentTimeMillis();
+            slot.method = method;
+            slot.uri = uri;
+            slot.status = status;
+            slot.totalNanos = totalNanos;
+            slot.serviceNanos = trace.getServiceNanos();
+            slot.repositoryNanos = trace.getRepositoryNanos();
+            slot.serializationNanos = trace.getSerializationNanos();
+            slot.sqlStatements = trace.getSqlStatements();
+            slot.sequence = sequence;
+        }
+        if (totalNanos >= slowThresholdNanos) {
+            logSlow(endNanos, method, uri, status, totalNanos, trace);
+        }
+    }
+
+    private void logSlow(long now, String method, String uri, int status, long totalNanos, RequestTrace trace) {
+        long due = nextSlowLog.get();
+        if (now - due < 0 || !nextSlowLog.compareAndSet(due, now + slowLogIntervalNanos)) {
+            unloggedSlow.incrementAndGet();
+            return;
+        }
+        logger.warn("🐢 Slow request {} {} -> {} in {} ms (service {} ms, repository {} ms, serialization {} ms, {} SQL statements), "
+                        + "{} other slow requests since the last report",
+                method, uri, status, millis(totalNanos), millis(trace.getServiceNanos()), millis(trace.getRepositoryNanos()),
+                millis(trace.getSerializationNanos()), trace.getSqlStatements(), unloggedSlow.getAndSet(0));
+    }
+
+    /**
+     * @return up to limit of the last requests, most recent first
+     */
+    public List<Entry> entries(int limit) {
+        long last = next.get() - 1;
+        int count = (int) Math.min(Math.min(limit, slots.length), last + 1);
+        List<Entry> entries = new ArrayList<>(Math.max(0, count));
+        for (long sequence = last; sequence > last - count; sequence--) {
+            Slot slot = slots[(int) (sequence & mask)];
+            if (slot.sequence != sequence) {
+                continue;
+            }
+            Entry entry = new Entry(slot);
+            // Overwritten while being copied
+            if (slot.sequence == sequence) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    public long getRecorded() {
+        return next.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public double getSlowThresholdMs() {
+        return millis(slowThresholdNanos);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static final class Slot {
+
+        static final AtomicLongFieldUpdater<Slot> SEQUENCE = AtomicLongFieldUpdater.newUpdater(Slot.class, "sequence");
+
+        volatile long sequence = EMPTY;
+        volatile long timestamp;
+        volatile String method;
+        volatile String uri;
+        volatile int status;
+        volatile long totalNanos;
+        volatile long serviceNanos;
+        volatile long repositoryNanos;
+        volatile long serializationNanos;
+        volatile long sqlStatements;
+    }
+
+    /**
+     * One recorded request; controller is the time left outside the service and serialization
+     * (filters, argument binding, cache lookups). With the BOTH strategy repository time adds up
+     * the parallel reads and may exceed the service time
+     */
+    public static final class Entry {
+
+        private final long timestamp;
+        private final String method;
+        private final String uri;
+        private final int status;
+        private final double totalMs;
+        private final double controllerMs;
+        private final double serviceMs;
+        private final double repositoryMs;
+        private final double serializationMs;
+        private final long sqlStatements;
+
+        private Entry(Slot slot) {
+            this.timestamp = slot.timestamp;
+            this.method = slot.method;
+            this.uri = slot.uri;
+            this.status = slot.status;
+            this.totalMs = millis(slot.totalNanos);
+            this.controllerMs = millis(Math.max(0, slot.totalNanos - slot.serviceNanos - slot.serializationNanos));
+            this.serviceMs = millis(slot.serviceNanos);
+            this.repositoryMs = millis(slot.repositoryNanos);
+            this.serializationMs = millis(slot.serializationNanos);
+            this.sqlStatements = slot.sqlStatements;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getUri() {
+            return uri;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public double getTotalMs() {
+            return totalMs;
+        }
+
+        public double getControllerMs() {
+            return controllerMs;
+        }
+
+        public double getServiceMs() {
+            return serviceMs;
+        }
+
+        public double getRepositoryMs() {
+            return repositoryMs;
+        }
+
+        public double getSerializationMs() {
+            return serializationMs;
+        }
+
+        public long getSqlStatements() {
+            return sqlStatements;
+        }
+    }
+}
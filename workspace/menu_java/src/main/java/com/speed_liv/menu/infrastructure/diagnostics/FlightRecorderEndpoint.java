@@ -0,0 +1,39 @@
+package com.speed_liv.menu.infrastructure.diagnostics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * GET /actuator/flightrecorder?limit=100
+ * The last requests recorded by the {@link FlightRecorder}, most recent first
+ */
+@Component
+@Endpoint(id = "flightrecorder")
+public class FlightRecorderEndpoint {
+
+    private static final int DEFAULT_LIMIT = 100;
+
+    private final FlightRecorder flightRecorder;
+
+    @Autowired
+    public FlightRecorderEndpoint(FlightRecorder flightRecorder) {
+        this.flightRecorder = flightRecorder;
+    }
+
+    @ReadOperation
+    public Map<String, Object> requests(@Nullable Integer limit) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("capacity", flightRecorder.getCapacity());
+        body.put("recorded", flightRecorder.getRecorded());
+        body.put("dropped", flightRecorder.getDropped());
+        body.put("slowThresholdMs", flightRecorder.getSlowThresholdMs());
+        body.put("requests", flightRecorder.entries(limit != null ? limit : DEFAULT_LIMIT));
+        return body;
+    }
+}
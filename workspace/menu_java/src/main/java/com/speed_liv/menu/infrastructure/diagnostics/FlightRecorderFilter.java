@@ -0,0 +1,70 @@
+package com.speed_liv.menu.infrastructure.diagnostics;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Traces each API request and hands its timing breakdown to the {@link FlightRecorder}
+ * Actuator requests (including the flight recorder endpoint itself) are not traced
+ */
+public class FlightRecorderFilter extends OncePerRequestFilter {
+
+    private final FlightRecorder flightRecorder;
+
+    public FlightRecorderFilter(FlightRecorder flightRecorder) {
+        this.flightRecorder = flightRecorder;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTrace trace = RequestTrace.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestTrace.end();
+            if (request.isAsyncStarted()) {
+                // Recorded once the response is complete; work done on other threads is not broken down
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        record(request, response, trace);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                record(request, response, trace);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, RequestTrace trace) {
+        Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        flightRecorder.record(request.getMethod(), uri != null ? uri.toString() : request.getRequestURI(),
+                response.getStatus(), trace);
+    }
+}
@@ -0,0 +1,113 @@
+package com.speed_liv.menu.infrastructure.diagnostics;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.Supplier;
+
+/**
+ * Timing breakdown of the request being handled by the current thread
+ * Layers add to it through the static methods, which do nothing outside a traced request;
+ * the fields are atomic because reads of the BOTH strategy run on the fan-out pool
+ */
+public final class RequestTrace {
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    private static final AtomicLongFieldUpdater<RequestTrace> SERVICE =
+            AtomicLongFieldUpdater.newUpdater(RequestTrace.class, "serviceNanos");
+    private static final AtomicLongFieldUpdater<RequestTrace> REPOSITORY =
+            AtomicLongFieldUpdater.newUpdater(RequestTrace.class, "repositoryNanos");
+    private static final AtomicLongFieldUpdater<RequestTrace> SERIALIZATION =
+            AtomicLongFieldUpdater.newUpdater(RequestTrace.class, "serializationNanos");
+    private static final AtomicLongFieldUpdater<RequestTrace> SQL =
+            AtomicLongFieldUpdater.newUpdater(RequestTrace.class, "sqlStatements");
+
+    final long startNanos = System.nanoTime();
+    private volatile long serviceNanos;
+    private volatile long repositoryNanos;
+    private volatile long serializationNanos;
+    private volatile long sqlStatements;
+
+    /**
+     * Start tracing a request on the current thread
+     */
+    static RequestTrace begin() {
+        RequestTrace trace = new RequestTrace();
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    /**
+     * Stop tracing on the current thread
+     */
+    static void end() {
+        CURRENT.remove();
+    }
+
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Run a read on behalf of the given trace, e.g. on a pool thread
+     */
+    public static <T> T callWith(RequestTrace trace, Supplier<T> read) {
+        if (trace == null) {
+            return read.get();
+        }
+        RequestTrace previous = CURRENT.get();
+        CURRENT.set(trace);
+        try {
+            return read.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public static void addService(long nanos) {
+        RequestTrace trace = CURRENT.get();
+        if (trace != null) {
+            SERVICE.addAndGet(trace, nanos);
+        }
+    }
+
+    public static void addRepository(long nanos) {
+        RequestTrace trace = CURRENT.get();
+        if (trace != null) {
+            REPOSITORY.addAndGet(trace, nanos);
+        }
+    }
+
+    public static void addSerialization(long nanos) {
+        RequestTrace trace = CURRENT.get();
+        if (trace != null) {
+            SERIALIZATION.addAndGet(trace, nanos);
+        }
+    }
+
+    public static void addSqlStatement() {
+        RequestTrace trace = CURRENT.get();
+        if (trace != null) {
+            SQL.incrementAndGet(trace);
+        }
+    }
+
+    long getServiceNanos() {
+        return serviceNanos;
+    }
+
+    long getRepositoryNanos() {
+        return repositoryNanos;
+    }
+
+    long getSerializationNanos() {
+        return serializationNanos;
+    }
+
+    long getSqlStatements() {
+        return sqlStatements;
+    }
+}
@@ -0,0 +1,27 @@
+package com.speed_liv.menu.infrastructure.diagnostics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds the time spent in RestaurantService calls to the traced request
+ */
+@Aspect
+@Component
+public class ServiceTimingAspect {
+
+    @Around("execution(public * com.speed_liv.menu.services.RestaurantService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (RequestTrace.current() == null) {
+            return joinPoint.proceed();
+        }
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            RequestTrace.addService(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.speed_liv.menu.infrastructure.diagnostics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares for the traced request
+ * Registered through spring.jpa.properties.hibernate.session_factory.statement_inspector
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestTrace.addSqlStatement();
+        return sql;
+    }
+}
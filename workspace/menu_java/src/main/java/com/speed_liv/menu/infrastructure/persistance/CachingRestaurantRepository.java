@@ -0,0 +1,168 @@
+package com.speed_liv.menu.infrastructure.persistance;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.speed_liv.menu.config.DataSourceConfig;
+import com.speed_liv.menu.model.RestaurantSummary;
+import com.speed_liv.menu.model.entity.Restaurant;
+import com.speed_liv.menu.model.event.CatalogChangedEvent;
+import com.speed_liv.menu.model.repository.RestaurantRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Read-through cache in front of any RestaurantRepository (Decorator)
+ * Caches id lookups (found or not), bounded in size with W-TinyLFU eviction and a TTL
+ * Listing methods go straight to the delegate
+ *
+ * Cached restaurants are shared between requests and must not be modified by callers
+ */
+public class CachingRestaurantRepository implements RestaurantRepository, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingRestaurantRepository.class);
+
+    private final String name;
+    private final RestaurantRepository delegate;
+    private final Cache<Long, Optional<Restaurant>> cache;
+
+    public CachingRestaurantRepository(String name, RestaurantRepository delegate, DataSourceConfig.RepositoryCache settings) {
+        this.name = name;
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(settings.getMaximumSize())
+                .expireAfterWrite(settings.getTtl())
+                .recordStats()
+                .build();
+        logger.info("🗃️ {} cache enabled: max {} restaurants, ttl {}", name, settings.getMaximumSize(), settings.getTtl());
+    }
+
+    /**
+     * Publish hit, miss and eviction counts as the cache.* meters, tagged cache=restaurants.h2 or restaurants.json
+     */
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "restaurants." + name.toLowerCase());
+    }
+
+    @Override
+    public List<Restaurant> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<RestaurantSummary> findAllSummaries() {
+        return delegate.findAllSummaries();
+    }
+
+    @Override
+    public List<Restaurant> findPage(Long afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public void streamAll(Consumer<? super Restaurant> consumer) {
+        delegate.streamAll(consumer);
+    }
+
+    @Override
+    public Optional<Restaurant> findById(Long id) {
+        // One load per missing id, even when many requests ask for it at the same time
+        return cache.get(id, delegate::findById);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        Optional<Restaurant> cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return cached.isPresent();
+        }
+        return delegate.existsById(id);
+    }
+
+    @Override
+    public Restaurant save(Restaurant restaurant) {
+        Restaurant saved = delegate.save(restaurant);
+        invalidate(saved.getId());
+        return saved;
+    }
+
+    @Override
+    public List<Restaurant> saveAll(List<Restaurant> restaurants) {
+        List<Restaurant> saved = delegate.saveAll(restaurants);
+        for (Restaurant restaurant : saved) {
+            invalidate(restaurant.getId());
+        }
+        return saved;
+    }
+
+    @Override
+    public List<Long> updateDisponible(Map<Long, Boolean> disponible) {
+        List<Long> restaurantIds = delegate.updateDisponible(disponible);
+        restaurantIds.forEach(this::invalidate);
+        return restaurantIds;
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        delegate.deleteById(id);
+        invalidate(id);
+    }
+
+    /**
+     * Drop every entry, e.g. when the underlying catalog was replaced
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Saves and deletes are handled above; a reloaded source replaces every restaurant
+     */
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getType() == CatalogChangedEvent.Type.RELOADED && event.getSource().name().equals(name)) {
+            logger.info("🗃️ {} source reloaded, clearing its cache", name);
+            invalidateAll();
+        }
+    }
+
+    /**
+     * @return hit, miss and eviction counters since startup
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private void invalidate(Long id) {
+        cache.invalidate(id);
+        // A concurrent reader may reload the old row before the write is committed: drop it again after commit
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(id);
+                }
+            });
+        }
+    }
+}
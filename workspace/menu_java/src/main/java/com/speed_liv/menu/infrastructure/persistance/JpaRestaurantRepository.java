@@ -1,12 +1,28 @@
 package com.speed_liv.menu.infrastructure.persistance;
 
+import com.speed_liv.menu.model.RestaurantSummary;
 import com.speed_liv.menu.model.entity.Restaurant;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 /**
  * JPA Repository implementation for Restaurant (Adapter in Hexagonal Architecture)
  * This is the infrastructure layer that implements Spring Data JPA
+ *
+ * Restaurant.plats is EAGER: the inherited findAll() runs one query for the restaurants
+ * plus one per restaurant for its plats (N+1). Read paths use the fetch-join queries below instead.
  */
 @Repository
 public interface JpaRestaurantRepository extends JpaRepository<Restaurant, Long> {
@@ -16,6 +32,60 @@ public interface JpaRestaurantRepository extends JpaRepository<Restaurant, Long>
     // - save(Restaurant restaurant)
     // - deleteById(Long id)
     // - existsById(Long id)
-    
-    // Additional custom queries can be added here if needed
+
+    /**
+     * All restaurants with their plats in a single query, ordered by id
+     * distinct is only applied in memory (not sent to the database)
+     */
+    @Query("select distinct r from Restaurant r left join fetch r.plats order by r.id")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    List<Restaurant> findAllWithPlats();
+
+    /**
+     * One restaurant with its plats in a single query
+     */
+    @EntityGraph(attributePaths = "plats")
+    Optional<Restaurant> findWithPlatsById(Long id);
+
+    /**
+     * Keyset page, step 1: ids of the restaurants after the given id
+     * A fetch join cannot be combined with LIMIT in the database, so ids are selected first
+     */
+    @Query("select r.id from Restaurant r where r.id > :afterId order by r.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Keyset page, step 2: the selected restaurants with their plats, ordered by id
+     */
+    @Query("select distinct r from Restaurant r left join fetch r.plats where r.id in :ids order by r.id")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    List<Restaurant> findAllWithPlatsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Database cursor over all restaurants with their plats, ordered by id
+     * Rows of the same restaurant are grouped back into one entity by Hibernate
+     * Must be consumed (and closed) inside a transaction
+     */
+    @Query("select r from Restaurant r left join fetch r.plats order by r.id")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Restaurant> streamAllWithPlats();
+
+    /**
+     * Sets the availability of the given plats with a single bulk UPDATE (the session is not involved)
+     */
+    @Modifying
+    @Query("update Plat p set p.disponible = :disponible where p.id in :ids")
+    int updateDisponible(@Param("ids") Collection<Long> ids, @Param("disponible") Boolean disponible);
+
+    /**
+     * Ids of the restaurants owning the given plats
+     */
+    @Query("select distinct p.restaurant.id from Plat p where p.id in :ids")
+    List<Long> findRestaurantIdsByPlatIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Restaurants without their plats, for list views
+     */
+    @Query("select new com.speed_liv.menu.model.RestaurantSummary(r.id, r.name) from Restaurant r order by r.id")
+    List<RestaurantSummary> findAllSummaries();
 }
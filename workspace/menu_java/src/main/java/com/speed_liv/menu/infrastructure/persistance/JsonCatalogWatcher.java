@@ -0,0 +1,102 @@
+package com.speed_liv.menu.infrastructure.persistance;
+
+import com.speed_liv.menu.config.DataSourceConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the JSON catalog file and reloads the JSON adapter when it changes
+ * Runs on its own daemon thread: parsing a large file never holds up a request
+ * Only file: locations are watched, classpath resources are part of the deployment
+ */
+@Component
+public class JsonCatalogWatcher implements InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(JsonCatalogWatcher.class);
+
+    private final JsonRestaurantRepositoryAdapter adapter;
+    private final DataSourceConfig.JsonWatch settings;
+    private WatchService watchService;
+    private Thread thread;
+
+    @Autowired
+    public JsonCatalogWatcher(@Qualifier("jsonRestaurantAdapter") JsonRestaurantRepositoryAdapter adapter, DataSourceConfig dataSourceConfig) {
+        this.adapter = adapter;
+        this.settings = dataSourceConfig.getJsonWatch();
+    }
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        Resource resource = adapter.getResource();
+        if (!settings.isEnabled() || resource instanceof ClassPathResource || !resource.isFile()) {
+            logger.info("👀 JSON catalog {} is not watched", resource.getDescription());
+            return;
+        }
+        Path file = resource.getFile().toPath().toAbsolutePath();
+        // Watch the directory: editors and deployment tools often replace the file instead of writing to it
+        watchService = FileSystems.getDefault().newWatchService();
+        file.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        thread = new Thread(() -> watch(file.getFileName()), "json-catalog-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        logger.info("👀 Watching JSON catalog {}", file);
+    }
+
+    private void watch(Path fileName) {
+        long debounceMillis = settings.getDebounce().toMillis();
+        try {
+            while (true) {
+                if (!drain(watchService.take(), fileName)) {
+                    continue;
+                }
+                // Wait for a quiet period so a file being written is parsed once, complete
+                WatchKey key;
+                while ((key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    drain(key, fileName);
+                }
+                adapter.reload();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            logger.info("👀 Stopped watching JSON catalog");
+        }
+    }
+
+    /**
+     * @return true if one of the events of the key concerns the catalog file
+     */
+    private static boolean drain(WatchKey key, Path fileName) {
+        boolean touched = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            // OVERFLOW has no context: events were lost, assume the file changed
+            touched |= event.context() == null || fileName.equals(event.context());
+        }
+        key.reset();
+        return touched;
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+            thread.interrupt();
+        }
+    }
+}
@@ -1,84 +1,206 @@
 package com.speed_liv.menu.infrastructure.persistance;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.speed_liv.menu.config.CatalogStorage;
+import com.speed_liv.menu.config.DataSourceConfig;
+import com.speed_liv.menu.config.DataSourceStrategy;
+import com.speed_liv.menu.model.RestaurantSummary;
 import com.speed_liv.menu.model.entity.Restaurant;
+import com.speed_liv.menu.model.event.CatalogChangedEvent;
 import com.speed_liv.menu.model.repository.RestaurantRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * JSON-based implementation of RestaurantRepository
- * Reads data from restaurants.json file
+ * Reads data from restaurants.json file (or app.datasource.json-location when set)
+ * The location may also hold a binary catalog snapshot (see RestaurantSnapshotWriter), read through a memory mapping
+ *
+ * The catalog is an immutable snapshot behind a volatile reference: {@link #reload()} parses the new file
+ * aside and swaps it in at once, readers never block and never see a partially loaded catalog
+ *
+ * With app.datasource.json-storage=OFF_HEAP the snapshot is an OffHeapRestaurantCatalog: restaurants are written
+ * to direct buffers as they are parsed, and every read builds the entities it returns
  */
 @Component("jsonRestaurantAdapter")
 public class JsonRestaurantRepositoryAdapter implements RestaurantRepository {
 
     private static final Logger logger = LoggerFactory.getLogger(JsonRestaurantRepositoryAdapter.class);
-    private final ObjectMapper objectMapper;
-    private List<Restaurant> restaurants;
+    private final RestaurantCatalogReader catalogReader;
+    private final Resource resource;
+    private final CatalogStorage storage;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Timer reloadSuccess;
+    private final Timer reloadFailure;
+    private volatile RestaurantStore catalog = RestaurantCatalog.empty();
 
-    public JsonRestaurantRepositoryAdapter(ObjectMapper objectMapper) {
-        this.objectMapper = objectMapper;
+    public JsonRestaurantRepositoryAdapter(ObjectMapper objectMapper,
+                                           DataSourceConfig dataSourceConfig,
+                                           ResourceLoader resourceLoader,
+                                           ApplicationEventPublisher eventPublisher,
+                                           MeterRegistry meterRegistry) {
+        this.catalogReader = new RestaurantCatalogReader(objectMapper.getFactory(), dataSourceConfig.isJsonMemoryMap());
+        this.resource = resourceLoader.getResource(dataSourceConfig.getJsonLocation());
+        this.storage = dataSourceConfig.getJsonStorage();
+        this.eventPublisher = eventPublisher;
+        this.reloadSuccess = reloadTimer(meterRegistry, "success");
+        this.reloadFailure = reloadTimer(meterRegistry, "failure");
+        Gauge.builder("menu.catalog.json.size", this, adapter -> adapter.catalog.size())
+                .description("Restaurants in the current JSON catalog")
+                .register(meterRegistry);
+        Gauge.builder("menu.catalog.json.off-heap", this, adapter -> adapter.catalog.offHeapBytes())
+                .description("Bytes of the current JSON catalog held outside the heap (json-storage=OFF_HEAP)")
+                .baseUnit("bytes")
+                .register(meterRegistry);
         loadRestaurantsFromJson();
     }
 
     private void loadRestaurantsFromJson() {
         try {
-            ClassPathResource resource = new ClassPathResource("bd/restaurants.json");
-            InputStream inputStream = resource.getInputStream();
-            
-            restaurants = objectMapper.readValue(
-                inputStream, 
-                new TypeReference<List<Restaurant>>() {}
-            );
-            
-            logger.info("✅ Loaded {} restaurants from JSON file", restaurants.size());
-            
-        } catch (IOException e) {
+            catalog = read();
+            logger.info("✅ Loaded {} restaurants from JSON file {} ({})", catalog.size(), resource.getDescription(), storage);
+        } catch (IOException | IllegalArgumentException e) {
             logger.error("❌ Failed to load restaurants from JSON", e);
-            restaurants = new ArrayList<>();
+            catalog = RestaurantCatalog.empty();
         }
     }
 
+    /**
+     * Parse and validate the JSON file again, then publish it in place of the current catalog
+     * The current catalog is kept when the file cannot be read or is invalid (e.g. still being written)
+     * @return true if the new catalog was published
+     */
+    public boolean reload() {
+        long start = System.nanoTime();
+        RestaurantStore loaded;
+        try {
+            loaded = read();
+        } catch (IOException | IllegalArgumentException e) {
+            reloadFailure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            logger.error("❌ JSON catalog reload failed, keeping the {} restaurants loaded before: {}",
+                    catalog.size(), e.getMessage());
+            return false;
+        }
+        catalog = loaded;
+        long elapsed = System.nanoTime() - start;
+        reloadSuccess.record(elapsed, TimeUnit.NANOSECONDS);
+        logger.info("🔄 Reloaded {} restaurants from JSON file {} in {} ms", loaded.size(),
+                resource.getDescription(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+        eventPublisher.publishEvent(CatalogChangedEvent.reloaded(DataSourceStrategy.JSON));
+        return true;
+    }
+
+    public Resource getResource() {
+        return resource;
+    }
+
+    private RestaurantStore read() throws IOException {
+        if (storage == CatalogStorage.OFF_HEAP) {
+            // Each restaurant is copied off-heap as soon as it is parsed, and dropped
+            OffHeapRestaurantCatalog.Builder builder = OffHeapRestaurantCatalog.builder();
+            catalogReader.read(resource, restaurant -> builder.add(validate(builder.size(), restaurant)));
+            return builder.build();
+        }
+        // Streamed: only the restaurants themselves are kept while parsing
+        List<Restaurant> restaurants = new ArrayList<>();
+        catalogReader.read(resource, restaurants::add);
+        for (int i = 0; i < restaurants.size(); i++) {
+            validate(i, restaurants.get(i));
+        }
+        return RestaurantCatalog.of(restaurants);
+    }
+
+    private static Restaurant validate(int position, Restaurant restaurant) {
+        if (restaurant.getId() == null) {
+            throw new IllegalArgumentException("Restaurant #" + position + " has no id");
+        }
+        if (restaurant.getName() == null || restaurant.getName().trim().isEmpty()) {
+            throw new IllegalArgumentException("Restaurant " + restaurant.getId() + " has no name");
+        }
+        return restaurant;
+    }
+
+    private static Timer reloadTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("menu.catalog.json.reload")
+                .description("Time to parse, validate and publish the JSON catalog")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
     @Override
     public List<Restaurant> findAll() {
-        logger.info("📄 JSON Adapter: Finding all restaurants");
-        return new ArrayList<>(restaurants);
+        logger.debug("📄 JSON Adapter: Finding all restaurants");
+        return catalog.all();
+    }
+
+    @Override
+    public List<RestaurantSummary> findAllSummaries() {
+        logger.debug("📄 JSON Adapter: Finding all restaurant summaries");
+        return catalog.summaries();
+    }
+
+    @Override
+    public List<Restaurant> findPage(Long afterId, int limit) {
+        logger.debug("📄 JSON Adapter: Finding {} restaurants after id {}", limit, afterId);
+        return catalog.page(afterId, limit);
+    }
+
+    @Override
+    public void streamAll(Consumer<? super Restaurant> consumer) {
+        logger.debug("📄 JSON Adapter: Streaming all restaurants");
+        for (Restaurant restaurant : catalog.all()) {
+            consumer.accept(restaurant);
+        }
     }
 
     @Override
     public Optional<Restaurant> findById(Long id) {
-        logger.info("📄 JSON Adapter: Finding restaurant with id {}", id);
-        return restaurants.stream()
-                .filter(r -> r.getId().equals(id))
-                .findFirst();
+        logger.debug("📄 JSON Adapter: Finding restaurant with id {}", id);
+        return catalog.findById(id);
     }
 
     @Override
     public Restaurant save(Restaurant restaurant) {
-        logger.info("📄 JSON Adapter: Save operation not supported for JSON source");
+        logger.debug("📄 JSON Adapter: Save operation not supported for JSON source");
+        throw new UnsupportedOperationException("Cannot save to JSON file - read-only source");
+    }
+
+    @Override
+    public List<Restaurant> saveAll(List<Restaurant> restaurants) {
+        logger.debug("📄 JSON Adapter: Save operation not supported for JSON source");
         throw new UnsupportedOperationException("Cannot save to JSON file - read-only source");
     }
 
+    @Override
+    public List<Long> updateDisponible(Map<Long, Boolean> disponible) {
+        logger.debug("📄 JSON Adapter: Update operation not supported for JSON source");
+        throw new UnsupportedOperationException("Cannot update JSON file - read-only source");
+    }
+
     @Override
     public void deleteById(Long id) {
-        logger.info("📄 JSON Adapter: Delete operation not supported for JSON source");
+        logger.debug("📄 JSON Adapter: Delete operation not supported for JSON source");
         throw new UnsupportedOperationException("Cannot delete from JSON file - read-only source");
     }
 
     @Override
     public boolean existsById(Long id) {
-        logger.info("📄 JSON Adapter: Checking if restaurant {} exists in JSON file", id);
-        return restaurants.stream()
-                .anyMatch(r -> r.getId().equals(id));
+        logger.debug("📄 JSON Adapter: Checking if restaurant {} exists in JSON file", id);
+        return catalog.contains(id);
     }
 }
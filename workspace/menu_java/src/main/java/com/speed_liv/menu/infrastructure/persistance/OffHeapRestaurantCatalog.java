@@ -0,0 +1,517 @@
+package com.speed_liv.menu.infrastructure.persistance;
+
+import com.speed_liv.menu.model.RestaurantSummary;
+import com.speed_liv.menu.model.entity.Plat;
+import com.speed_liv.menu.model.entity.Restaurant;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+/**
+ * Immutable, id-indexed restaurant catalog kept outside the Java heap, in direct buffers
+ *
+ * <pre>
+ * restaurants  24 bytes each, in source order: i64 id, i32 name, i32 first plat, i32 plat count, 4 unused
+ * plats        24 bytes each, grouped by restaurant: i64 id, f64 price, i32 name, u8 flags, 3 unused
+ * index        12 bytes per distinct id, ordered by id: i64 id, i32 restaurant (the first one with this id)
+ * strings      every distinct name once: i32 byte length, UTF-8 bytes
+ * </pre>
+ * Names are offsets in the strings (-1 for null). Whatever the catalog size, the heap only holds a few buffers,
+ * so the GC has nothing to trace or promote for it
+ *
+ * Reads go through flyweights (RestaurantView, PlatView) positioned over the records. Lookups, pages and
+ * summaries read ids and names without building entities; the lists build one Restaurant per element read,
+ * never kept by the catalog, so callers get young, unshared objects
+ */
+public final class OffHeapRestaurantCatalog implements RestaurantStore {
+
+    static final int RESTAURANT_SIZE = 24;
+    static final int PLAT_SIZE = 24;
+    static final int INDEX_SIZE = 12;
+
+    private static final int HAS_ID = 1;
+    private static final int HAS_PRICE = 1 << 1;
+    private static final int HAS_DISPONIBLE = 1 << 2;
+    private static final int DISPONIBLE = 1 << 3;
+
+    private static final int NO_STRING = -1;
+
+    private static final OffHeapRestaurantCatalog EMPTY = builder().build();
+
+    private final ByteBuffer restaurants;
+    private final ByteBuffer plats;
+    private final ByteBuffer index;
+    private final ByteBuffer strings;
+    private final int size;
+    private final int distinctIds;
+
+    private OffHeapRestaurantCatalog(ByteBuffer restaurants, ByteBuffer plats, ByteBuffer index, ByteBuffer strings) {
+        this.restaurants = restaurants;
+        this.plats = plats;
+        this.index = index;
+        this.strings = strings;
+        this.size = restaurants.capacity() / RESTAURANT_SIZE;
+        this.distinctIds = index.capacity() / INDEX_SIZE;
+    }
+
+    public static OffHeapRestaurantCatalog empty() {
+        return EMPTY;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Build a catalog keeping the source order
+     */
+    public static OffHeapRestaurantCatalog of(List<Restaurant> source) {
+        Builder builder = builder();
+        source.forEach(builder::add);
+        return builder.build();
+    }
+
+    @Override
+    public List<Restaurant> all() {
+        return new RestaurantList(0, size, false);
+    }
+
+    @Override
+    public List<RestaurantSummary> summaries() {
+        return new SummaryList();
+    }
+
+    /**
+     * Keyset page: binary search of the index for the first id after afterId
+     */
+    @Override
+    public List<Restaurant> page(Long afterId, int limit) {
+        int from = afterId != null ? firstIdAfter(afterId) : 0;
+        int to = (int) Math.min((long) from + limit, distinctIds);
+        return new RestaurantList(from, to - from, true);
+    }
+
+    @Override
+    public Optional<Restaurant> findById(Long id) {
+        int position = id != null ? positionOf(id) : -1;
+        return position >= 0 ? Optional.of(new RestaurantView().moveTo(ordinalAt(position)).toRestaurant()) : Optional.empty();
+    }
+
+    @Override
+    public boolean contains(Long id) {
+        return id != null && positionOf(id) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long offHeapBytes() {
+        return (long) restaurants.capacity() + plats.capacity() + index.capacity() + strings.capacity();
+    }
+
+    /**
+     * Visit every restaurant in source order through one view, moved from record to record
+     * The view is only valid during the call; nothing is allocated unless the action reads names
+     */
+    public void forEach(Consumer<? super RestaurantView> action) {
+        RestaurantView view = new RestaurantView();
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            action.accept(view.moveTo(ordinal));
+        }
+    }
+
+    private int positionOf(long id) {
+        int low = 0;
+        int high = distinctIds - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long middleId = index.getLong(middle * INDEX_SIZE);
+            if (middleId < id) {
+                low = middle + 1;
+            } else if (middleId > id) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private int firstIdAfter(long id) {
+        int low = 0;
+        int high = distinctIds;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (index.getLong(middle * INDEX_SIZE) <= id) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int ordinalAt(int position) {
+        return index.getInt(position * INDEX_SIZE + 8);
+    }
+
+    private String string(int offset) {
+        if (offset == NO_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[strings.getInt(offset)];
+        strings.get(offset + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Flyweight over one restaurant record, moved with moveTo
+     */
+    public final class RestaurantView {
+
+        private final PlatView plat = new PlatView();
+        private int offset;
+
+        private RestaurantView() {
+        }
+
+        RestaurantView moveTo(int ordinal) {
+            offset = ordinal * RESTAURANT_SIZE;
+            return this;
+        }
+
+        public long id() {
+            return restaurants.getLong(offset);
+        }
+
+        public String name() {
+            return string(restaurants.getInt(offset + 8));
+        }
+
+        public int platCount() {
+            return restaurants.getInt(offset + 16);
+        }
+
+        /**
+         * @return the plat view of this restaurant view, moved to the plat at this position
+         */
+        public PlatView plat(int position) {
+            return plat.moveTo(restaurants.getInt(offset + 12) + position);
+        }
+
+        /**
+         * @return a new entity with the plats of this record
+         */
+        public Restaurant toRestaurant() {
+            Restaurant restaurant = new Restaurant(id(), name());
+            for (int i = 0, count = platCount(); i < count; i++) {
+                restaurant.addPlat(plat(i).toPlat());
+            }
+            return restaurant;
+        }
+    }
+
+    /**
+     * Flyweight over one plat record
+     */
+    public final class PlatView {
+
+        private int offset;
+
+        private PlatView() {
+        }
+
+        PlatView moveTo(int platOrdinal) {
+            offset = platOrdinal * PLAT_SIZE;
+            return this;
+        }
+
+        public boolean hasId() {
+            return (flags() & HAS_ID) != 0;
+        }
+
+        public long id() {
+            return plats.getLong(offset);
+        }
+
+        public boolean hasPrice() {
+            return (flags() & HAS_PRICE) != 0;
+        }
+
+        public double price() {
+            return plats.getDouble(offset + 8);
+        }
+
+        public String name() {
+            return string(plats.getInt(offset + 16));
+        }
+
+        /**
+         * @return the availability, null when the source did not give it
+         */
+        public Boolean disponible() {
+            int flags = flags();
+            return (flags & HAS_DISPONIBLE) != 0 ? Boolean.valueOf((flags & DISPONIBLE) != 0) : null;
+        }
+
+        public Plat toPlat() {
+            Plat plat = new Plat(hasId() ? id() : null, name(), hasPrice() ? price() : null);
+            plat.setDisponible(disponible());
+            return plat;
+        }
+
+        private int flags() {
+            return plats.get(offset + 20);
+        }
+    }
+
+    /**
+     * Restaurants from first to first + size, in source order or in index order; iterators reuse one view
+     */
+    private final class RestaurantList extends AbstractList<Restaurant> implements RandomAccess {
+
+        private final int first;
+        private final int size;
+        private final boolean byId;
+
+        RestaurantList(int first, int size, boolean byId) {
+            this.first = first;
+            this.size = size;
+            this.byId = byId;
+        }
+
+        @Override
+        public Restaurant get(int position) {
+            return new RestaurantView().moveTo(ordinal(position)).toRestaurant();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<Restaurant> iterator() {
+            RestaurantView view = new RestaurantView();
+            return new Iterator<Restaurant>() {
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < size;
+                }
+
+                @Override
+                public Restaurant next() {
+                    if (next >= size) {
+                        throw new NoSuchElementException();
+                    }
+                    return view.moveTo(ordinal(next++)).toRestaurant();
+                }
+            };
+        }
+
+        private int ordinal(int position) {
+            if (position < 0 || position >= size) {
+                throw new IndexOutOfBoundsException("Index: " + position + ", Size: " + size);
+            }
+            return byId ? ordinalAt(first + position) : first + position;
+        }
+    }
+
+    private final class SummaryList extends AbstractList<RestaurantSummary> implements RandomAccess {
+
+        @Override
+        public RestaurantSummary get(int ordinal) {
+            if (ordinal < 0 || ordinal >= size) {
+                throw new IndexOutOfBoundsException("Index: " + ordinal + ", Size: " + size);
+            }
+            RestaurantView view = new RestaurantView().moveTo(ordinal);
+            return new RestaurantSummary(view.id(), view.name());
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Writes restaurants into growing direct buffers, then trims them into a catalog
+     * Restaurants are added as they are parsed, so the whole catalog never exists as entities
+     */
+    public static final class Builder {
+
+        private ByteBuffer restaurants = allocate(64 * RESTAURANT_SIZE);
+        private ByteBuffer plats = allocate(256 * PLAT_SIZE);
+        private ByteBuffer strings = allocate(4096);
+        // Only while building: open-addressing table of the names written (offset + 1, 0 when empty) with
+        // their hashes, so a repeated name is stored once without keeping a String per name on the heap
+        private int[] stringSlots = new int[1024];
+        private int[] stringHashes = new int[1024];
+        private int distinctStrings;
+        private long[] ids = new long[64];
+        private int size;
+        private int platCount;
+
+        private Builder() {
+        }
+
+        /**
+         * @throws IllegalArgumentException when the restaurant has no id, or the catalog outgrows a buffer (2 GB)
+         */
+        public Builder add(Restaurant restaurant) {
+            if (restaurant.getId() == null) {
+                throw new IllegalArgumentException("Restaurant #" + size + " has no id");
+            }
+            List<Plat> restaurantPlats = restaurant.getPlats() != null ? restaurant.getPlats() : Collections.emptyList();
+            restaurants = ensure(restaurants, RESTAURANT_SIZE);
+            restaurants.putLong(restaurant.getId())
+                    .putInt(string(restaurant.getName()))
+                    .putInt(platCount)
+                    .putInt(restaurantPlats.size())
+                    .putInt(0);
+            for (Plat plat : restaurantPlats) {
+                int flags = (plat.getId() != null ? HAS_ID : 0)
+                        | (plat.getPrice() != null ? HAS_PRICE : 0)
+                        | (plat.getDisponible() != null ? HAS_DISPONIBLE : 0)
+                        | (Boolean.TRUE.equals(plat.getDisponible()) ? DISPONIBLE : 0);
+                plats = ensure(plats, PLAT_SIZE);
+                plats.putLong(plat.getId() != null ? plat.getId() : 0)
+                        .putDouble(plat.getPrice() != null ? plat.getPrice() : 0)
+                        .putInt(string(plat.getName()))
+                        .put((byte) flags)
+                        .put((byte) 0).put((byte) 0).put((byte) 0);
+                platCount++;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = restaurant.getId();
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public OffHeapRestaurantCatalog build() {
+            // Distinct ids in order, each with the first restaurant that has it
+            long[] sorted = Arrays.copyOf(ids, size);
+            Arrays.sort(sorted);
+            int distinct = 0;
+            for (int i = 0; i < size; i++) {
+                if (distinct == 0 || sorted[i] != sorted[distinct - 1]) {
+                    sorted[distinct++] = sorted[i];
+                }
+            }
+            int[] firsts = new int[distinct];
+            Arrays.fill(firsts, -1);
+            for (int ordinal = 0; ordinal < size; ordinal++) {
+                int position = Arrays.binarySearch(sorted, 0, distinct, ids[ordinal]);
+                if (firsts[position] < 0) {
+                    firsts[position] = ordinal;
+                }
+            }
+            ByteBuffer index = allocate(Math.multiplyExact(distinct, INDEX_SIZE));
+            for (int position = 0; position < distinct; position++) {
+                index.putLong(sorted[position]).putInt(firsts[position]);
+            }
+            return new OffHeapRestaurantCatalog(trim(restaurants), trim(plats), index, trim(strings));
+        }
+
+        private int string(String value) {
+            if (value == null) {
+                return NO_STRING;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            int hash = Arrays.hashCode(bytes);
+            int mask = stringSlots.length - 1;
+            int slot = mix(hash) & mask;
+            for (; stringSlots[slot] != 0; slot = (slot + 1) & mask) {
+                if (stringHashes[slot] == hash && sameBytes(stringSlots[slot] - 1, bytes)) {
+                    return stringSlots[slot] - 1;
+                }
+            }
+            strings = ensure(strings, 4 + bytes.length);
+            int offset = strings.position();
+            strings.putInt(bytes.length).put(bytes);
+            stringSlots[slot] = offset + 1;
+            stringHashes[slot] = hash;
+            if (++distinctStrings * 2 > stringSlots.length) {
+                growStringSlots();
+            }
+            return offset;
+        }
+
+        private boolean sameBytes(int offset, byte[] bytes) {
+            if (strings.getInt(offset) != bytes.length) {
+                return false;
+            }
+            for (int i = 0; i < bytes.length; i++) {
+                if (strings.get(offset + 4 + i) != bytes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void growStringSlots() {
+            int[] slots = new int[stringSlots.length * 2];
+            int[] hashes = new int[slots.length];
+            int mask = slots.length - 1;
+            for (int i = 0; i < stringSlots.length; i++) {
+                if (stringSlots[i] != 0) {
+                    int slot = mix(stringHashes[i]) & mask;
+                    while (slots[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    slots[slot] = stringSlots[i];
+                    hashes[slot] = stringHashes[i];
+                }
+            }
+            stringSlots = slots;
+            stringHashes = hashes;
+        }
+
+        private static int mix(int hash) {
+            int mixed = hash * 0x9E3779B9;
+            return mixed ^ (mixed >>> 16);
+        }
+
+        private static ByteBuffer ensure(ByteBuffer buffer, int bytes) {
+            if (buffer.remaining() >= bytes) {
+                return buffer;
+            }
+            long needed = (long) buffer.position() + bytes;
+            if (needed > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Catalog too large for off-heap storage (2 GB per buffer)");
+            }
+            ByteBuffer grown = allocate((int) Math.min(Integer.MAX_VALUE - 8, Math.max(needed, 2L * buffer.capacity())));
+            buffer.flip();
+            return grown.put(buffer);
+        }
+
+        private static ByteBuffer trim(ByteBuffer buffer) {
+            buffer.flip();
+            return allocate(buffer.remaining()).put(buffer);
+        }
+
+        private static ByteBuffer allocate(int capacity) {
+            return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.speed_liv.menu.infrastructure.persistance;
+
+import com.speed_liv.menu.model.RestaurantSummary;
+import com.speed_liv.menu.model.entity.Restaurant;
+import com.speed_liv.menu.model.repository.ReactiveRestaurantRepository;
+import com.speed_liv.menu.model.repository.RestaurantRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+/**
+ * Reactive reads of the H2 database (Adapter in Hexagonal Architecture)
+ * JDBC blocks, so each query runs on the bounded-elastic scheduler, never on the subscribing thread
+ *
+ * findAll reads the catalog in keyset pages of PAGE_SIZE: the next page is queried when the subscriber starts
+ * on the previous one, never further ahead, so a slow client holds two pages in memory, no connection and
+ * no transaction between pages
+ */
+@Component("h2ReactiveRestaurantRepository")
+public class ReactiveJpaRestaurantRepository implements ReactiveRestaurantRepository {
+
+    static final int PAGE_SIZE = 100;
+
+    private final RestaurantRepository repository;
+    private final Scheduler scheduler;
+
+    @Autowired
+    public ReactiveJpaRestaurantRepository(@Qualifier("h2RestaurantRepository") RestaurantRepository repository) {
+        this(repository, Schedulers.boundedElastic());
+    }
+
+    ReactiveJpaRestaurantRepository(RestaurantRepository repository, Scheduler scheduler) {
+        this.repository = repository;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Flux<Restaurant> findAll() {
+        // expand chains the pages one after the other (not one inside the other): the stack stays flat
+        return page(null)
+                .expand(page -> page.size() < PAGE_SIZE ? Mono.empty() : page(lastId(page)))
+                .concatMapIterable(page -> page, 1);
+    }
+
+    @Override
+    public Flux<RestaurantSummary> findAllSummaries() {
+        // One light query, without plats
+        return Mono.fromCallable(repository::findAllSummaries)
+                .subscribeOn(scheduler)
+                .flatMapIterable(summaries -> summaries);
+    }
+
+    @Override
+    public Mono<Restaurant> findById(Long id) {
+        return Mono.fromCallable(() -> repository.findById(id))
+                .subscribeOn(scheduler)
+                .flatMap(Mono::justOrEmpty);
+    }
+
+    private Mono<List<Restaurant>> page(Long afterId) {
+        return Mono.fromCallable(() -> repository.findPage(afterId, PAGE_SIZE))
+                .subscribeOn(scheduler);
+    }
+
+    private static Long lastId(List<Restaurant> page) {
+        return page.get(page.size() - 1).getId();
+    }
+}
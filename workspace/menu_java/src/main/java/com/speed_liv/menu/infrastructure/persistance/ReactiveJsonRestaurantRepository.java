@@ -0,0 +1,42 @@
+package com.speed_liv.menu.infrastructure.persistance;
+
+import com.speed_liv.menu.model.RestaurantSummary;
+import com.speed_liv.menu.model.entity.Restaurant;
+import com.speed_liv.menu.model.repository.ReactiveRestaurantRepository;
+import com.speed_liv.menu.model.repository.RestaurantRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive reads of the JSON catalog (Adapter in Hexagonal Architecture)
+ * The catalog is held in memory, so every read completes on the subscribing thread without blocking:
+ * a Flux walks the catalog snapshot taken at subscription, one restaurant per request(n)
+ */
+@Component("jsonReactiveRestaurantRepository")
+public class ReactiveJsonRestaurantRepository implements ReactiveRestaurantRepository {
+
+    private final RestaurantRepository repository;
+
+    @Autowired
+    public ReactiveJsonRestaurantRepository(@Qualifier("jsonRestaurantRepository") RestaurantRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public Flux<Restaurant> findAll() {
+        return Flux.defer(() -> Flux.fromIterable(repository.findAll()));
+    }
+
+    @Override
+    public Flux<RestaurantSummary> findAllSummaries() {
+        return Flux.defer(() -> Flux.fromIterable(repository.findAllSummaries()));
+    }
+
+    @Override
+    public Mono<Restaurant> findById(Long id) {
+        return Mono.defer(() -> Mono.justOrEmpty(repository.findById(id)));
+    }
+}
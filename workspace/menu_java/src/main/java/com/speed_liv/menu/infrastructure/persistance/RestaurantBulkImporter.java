@@ -0,0 +1,193 @@
+package com.speed_liv.menu.infrastructure.persistance;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.speed_liv.menu.config.DataSourceConfig;
+import com.speed_liv.menu.model.entity.Plat;
+import com.speed_liv.menu.model.entity.Restaurant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk import of a catalog file (JSON or binary snapshot) into H2
+ * Restaurants are persisted in chunks, one transaction per chunk, as the file is read; within a chunk the
+ * persistence context is flushed and cleared regularly, so heap use does not grow with the catalog.
+ * With sequence ids and hibernate.jdbc.batch_size, each flush turns into a few JDBC batches
+ *
+ * Ids from the file are not kept: restaurants and plats get new ids from their sequences
+ * A failed chunk does not roll back the chunks committed before it
+ */
+@Component
+public class RestaurantBulkImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantBulkImporter.class);
+
+    // Restaurants persisted between two flush/clear of the persistence context
+    private static final int FLUSH_INTERVAL = 100;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+    private final RestaurantCatalogReader catalogReader;
+    private final DataSourceConfig.SeedImport settings;
+
+    @Autowired
+    public RestaurantBulkImporter(PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                                  DataSourceConfig dataSourceConfig) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.catalogReader = new RestaurantCatalogReader(objectMapper.getFactory(), false);
+        this.settings = dataSourceConfig.getSeedImport();
+    }
+
+    /**
+     * Import every restaurant of the resource
+     * @throws IOException when the resource cannot be read; chunks committed before the error stay in H2
+     */
+    public Result importCatalog(Resource resource) throws IOException {
+        long start = System.nanoTime();
+        AtomicLong restaurants = new AtomicLong();
+        AtomicLong plats = new AtomicLong();
+        int threads = Math.max(1, settings.getThreads());
+        // Bounded queue: when writers fall behind, the reading thread writes the chunk itself
+        ThreadPoolExecutor executor = threads == 1 ? null : new ThreadPoolExecutor(threads, threads,
+                0, TimeUnit.SECONDS, new ArrayBlockingQueue<>(threads), new ImportThreadFactory(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        List<Future<?>> pending = new ArrayList<>();
+        try {
+            List<Restaurant> chunk = new ArrayList<>(settings.getChunkSize());
+            catalogReader.read(resource, restaurant -> {
+                chunk.add(restaurant);
+                if (chunk.size() == settings.getChunkSize()) {
+                    pending.add(submit(executor, new ArrayList<>(chunk), restaurants, plats));
+                    chunk.clear();
+                }
+            });
+            if (!chunk.isEmpty()) {
+                pending.add(submit(executor, chunk, restaurants, plats));
+            }
+            for (Future<?> future : pending) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import of " + resource.getDescription() + " interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Import of " + resource.getDescription() + " failed", e.getCause());
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+        Result result = new Result(restaurants.get(), plats.get(), System.nanoTime() - start);
+        logger.info("💾 Imported {} restaurants and {} plats from {} in {} ms ({} rows/s, {} thread(s))",
+                result.getRestaurants(), result.getPlats(), resource.getDescription(),
+                TimeUnit.NANOSECONDS.toMillis(result.getElapsedNanos()), result.getRowsPerSecond(), threads);
+        return result;
+    }
+
+    private Future<?> submit(ThreadPoolExecutor executor, List<Restaurant> chunk, AtomicLong restaurants, AtomicLong plats) {
+        Runnable write = () -> {
+            plats.addAndGet(write(chunk));
+            restaurants.addAndGet(chunk.size());
+        };
+        if (executor == null) {
+            write.run();
+            return CompletableFuture.completedFuture(null);
+        }
+        return executor.submit(write);
+    }
+
+    /**
+     * Persist one chunk in its own transaction
+     * @return number of plats written
+     */
+    private long write(List<Restaurant> chunk) {
+        return transactionTemplate.execute(status -> {
+            long plats = 0;
+            for (int i = 0; i < chunk.size(); i++) {
+                Restaurant restaurant = chunk.get(i);
+                // persist() requires new entities: ids come from the sequences
+                restaurant.setId(null);
+                for (Plat plat : restaurant.getPlats()) {
+                    plat.setId(null);
+                }
+                plats += restaurant.getPlats().size();
+                entityManager.persist(restaurant);
+                if ((i + 1) % FLUSH_INTERVAL == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+            return plats;
+        });
+    }
+
+    /**
+     * Counts and duration of an import
+     */
+    public static final class Result {
+
+        private final long restaurants;
+        private final long plats;
+        private final long elapsedNanos;
+
+        Result(long restaurants, long plats, long elapsedNanos) {
+            this.restaurants = restaurants;
+            this.plats = plats;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getRestaurants() {
+            return restaurants;
+        }
+
+        public long getPlats() {
+            return plats;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * @return restaurant and plat rows inserted per second
+         */
+        public long getRowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : (restaurants + plats) * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        }
+    }
+
+    private static class ImportThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "seed-import-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.speed_liv.menu.infrastructure.persistance;
+
+import com.speed_liv.menu.model.RestaurantSummary;
+import com.speed_liv.menu.model.entity.Restaurant;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable, id-indexed snapshot of a restaurant catalog
+ * Built once when the JSON source is loaded, then shared by all readers without copying
+ */
+public final class RestaurantCatalog implements RestaurantStore {
+
+    private static final RestaurantCatalog EMPTY =
+            new RestaurantCatalog(Collections.emptyList(), Collections.emptyMap(), new long[0], new Restaurant[0]);
+
+    private final List<Restaurant> restaurants;
+    private final List<RestaurantSummary> summaries;
+    private final Map<Long, Restaurant> restaurantsById;
+    // Same restaurants ordered by id, for keyset pagination
+    private final long[] sortedIds;
+    private final List<Restaurant> sortedRestaurants;
+
+    private RestaurantCatalog(List<Restaurant> restaurants, Map<Long, Restaurant> restaurantsById,
+                              long[] sortedIds, Restaurant[] sortedRestaurants) {
+        this.restaurants = restaurants;
+        List<RestaurantSummary> summaries = new ArrayList<>(restaurants.size());
+        for (Restaurant restaurant : restaurants) {
+            summaries.add(new RestaurantSummary(restaurant.getId(), restaurant.getName()));
+        }
+        this.summaries = Collections.unmodifiableList(summaries);
+        this.restaurantsById = restaurantsById;
+        this.sortedIds = sortedIds;
+        this.sortedRestaurants = Collections.unmodifiableList(Arrays.asList(sortedRestaurants));
+    }
+
+    public static RestaurantCatalog empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Build a catalog keeping the source order
+     * When an id appears more than once, the first restaurant wins (as the former linear scan did)
+     */
+    public static RestaurantCatalog of(List<Restaurant> source) {
+        List<Restaurant> restaurants = new ArrayList<>(source);
+        Map<Long, Restaurant> restaurantsById = new HashMap<>(Math.max(16, (int) (restaurants.size() / 0.75f) + 1));
+        for (Restaurant restaurant : restaurants) {
+            if (restaurant.getId() != null) {
+                restaurantsById.putIfAbsent(restaurant.getId(), restaurant);
+            }
+        }
+        Restaurant[] sortedRestaurants = restaurantsById.values().toArray(new Restaurant[0]);
+        Arrays.sort(sortedRestaurants, Comparator.comparing(Restaurant::getId));
+        long[] sortedIds = new long[sortedRestaurants.length];
+        for (int i = 0; i < sortedRestaurants.length; i++) {
+            sortedIds[i] = sortedRestaurants[i].getId();
+        }
+        return new RestaurantCatalog(Collections.unmodifiableList(restaurants), Collections.unmodifiableMap(restaurantsById),
+                sortedIds, sortedRestaurants);
+    }
+
+    /**
+     * @return read-only view of all restaurants, in source order
+     */
+    @Override
+    public List<Restaurant> all() {
+        return restaurants;
+    }
+
+    /**
+     * @return read-only id/name view of all restaurants, in source order
+     */
+    @Override
+    public List<RestaurantSummary> summaries() {
+        return summaries;
+    }
+
+    /**
+     * Keyset page: binary search for the first id after afterId, then a view on the sorted array
+     * @return read-only view of up to limit restaurants ordered by id
+     */
+    @Override
+    public List<Restaurant> page(Long afterId, int limit) {
+        int from = 0;
+        if (afterId != null) {
+            int index = Arrays.binarySearch(sortedIds, afterId);
+            from = index >= 0 ? index + 1 : -index - 1;
+        }
+        int to = (int) Math.min((long) from + limit, sortedIds.length);
+        return sortedRestaurants.subList(from, to);
+    }
+
+    @Override
+    public Optional<Restaurant> findById(Long id) {
+        return Optional.ofNullable(restaurantsById.get(id));
+    }
+
+    @Override
+    public boolean contains(Long id) {
+        return restaurantsById.containsKey(id);
+    }
+
+    @Override
+    public int size() {
+        return restaurants.size();
+    }
+}
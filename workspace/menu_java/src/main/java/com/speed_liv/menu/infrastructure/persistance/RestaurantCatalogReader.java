@@ -0,0 +1,31 @@
+package com.speed_liv.menu.infrastructure.persistance;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.speed_liv.menu.model.entity.Restaurant;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Reads a catalog resource in either supported format:
+ * binary snapshot (recognised by its magic number, see {@link RestaurantSnapshotReader}) or JSON array
+ */
+public class RestaurantCatalogReader {
+
+    private final RestaurantJsonReader jsonReader;
+
+    public RestaurantCatalogReader(JsonFactory jsonFactory, boolean memoryMapJson) {
+        this.jsonReader = new RestaurantJsonReader(jsonFactory, memoryMapJson);
+    }
+
+    /**
+     * @return number of restaurants read
+     */
+    public long read(Resource resource, Consumer<? super Restaurant> consumer) throws IOException {
+        if (RestaurantSnapshotReader.isSnapshot(resource)) {
+            return RestaurantSnapshotReader.read(resource, consumer);
+        }
+        return jsonReader.read(resource, consumer);
+    }
+}
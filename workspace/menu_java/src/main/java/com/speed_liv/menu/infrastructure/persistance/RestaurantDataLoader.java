@@ -1,21 +1,19 @@
 package com.speed_liv.menu.infrastructure.persistance;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.speed_liv.menu.model.entity.Restaurant;
+import com.speed_liv.menu.config.DataSourceConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.util.List;
 
 /**
  * Data loader to initialize H2 database with data from restaurants-h2.json file
+ * (or app.datasource.h2-seed-location, JSON or binary snapshot)
  * This loads DIFFERENT data than the JSON adapter
  */
 @Component
@@ -23,13 +21,14 @@ public class RestaurantDataLoader implements CommandLineRunner {
 
     private static final Logger logger = LoggerFactory.getLogger(RestaurantDataLoader.class);
     
-    private final JpaRestaurantRepository restaurantRepository;
-    private final ObjectMapper objectMapper;
+    private final RestaurantBulkImporter bulkImporter;
+    private final Resource seed;
 
     @Autowired
-    public RestaurantDataLoader(JpaRestaurantRepository restaurantRepository, ObjectMapper objectMapper) {
-        this.restaurantRepository = restaurantRepository;
-        this.objectMapper = objectMapper;
+    public RestaurantDataLoader(RestaurantBulkImporter bulkImporter, DataSourceConfig dataSourceConfig,
+                                ResourceLoader resourceLoader) {
+        this.bulkImporter = bulkImporter;
+        this.seed = resourceLoader.getResource(dataSourceConfig.getH2SeedLocation());
     }
 
     @Override
@@ -39,23 +38,10 @@ public class RestaurantDataLoader implements CommandLineRunner {
 
     private void loadRestaurantsFromJson() {
         try {
-            // Load from restaurants-h2.json (different from JSON adapter)
-            ClassPathResource resource = new ClassPathResource("bd/restaurants-h2.json");
-            InputStream inputStream = resource.getInputStream();
-            
-            List<Restaurant> restaurants = objectMapper.readValue(
-                inputStream, 
-                new TypeReference<List<Restaurant>>() {}
-            );
-            
-            // Save all restaurants (with their plats via cascade)
-            for (Restaurant restaurant : restaurants) {
-                restaurantRepository.save(restaurant);
-            }
-            
-            logger.info("💾 Successfully loaded {} restaurants into H2 DATABASE from restaurants-h2.json", restaurants.size());
-            logger.info("💾 H2 Database contains: {}", restaurants.stream().map(Restaurant::getName).toList());
-            
+            // Load from restaurants-h2.json (different from JSON adapter), in batched chunks
+            RestaurantBulkImporter.Result result = bulkImporter.importCatalog(seed);
+            logger.info("💾 Successfully loaded {} restaurants into H2 DATABASE from {}",
+                    result.getRestaurants(), seed.getDescription());
         } catch (IOException e) {
             logger.error("❌ Failed to load restaurants into H2 from JSON file", e);
         }
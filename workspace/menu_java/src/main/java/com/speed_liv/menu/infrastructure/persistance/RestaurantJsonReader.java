@@ -0,0 +1,197 @@
+package com.speed_liv.menu.infrastructure.persistance;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.speed_liv.menu.model.entity.Plat;
+import com.speed_liv.menu.model.entity.Restaurant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Token-streaming reader of a JSON array of restaurants (the restaurants.json format)
+ * Hands each restaurant, with its plats linked both ways, to a consumer as soon as it is parsed,
+ * so the caller decides what stays in memory: the JSON adapter keeps them, the H2 loader saves and drops them
+ *
+ * Repeated plat names and prices are shared between restaurants instead of allocated per occurrence
+ * Unknown fields are skipped, like the application ObjectMapper does
+ */
+public class RestaurantJsonReader {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantJsonReader.class);
+
+    // A single mapping cannot exceed 2 GB; larger files are mapped in chunks read one after the other
+    private static final long MAX_MAPPING = Integer.MAX_VALUE;
+    // Progress is logged every 10% of the file, or every 100,000 restaurants when the size is unknown
+    private static final int PROGRESS_STEPS = 10;
+    private static final long PROGRESS_RESTAURANTS = 100_000;
+    // Stop pooling past this many distinct values: the catalog is then mostly unique names
+    private static final int MAX_POOLED = 100_000;
+
+    private final JsonFactory jsonFactory;
+    private final boolean memoryMap;
+
+    /**
+     * @param memoryMap read files through a memory mapping instead of a file stream; the file must not be
+     *                  truncated while it is read
+     */
+    public RestaurantJsonReader(JsonFactory jsonFactory, boolean memoryMap) {
+        this.jsonFactory = jsonFactory;
+        this.memoryMap = memoryMap;
+    }
+
+    /**
+     * Read every restaurant of the resource
+     * @return number of restaurants read
+     * @throws IOException when the resource cannot be read or is not an array of restaurants
+     */
+    public long read(Resource resource, Consumer<? super Restaurant> consumer) throws IOException {
+        long size = resource.isFile() ? resource.contentLength() : -1;
+        try (InputStream in = memoryMap && resource.isFile() ? mapped(resource.getFile().toPath()) : resource.getInputStream()) {
+            return read(in, size, resource.getDescription(), consumer);
+        }
+    }
+
+    /**
+     * @param size total bytes of the stream, or -1 if unknown (only used for progress)
+     */
+    public long read(InputStream in, long size, String description, Consumer<? super Restaurant> consumer) throws IOException {
+        Pool pool = new Pool();
+        long count = 0;
+        int reportedStep = 0;
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected an array of restaurants");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                consumer.accept(readRestaurant(parser, pool));
+                count++;
+                if (size > 0) {
+                    int step = (int) (parser.getCurrentLocation().getByteOffset() * PROGRESS_STEPS / size);
+                    if (step > reportedStep && step < PROGRESS_STEPS) {
+                        reportedStep = step;
+                        logger.info("⏳ {}: {}% read, {} restaurants", description, step * 100 / PROGRESS_STEPS, count);
+                    }
+                } else if (count % PROGRESS_RESTAURANTS == 0) {
+                    logger.info("⏳ {}: {} restaurants read", description, count);
+                }
+            }
+            if (token != JsonToken.END_ARRAY) {
+                throw new JsonParseException(parser, "Expected a restaurant object, found " + token);
+            }
+        }
+        return count;
+    }
+
+    private static Restaurant readRestaurant(JsonParser parser, Pool pool) throws IOException {
+        Restaurant restaurant = new Restaurant();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id":
+                    restaurant.setId(value == JsonToken.VALUE_NULL ? null : parser.getLongValue());
+                    break;
+                case "name":
+                    restaurant.setName(parser.getValueAsString());
+                    break;
+                case "plats":
+                    if (value == JsonToken.START_ARRAY) {
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            restaurant.addPlat(readPlat(parser, pool));
+                        }
+                    } else if (value != JsonToken.VALUE_NULL) {
+                        throw new JsonParseException(parser, "Expected an array of plats");
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return restaurant;
+    }
+
+    private static Plat readPlat(JsonParser parser, Pool pool) throws IOException {
+        Plat plat = new Plat();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            boolean isNull = value == JsonToken.VALUE_NULL;
+            switch (field) {
+                case "id":
+                    plat.setId(isNull ? null : parser.getLongValue());
+                    break;
+                case "name":
+                    plat.setName(pool.string(parser.getValueAsString()));
+                    break;
+                case "price":
+                    plat.setPrice(isNull ? null : pool.number(parser.getDoubleValue()));
+                    break;
+                case "disponible":
+                    plat.setDisponible(isNull ? null : parser.getBooleanValue());
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return plat;
+    }
+
+    private static InputStream mapped(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // Mappings stay valid once the channel is closed
+            long size = channel.size();
+            List<InputStream> chunks = new ArrayList<>();
+            for (long position = 0; position < size; position += MAX_MAPPING) {
+                chunks.add(new ByteBufferBackedInputStream(
+                        channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAX_MAPPING, size - position))));
+            }
+            return new SequenceInputStream(Collections.enumeration(chunks));
+        }
+    }
+
+    /**
+     * Canonical instances of the values repeated across a catalog, for the duration of one read
+     */
+    private static final class Pool {
+
+        private final Map<String, String> strings = new HashMap<>();
+        private final Map<Double, Double> numbers = new HashMap<>();
+
+        String string(String value) {
+            return value == null ? null : canonical(strings, value);
+        }
+
+        Double number(double value) {
+            return canonical(numbers, value);
+        }
+
+        private static <T> T canonical(Map<T, T> pool, T value) {
+            T existing = pool.get(value);
+            if (existing != null) {
+                return existing;
+            }
+            if (pool.size() < MAX_POOLED) {
+                pool.put(value, value);
+            }
+            return value;
+        }
+    }
+}
@@ -1,20 +1,35 @@
 package com.speed_liv.menu.infrastructure.persistance;
 
+import com.speed_liv.menu.model.RestaurantSummary;
 import com.speed_liv.menu.model.entity.Restaurant;
 import com.speed_liv.menu.model.repository.RestaurantRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * H2 Database implementation of RestaurantRepository
  * Uses JPA to interact with H2 in-memory database
  * This is the PRIMARY adapter (default)
+ * Every read loads restaurants and plats together (fetch join), never one query per restaurant
  */
 @Component("h2RestaurantAdapter")
 @Primary  // This is the default adapter
@@ -24,38 +39,107 @@ public class RestaurantRepositoryAdapter implements RestaurantRepository {
     
     private final JpaRestaurantRepository jpaRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
-    public RestaurantRepositoryAdapter(JpaRestaurantRepository jpaRepository) {
+    public RestaurantRepositoryAdapter(JpaRestaurantRepository jpaRepository, MeterRegistry meterRegistry) {
         this.jpaRepository = jpaRepository;
+        // Read with a COUNT query when metrics are scraped
+        Gauge.builder("menu.catalog.h2.size", jpaRepository, JpaRestaurantRepository::count)
+                .description("Restaurants in the H2 database")
+                .register(meterRegistry);
     }
 
     @Override
     public List<Restaurant> findAll() {
-        logger.info("💾 H2 Adapter: Finding all restaurants from database");
-        return jpaRepository.findAll();
+        logger.debug("💾 H2 Adapter: Finding all restaurants from database");
+        return jpaRepository.findAllWithPlats();
+    }
+
+    @Override
+    public List<RestaurantSummary> findAllSummaries() {
+        logger.debug("💾 H2 Adapter: Finding all restaurant summaries from database");
+        return jpaRepository.findAllSummaries();
+    }
+
+    @Override
+    public List<Restaurant> findPage(Long afterId, int limit) {
+        logger.debug("💾 H2 Adapter: Finding {} restaurants after id {} from database", limit, afterId);
+        List<Long> ids = jpaRepository.findIdsAfter(afterId != null ? afterId : Long.MIN_VALUE, PageRequest.of(0, limit));
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return jpaRepository.findAllWithPlatsByIdIn(ids);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<? super Restaurant> consumer) {
+        logger.debug("💾 H2 Adapter: Streaming all restaurants from database");
+        try (Stream<Restaurant> restaurants = jpaRepository.streamAllWithPlats()) {
+            restaurants.forEach(restaurant -> {
+                consumer.accept(restaurant);
+                // Keep the persistence context (and the heap) flat while scrolling
+                entityManager.detach(restaurant);
+            });
+        }
     }
 
     @Override
     public Optional<Restaurant> findById(Long id) {
-        logger.info("💾 H2 Adapter: Finding restaurant with id {} from database", id);
-        return jpaRepository.findById(id);
+        logger.debug("💾 H2 Adapter: Finding restaurant with id {} from database", id);
+        return jpaRepository.findWithPlatsById(id);
     }
 
     @Override
     public Restaurant save(Restaurant restaurant) {
-        logger.info("💾 H2 Adapter: Saving restaurant to database");
+        logger.debug("💾 H2 Adapter: Saving restaurant to database");
         return jpaRepository.save(restaurant);
     }
 
+    @Override
+    public List<Restaurant> saveAll(List<Restaurant> restaurants) {
+        logger.debug("💾 H2 Adapter: Saving {} restaurants to database", restaurants.size());
+        List<Long> ids = restaurants.stream()
+                .map(Restaurant::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        if (!ids.isEmpty()) {
+            // Load the restaurants being updated in one query, so merge finds them in the session instead of one SELECT each
+            jpaRepository.findAllWithPlatsByIdIn(ids);
+        }
+        // New restaurants take pooled sequence ids: inserts and updates are flushed in JDBC batches at commit
+        return jpaRepository.saveAll(restaurants);
+    }
+
+    /**
+     * One UPDATE per value (available / unavailable) whatever the number of plats
+     */
+    @Override
+    public List<Long> updateDisponible(Map<Long, Boolean> disponible) {
+        logger.debug("💾 H2 Adapter: Updating availability of {} plats", disponible.size());
+        List<Long> available = new ArrayList<>();
+        List<Long> unavailable = new ArrayList<>();
+        disponible.forEach((id, value) -> (Boolean.TRUE.equals(value) ? available : unavailable).add(id));
+        if (!available.isEmpty()) {
+            jpaRepository.updateDisponible(available, Boolean.TRUE);
+        }
+        if (!unavailable.isEmpty()) {
+            jpaRepository.updateDisponible(unavailable, Boolean.FALSE);
+        }
+        return jpaRepository.findRestaurantIdsByPlatIdIn(disponible.keySet());
+    }
+
     @Override
     public void deleteById(Long id) {
-        logger.info("💾 H2 Adapter: Deleting restaurant with id {} from database", id);
+        logger.debug("💾 H2 Adapter: Deleting restaurant with id {} from database", id);
         jpaRepository.deleteById(id);
     }
 
     @Override
     public boolean existsById(Long id) {
-        logger.info("💾 H2 Adapter: Checking if restaurant with id {} exists in database", id);
+        logger.debug("💾 H2 Adapter: Checking if restaurant with id {} exists in database", id);
         return jpaRepository.existsById(id);
     }
 }
@@ -0,0 +1,155 @@
+package com.speed_liv.menu.infrastructure.persistance;
+
+import com.speed_liv.menu.model.entity.Plat;
+import com.speed_liv.menu.model.entity.Restaurant;
+import org.springframework.core.io.Resource;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Reads a binary catalog snapshot (see {@link SnapshotFormat})
+ * Files are memory-mapped and the checksum is verified before any restaurant is handed out,
+ * so a corrupt or truncated snapshot is rejected as a whole
+ */
+public final class RestaurantSnapshotReader {
+
+    private RestaurantSnapshotReader() {
+    }
+
+    /**
+     * @return true if the resource starts with the snapshot magic number
+     */
+    public static boolean isSnapshot(Resource resource) throws IOException {
+        byte[] magic = new byte[SnapshotFormat.MAGIC.length];
+        try (InputStream in = resource.getInputStream()) {
+            int read = 0;
+            int n;
+            while (read < magic.length && (n = in.read(magic, read, magic.length - read)) > 0) {
+                read += n;
+            }
+        }
+        return Arrays.equals(magic, SnapshotFormat.MAGIC);
+    }
+
+    /**
+     * Read every restaurant of the snapshot, in catalog order
+     * @return number of restaurants read
+     * @throws IOException when the resource is not a valid snapshot of a supported version
+     */
+    public static long read(Resource resource, Consumer<? super Restaurant> consumer) throws IOException {
+        ByteBuffer buffer;
+        if (resource.isFile()) {
+            try (FileChannel channel = FileChannel.open(resource.getFile().toPath(), StandardOpenOption.READ)) {
+                if (channel.size() > Integer.MAX_VALUE) {
+                    throw new IOException("Snapshots over 2 GB are not supported by format version " + SnapshotFormat.VERSION);
+                }
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        } else {
+            // Not on the file system (e.g. inside the application jar)
+            try (InputStream in = resource.getInputStream()) {
+                buffer = ByteBuffer.wrap(StreamUtils.copyToByteArray(in));
+            }
+        }
+        try {
+            return read(buffer, consumer);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException | NegativeArraySizeException e) {
+            throw new IOException("Malformed catalog snapshot " + resource.getDescription(), e);
+        }
+    }
+
+    private static long read(ByteBuffer buffer, Consumer<? super Restaurant> consumer) throws IOException {
+        byte[] magic = new byte[SnapshotFormat.MAGIC.length];
+        buffer.get(magic);
+        if (!Arrays.equals(magic, SnapshotFormat.MAGIC)) {
+            throw new IOException("Not a catalog snapshot");
+        }
+        int version = buffer.getShort() & 0xFFFF;
+        if (version != SnapshotFormat.VERSION) {
+            throw new IOException("Unsupported catalog snapshot version " + version);
+        }
+        buffer.getShort();
+        long restaurantCount = buffer.getLong();
+        long stringTableOffset = buffer.getLong();
+        int expectedCrc = buffer.getInt();
+        if (stringTableOffset < SnapshotFormat.HEADER_SIZE || stringTableOffset > buffer.limit()) {
+            throw new IOException("Catalog snapshot string table out of bounds");
+        }
+
+        ByteBuffer body = buffer.duplicate();
+        body.position(SnapshotFormat.HEADER_SIZE);
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        if ((int) crc.getValue() != expectedCrc) {
+            throw new IOException("Catalog snapshot checksum mismatch");
+        }
+
+        String[] strings = readStrings(buffer, (int) stringTableOffset);
+        buffer.position(SnapshotFormat.HEADER_SIZE);
+        for (long i = 0; i < restaurantCount; i++) {
+            int length = buffer.getInt();
+            int end = buffer.position() + length;
+            consumer.accept(readRestaurant(buffer, strings));
+            // Skip what a later minor revision may have appended to the record
+            buffer.position(end);
+        }
+        if (buffer.position() != stringTableOffset) {
+            throw new IOException("Catalog snapshot records do not end at the string table");
+        }
+        return restaurantCount;
+    }
+
+    private static String[] readStrings(ByteBuffer buffer, int offset) {
+        buffer.position(offset);
+        String[] strings = new String[buffer.getInt()];
+        for (int i = 0; i < strings.length; i++) {
+            int length = buffer.getInt();
+            if (buffer.hasArray()) {
+                strings[i] = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + length);
+            } else {
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+        }
+        return strings;
+    }
+
+    private static Restaurant readRestaurant(ByteBuffer buffer, String[] strings) {
+        Restaurant restaurant = new Restaurant();
+        int flags = buffer.get();
+        long id = buffer.getLong();
+        restaurant.setId((flags & SnapshotFormat.HAS_ID) != 0 ? id : null);
+        restaurant.setName(string(strings, buffer.getInt()));
+        int platCount = buffer.getInt();
+        for (int i = 0; i < platCount; i++) {
+            Plat plat = new Plat();
+            int platFlags = buffer.get();
+            long platId = buffer.getLong();
+            plat.setId((platFlags & SnapshotFormat.HAS_ID) != 0 ? platId : null);
+            plat.setName(string(strings, buffer.getInt()));
+            double price = buffer.getDouble();
+            plat.setPrice((platFlags & SnapshotFormat.HAS_PRICE) != 0 ? price : null);
+            if ((platFlags & SnapshotFormat.HAS_DISPONIBLE) != 0) {
+                plat.setDisponible((platFlags & SnapshotFormat.DISPONIBLE) != 0);
+            }
+            restaurant.addPlat(plat);
+        }
+        return restaurant;
+    }
+
+    private static String string(String[] strings, int index) {
+        return index == SnapshotFormat.NO_STRING ? null : strings[index];
+    }
+}
@@ -0,0 +1,135 @@
+package com.speed_liv.menu.infrastructure.persistance;
+
+import com.speed_liv.menu.model.entity.Plat;
+import com.speed_liv.menu.model.entity.Restaurant;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Writes a binary catalog snapshot (see {@link SnapshotFormat}) in a single pass:
+ * restaurants are appended as they come, the string table and the header are written on close
+ * Only the distinct strings are kept in memory
+ */
+public class RestaurantSnapshotWriter implements Closeable {
+
+    private final FileChannel channel;
+    private final CRC32 crc = new CRC32();
+    private final DataOutputStream out;
+    private final DataOutputStream record;
+    private final ByteArrayOutputStream recordBuffer = new ByteArrayOutputStream(256);
+    private final Map<String, Integer> stringIndexes = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+    private long restaurantCount;
+    private long position = SnapshotFormat.HEADER_SIZE;
+
+    private RestaurantSnapshotWriter(FileChannel channel) throws IOException {
+        this.channel = channel;
+        channel.position(SnapshotFormat.HEADER_SIZE);
+        this.out = new DataOutputStream(new CheckedOutputStream(
+                new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16), crc));
+        this.record = new DataOutputStream(recordBuffer);
+    }
+
+    /**
+     * Create (or replace) the snapshot file
+     */
+    public static RestaurantSnapshotWriter create(Path path) throws IOException {
+        return new RestaurantSnapshotWriter(FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+    }
+
+    public void write(Restaurant restaurant) throws IOException {
+        recordBuffer.reset();
+        record.writeByte(restaurant.getId() != null ? SnapshotFormat.HAS_ID : 0);
+        record.writeLong(restaurant.getId() != null ? restaurant.getId() : 0L);
+        record.writeInt(indexOf(restaurant.getName()));
+        List<Plat> plats = restaurant.getPlats() != null ? restaurant.getPlats() : new ArrayList<>();
+        record.writeInt(plats.size());
+        for (Plat plat : plats) {
+            int flags = 0;
+            if (plat.getId() != null) {
+                flags |= SnapshotFormat.HAS_ID;
+            }
+            if (plat.getPrice() != null) {
+                flags |= SnapshotFormat.HAS_PRICE;
+            }
+            if (plat.getDisponible() != null) {
+                flags |= SnapshotFormat.HAS_DISPONIBLE | (plat.getDisponible() ? SnapshotFormat.DISPONIBLE : 0);
+            }
+            record.writeByte(flags);
+            record.writeLong(plat.getId() != null ? plat.getId() : 0L);
+            record.writeInt(indexOf(plat.getName()));
+            record.writeDouble(plat.getPrice() != null ? plat.getPrice() : 0.0);
+        }
+        out.writeInt(recordBuffer.size());
+        recordBuffer.writeTo(out);
+        position += Integer.BYTES + recordBuffer.size();
+        restaurantCount++;
+    }
+
+    /**
+     * Append the string table and the header
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            long stringTableOffset = position;
+            out.writeInt(strings.size());
+            for (String value : strings) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(SnapshotFormat.HEADER_SIZE);
+            header.put(SnapshotFormat.MAGIC)
+                    .putShort((short) SnapshotFormat.VERSION)
+                    .putShort((short) 0)
+                    .putLong(restaurantCount)
+                    .putLong(stringTableOffset)
+                    .putInt((int) crc.getValue())
+                    .putInt(0)
+                    .flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(false);
+        } finally {
+            channel.close();
+        }
+    }
+
+    public long getRestaurantCount() {
+        return restaurantCount;
+    }
+
+    private int indexOf(String value) {
+        if (value == null) {
+            return SnapshotFormat.NO_STRING;
+        }
+        Integer index = stringIndexes.get(value);
+        if (index == null) {
+            index = strings.size();
+            strings.add(value);
+            stringIndexes.put(value, index);
+        }
+        return index;
+    }
+}
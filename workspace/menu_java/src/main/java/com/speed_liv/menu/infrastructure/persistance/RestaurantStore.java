@@ -0,0 +1,42 @@
+package com.speed_liv.menu.infrastructure.persistance;
+
+import com.speed_liv.menu.model.RestaurantSummary;
+import com.speed_liv.menu.model.entity.Restaurant;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Immutable, id-indexed catalog held by the JSON adapter (see CatalogStorage)
+ * When an id appears more than once, lookups and pages see the first restaurant with it
+ */
+public interface RestaurantStore {
+
+    /**
+     * @return read-only view of all restaurants, in source order
+     */
+    List<Restaurant> all();
+
+    /**
+     * @return read-only id/name view of all restaurants, in source order
+     */
+    List<RestaurantSummary> summaries();
+
+    /**
+     * @return read-only view of up to limit restaurants ordered by id, after afterId (from the first when null)
+     */
+    List<Restaurant> page(Long afterId, int limit);
+
+    Optional<Restaurant> findById(Long id);
+
+    boolean contains(Long id);
+
+    int size();
+
+    /**
+     * @return bytes held outside the Java heap
+     */
+    default long offHeapBytes() {
+        return 0;
+    }
+}
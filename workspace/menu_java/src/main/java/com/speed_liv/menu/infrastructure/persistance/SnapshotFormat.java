@@ -0,0 +1,36 @@
+package com.speed_liv.menu.infrastructure.persistance;
+
+/**
+ * Layout of the binary catalog snapshot (version 1), all numbers big-endian
+ *
+ * <pre>
+ * header (32 bytes)
+ *   0  magic "MCAT"
+ *   4  u16 format version, u16 reserved (0)
+ *   8  i64 restaurant count
+ *   16 i64 offset of the string table
+ *   24 i32 CRC32 of every byte after the header, i32 reserved (0)
+ * restaurant records, in catalog order, each one prefixed by its i32 length
+ *   u8 flags (HAS_ID), i64 id, i32 name, i32 plat count, then per plat:
+ *   u8 flags (HAS_ID, HAS_PRICE, HAS_DISPONIBLE, DISPONIBLE), i64 id, i32 name, f64 price
+ * string table
+ *   i32 count, then per string: i32 byte length, UTF-8 bytes
+ * </pre>
+ * Names are indexes in the string table (-1 for null), so every distinct string is stored and decoded once
+ */
+final class SnapshotFormat {
+
+    static final byte[] MAGIC = {'M', 'C', 'A', 'T'};
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+
+    static final int HAS_ID = 1;
+    static final int HAS_PRICE = 1 << 1;
+    static final int HAS_DISPONIBLE = 1 << 2;
+    static final int DISPONIBLE = 1 << 3;
+
+    static final int NO_STRING = -1;
+
+    private SnapshotFormat() {
+    }
+}
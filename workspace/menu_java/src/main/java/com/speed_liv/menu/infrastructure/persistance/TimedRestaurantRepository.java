@@ -0,0 +1,133 @@
+package com.speed_liv.menu.infrastructure.persistance;
+
+import com.speed_liv.menu.infrastructure.diagnostics.RequestTrace;
+import com.speed_liv.menu.model.RestaurantSummary;
+import com.speed_liv.menu.model.entity.Restaurant;
+import com.speed_liv.menu.model.repository.RestaurantRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Times every call to a RestaurantRepository (Decorator)
+ * Recorded as menu.repository tagged with the adapter (H2, JSON), the configured strategy and the method;
+ * percentile histograms are switched on in application.properties (management.metrics.distribution.*)
+ * The time is also added to the request being traced by the flight recorder
+ */
+public class TimedRestaurantRepository implements RestaurantRepository {
+
+    public static final String METRIC = "menu.repository";
+
+    private final RestaurantRepository delegate;
+    // One timer per method, registered up front so a call does not look it up in the registry
+    private final Timer findAll;
+    private final Timer findAllSummaries;
+    private final Timer findPage;
+    private final Timer streamAll;
+    private final Timer findById;
+    private final Timer save;
+    private final Timer saveAll;
+    private final Timer updateDisponible;
+    private final Timer deleteById;
+    private final Timer existsById;
+
+    public TimedRestaurantRepository(String adapter, String strategy, RestaurantRepository delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.findAll = timer(meterRegistry, adapter, strategy, "findAll");
+        this.findAllSummaries = timer(meterRegistry, adapter, strategy, "findAllSummaries");
+        this.findPage = timer(meterRegistry, adapter, strategy, "findPage");
+        this.streamAll = timer(meterRegistry, adapter, strategy, "streamAll");
+        this.findById = timer(meterRegistry, adapter, strategy, "findById");
+        this.save = timer(meterRegistry, adapter, strategy, "save");
+        this.saveAll = timer(meterRegistry, adapter, strategy, "saveAll");
+        this.updateDisponible = timer(meterRegistry, adapter, strategy, "updateDisponible");
+        this.deleteById = timer(meterRegistry, adapter, strategy, "deleteById");
+        this.existsById = timer(meterRegistry, adapter, strategy, "existsById");
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String adapter, String strategy, String method) {
+        return Timer.builder(METRIC)
+                .description("Time spent in RestaurantRepository calls")
+                .tag("adapter", adapter)
+                .tag("strategy", strategy)
+                .tag("method", method)
+                .register(meterRegistry);
+    }
+
+    private static <T> T time(Timer timer, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            timer.record(elapsed, TimeUnit.NANOSECONDS);
+            RequestTrace.addRepository(elapsed);
+        }
+    }
+
+    private static void time(Timer timer, Runnable call) {
+        time(timer, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    @Override
+    public List<Restaurant> findAll() {
+        return time(findAll, delegate::findAll);
+    }
+
+    @Override
+    public List<RestaurantSummary> findAllSummaries() {
+        return time(findAllSummaries, delegate::findAllSummaries);
+    }
+
+    @Override
+    public List<Restaurant> findPage(Long afterId, int limit) {
+        return time(findPage, () -> delegate.findPage(afterId, limit));
+    }
+
+    /**
+     * Includes the time spent in the consumer (usually writing the response)
+     */
+    @Override
+    public void streamAll(Consumer<? super Restaurant> consumer) {
+        time(streamAll, () -> delegate.streamAll(consumer));
+    }
+
+    @Override
+    public Optional<Restaurant> findById(Long id) {
+        return time(findById, () -> delegate.findById(id));
+    }
+
+    @Override
+    public Restaurant save(Restaurant restaurant) {
+        return time(save, () -> delegate.save(restaurant));
+    }
+
+    @Override
+    public List<Restaurant> saveAll(List<Restaurant> restaurants) {
+        return time(saveAll, () -> delegate.saveAll(restaurants));
+    }
+
+    @Override
+    public List<Long> updateDisponible(Map<Long, Boolean> disponible) {
+        return time(updateDisponible, () -> delegate.updateDisponible(disponible));
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        time(deleteById, () -> delegate.deleteById(id));
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return time(existsById, () -> delegate.existsById(id));
+    }
+}
@@ -0,0 +1,69 @@
+package com.speed_liv.menu.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.speed_liv.menu.config.DataSourceStrategy;
+import com.speed_liv.menu.model.event.CatalogChangedEvent;
+
+import java.util.List;
+
+/**
+ * Data of one event of GET /restaurants/events: what changed, not the new content
+ * Clients refetch the restaurant (or the whole catalog for RELOADED), which the ETags and snapshots make cheap
+ * Changes of the same kind committed together (a batch chunk) come as one event listing restaurantIds
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CatalogChange {
+
+    @JsonProperty("type")
+    private final CatalogChangedEvent.Type type;
+
+    @JsonProperty("source")
+    private final DataSourceStrategy source;
+
+    @JsonProperty("restaurantId")
+    private final Long restaurantId;
+
+    @JsonProperty("restaurantIds")
+    private final List<Long> restaurantIds;
+
+    public CatalogChange(CatalogChangedEvent.Type type, DataSourceStrategy source, Long restaurantId) {
+        this(type, source, restaurantId, null);
+    }
+
+    private CatalogChange(CatalogChangedEvent.Type type, DataSourceStrategy source, Long restaurantId, List<Long> restaurantIds) {
+        this.type = type;
+        this.source = source;
+        this.restaurantId = restaurantId;
+        this.restaurantIds = restaurantIds;
+    }
+
+    public static CatalogChange of(CatalogChangedEvent event) {
+        return new CatalogChange(event.getType(), event.getSource(), event.getRestaurantId());
+    }
+
+    /**
+     * @return one change for several restaurants, or the change of the single one
+     */
+    public static CatalogChange of(CatalogChangedEvent.Type type, DataSourceStrategy source, List<Long> restaurantIds) {
+        return restaurantIds.size() == 1
+                ? new CatalogChange(type, source, restaurantIds.get(0))
+                : new CatalogChange(type, source, null, restaurantIds);
+    }
+
+    public CatalogChangedEvent.Type getType() {
+        return type;
+    }
+
+    public DataSourceStrategy getSource() {
+        return source;
+    }
+
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+
+    public List<Long> getRestaurantIds() {
+        return restaurantIds;
+    }
+}
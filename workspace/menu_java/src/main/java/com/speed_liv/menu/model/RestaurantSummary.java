@@ -0,0 +1,52 @@
+package com.speed_liv.menu.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Objects;
+
+/**
+ * Lightweight read model of a restaurant for list views (no plats)
+ */
+public class RestaurantSummary {
+
+    @JsonProperty("id")
+    private final Long id;
+
+    @JsonProperty("name")
+    private final String name;
+
+    public RestaurantSummary(Long id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RestaurantSummary that = (RestaurantSummary) o;
+        return Objects.equals(id, that.id) &&
+               Objects.equals(name, that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name);
+    }
+
+    @Override
+    public String toString() {
+        return "RestaurantSummary{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                '}';
+    }
+}
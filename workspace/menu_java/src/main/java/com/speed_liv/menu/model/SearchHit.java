@@ -0,0 +1,95 @@
+package com.speed_liv.menu.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Objects;
+
+/**
+ * One result of GET /search: a restaurant, or a plat with the restaurant that serves it
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SearchHit {
+
+    public enum Type {
+        RESTAURANT, PLAT
+    }
+
+    @JsonProperty("type")
+    private final Type type;
+
+    @JsonProperty("id")
+    private final Long id;
+
+    @JsonProperty("name")
+    private final String name;
+
+    @JsonProperty("restaurantId")
+    private final Long restaurantId;
+
+    @JsonProperty("restaurantName")
+    private final String restaurantName;
+
+    public SearchHit(Type type, Long id, String name, Long restaurantId, String restaurantName) {
+        this.type = type;
+        this.id = id;
+        this.name = name;
+        this.restaurantId = restaurantId;
+        this.restaurantName = restaurantName;
+    }
+
+    public static SearchHit restaurant(Long id, String name) {
+        return new SearchHit(Type.RESTAURANT, id, name, null, null);
+    }
+
+    public static SearchHit plat(Long id, String name, Long restaurantId, String restaurantName) {
+        return new SearchHit(Type.PLAT, id, name, restaurantId, restaurantName);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+
+    public String getRestaurantName() {
+        return restaurantName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SearchHit that = (SearchHit) o;
+        return type == that.type &&
+               Objects.equals(id, that.id) &&
+               Objects.equals(name, that.name) &&
+               Objects.equals(restaurantId, that.restaurantId) &&
+               Objects.equals(restaurantName, that.restaurantName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, id, name, restaurantId, restaurantName);
+    }
+
+    @Override
+    public String toString() {
+        return "SearchHit{" +
+                "type=" + type +
+                ", id=" + id +
+                ", name='" + name + '\'' +
+                ", restaurantId=" + restaurantId +
+                '}';
+    }
+}
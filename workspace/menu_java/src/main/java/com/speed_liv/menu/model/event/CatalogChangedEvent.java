@@ -0,0 +1,82 @@
+package com.speed_liv.menu.model.event;
+
+import com.speed_liv.menu.config.DataSourceStrategy;
+import com.speed_liv.menu.model.entity.Restaurant;
+
+/**
+ * Published when the restaurant catalog changes
+ * SAVED and DELETED concern a single restaurant, UPDATED the plats of one restaurant changed in place
+ * (availability); RELOADED means the whole source was replaced
+ * Listeners keep derived state (versions, caches, indexes) in sync with the data sources
+ */
+public class CatalogChangedEvent {
+
+    public enum Type {
+        SAVED,
+        DELETED,
+        UPDATED,
+        RELOADED
+    }
+
+    private final Type type;
+    private final DataSourceStrategy source;
+    private final Long restaurantId;
+    private final Restaurant restaurant;
+
+    private CatalogChangedEvent(Type type, DataSourceStrategy source, Long restaurantId, Restaurant restaurant) {
+        this.type = type;
+        this.source = source;
+        this.restaurantId = restaurantId;
+        this.restaurant = restaurant;
+    }
+
+    public static CatalogChangedEvent saved(DataSourceStrategy source, Restaurant restaurant) {
+        return new CatalogChangedEvent(Type.SAVED, source, restaurant.getId(), restaurant);
+    }
+
+    public static CatalogChangedEvent deleted(DataSourceStrategy source, Long restaurantId) {
+        return new CatalogChangedEvent(Type.DELETED, source, restaurantId, null);
+    }
+
+    public static CatalogChangedEvent updated(DataSourceStrategy source, Long restaurantId) {
+        return new CatalogChangedEvent(Type.UPDATED, source, restaurantId, null);
+    }
+
+    public static CatalogChangedEvent reloaded(DataSourceStrategy source) {
+        return new CatalogChangedEvent(Type.RELOADED, source, null, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return the data source that changed (H2 or JSON)
+     */
+    public DataSourceStrategy getSource() {
+        return source;
+    }
+
+    /**
+     * @return id of the saved, deleted or updated restaurant, null for RELOADED
+     */
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+
+    /**
+     * @return the saved restaurant, null for the other types
+     */
+    public Restaurant getRestaurant() {
+        return restaurant;
+    }
+
+    @Override
+    public String toString() {
+        return "CatalogChangedEvent{" +
+                "type=" + type +
+                ", source=" + source +
+                ", restaurantId=" + restaurantId +
+                '}';
+    }
+}
@@ -0,0 +1,33 @@
+package com.speed_liv.menu.model.repository;
+
+import com.speed_liv.menu.model.RestaurantSummary;
+import com.speed_liv.menu.model.entity.Restaurant;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive read side of the Restaurant domain (Port in Hexagonal Architecture)
+ * Same contract as the reads of RestaurantRepository, but nothing happens before subscription
+ * and a Flux only reads as far as its subscriber asks (backpressure)
+ */
+public interface ReactiveRestaurantRepository {
+
+    /**
+     * Find all restaurants
+     * @return all restaurants, in the same order as RestaurantRepository.findAll
+     */
+    Flux<Restaurant> findAll();
+
+    /**
+     * Find all restaurants without loading their plats
+     * @return id and name of all restaurants, in the same order as findAll
+     */
+    Flux<RestaurantSummary> findAllSummaries();
+
+    /**
+     * Find a restaurant by its ID
+     * @param id the restaurant ID
+     * @return the restaurant, or an empty Mono if not found
+     */
+    Mono<Restaurant> findById(Long id);
+}
@@ -1,8 +1,11 @@
 package com.speed_liv.menu.model.repository;
 
+import com.speed_liv.menu.model.RestaurantSummary;
 import com.speed_liv.menu.model.entity.Restaurant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Repository interface for Restaurant domain (Port in Hexagonal Architecture)
@@ -12,10 +15,32 @@ public interface RestaurantRepository {
     
     /**
      * Find all restaurants
-     * @return List of all restaurants
+     * @return List of all restaurants (may be a read-only view shared between callers)
      */
     List<Restaurant> findAll();
+
+    /**
+     * Find all restaurants without loading their plats
+     * @return id and name of all restaurants, in the same order as findAll
+     */
+    List<RestaurantSummary> findAllSummaries();
+
+    /**
+     * Find a page of restaurants ordered by id (keyset pagination)
+     * The cost of a page does not depend on how deep it is in the catalog
+     * @param afterId only return restaurants with an id strictly greater than this one, null for the first page
+     * @param limit maximum number of restaurants to return
+     * @return up to limit restaurants, ordered by id
+     */
+    List<Restaurant> findPage(Long afterId, int limit);
     
+    /**
+     * Stream all restaurants to the consumer one at a time, in the same order as findAll,
+     * without building the full list in memory
+     * @param consumer called once per restaurant; an exception stops the stream
+     */
+    void streamAll(Consumer<? super Restaurant> consumer);
+
     /**
      * Find a restaurant by its ID
      * @param id the restaurant ID
@@ -29,7 +54,21 @@ public interface RestaurantRepository {
      * @return the saved restaurant
      */
     Restaurant save(Restaurant restaurant);
+
+    /**
+     * Save several restaurants in one go (batched writes where the source supports it)
+     * @param restaurants the restaurants to save
+     * @return the saved restaurants, in the same order
+     */
+    List<Restaurant> saveAll(List<Restaurant> restaurants);
     
+    /**
+     * Set Plat.disponible in place, without loading or merging the restaurants
+     * @param disponible new availability by plat id
+     * @return ids of the restaurants owning the updated plats
+     */
+    List<Long> updateDisponible(Map<Long, Boolean> disponible);
+
     /**
      * Delete a restaurant by its ID
      * @param id the restaurant ID to delete
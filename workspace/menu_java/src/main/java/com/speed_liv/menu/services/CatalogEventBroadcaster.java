@@ -0,0 +1,440 @@
+package com.speed_liv.menu.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.speed_liv.menu.config.CatalogEventsConfig;
+import com.speed_liv.menu.config.DataSourceStrategy;
+import com.speed_liv.menu.model.CatalogChange;
+import com.speed_liv.menu.model.event.CatalogChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Pushes committed catalog changes to the clients of GET /restaurants/events (Server-Sent Events)
+ * Each change is serialized once into a ring buffer shared by every subscriber; a subscriber only keeps
+ * the sequence of the next event it has to send. A few sender threads drain the subscribers that have
+ * events pending, one drain at a time per subscriber, so a thousand clients cost a thousand cursors
+ * and not a thousand queues or threads
+ *
+ * A subscriber whose next event has been overwritten fell too far behind: it is disconnected.
+ * When it reconnects with Last-Event-ID it resumes where it stopped if the buffer still has the events,
+ * otherwise it gets a reset event telling it to reload the catalog. A subscriber whose write blocks longer
+ * than app.catalog-events.send-timeout (a client that stopped reading) is disconnected as well, and a sender
+ * thread is added until that write returns, so stalled clients never hold up the others
+ *
+ * The changes of one transaction are pushed after it commits, one event per kind of change: a batch chunk
+ * takes one slot of the buffer, not one per restaurant
+ */
+@Component
+public class CatalogEventBroadcaster implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogEventBroadcaster.class);
+
+    public static final String CHANGE_EVENT = "change";
+    public static final String RESET_EVENT = "reset";
+
+    // Event ids never match across restarts, where the sequence starts again from zero
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE);
+    private final AtomicReferenceArray<Event> buffer;
+    private final int mask;
+    // Sequence of the next event; only moved by publish, after its slot is written
+    private volatile long tail;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor senders;
+    // Not the shared Spring scheduler: checking the writes must never wait on one
+    private final ScheduledExecutorService watchdog;
+    private final ObjectMapper objectMapper;
+    private final long timeoutMillis;
+    private final long retryMillis;
+    private final long sendTimeoutNanos;
+    private final Counter evictions;
+    private final Counter stalls;
+
+    @Autowired
+    public CatalogEventBroadcaster(CatalogEventsConfig config, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        int capacity = Integer.highestOneBit(Math.max(2, config.getBufferSize() - 1)) << 1;
+        this.buffer = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        // Unbounded queue, but a subscriber is queued at most once: it holds one task per subscriber at most
+        this.senders = new ThreadPoolExecutor(
+                config.getSenders(), config.getSenders(),
+                60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new SenderThreadFactory());
+        this.senders.allowCoreThreadTimeOut(true);
+        long watchdogMillis = config.getWatchdog().toMillis();
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(
+                runnable -> daemon(runnable, "catalog-events-watchdog"));
+        this.watchdog.scheduleWithFixedDelay(this::evictStalled, watchdogMillis, watchdogMillis, TimeUnit.MILLISECONDS);
+        this.objectMapper = objectMapper;
+        this.timeoutMillis = config.getTimeout().toMillis();
+        this.retryMillis = config.getRetry().toMillis();
+        this.sendTimeoutNanos = config.getSendTimeout().toNanos();
+        Gauge.builder("menu.catalog.events.subscribers", subscribers, Set::size)
+                .description("Clients connected to GET /restaurants/events")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("menu.catalog.events.evictions")
+                .description("Subscribers disconnected for falling behind the event buffer (lag) or not reading (stalled)")
+                .tag("reason", "lag")
+                .register(meterRegistry);
+        this.stalls = Counter.builder("menu.catalog.events.evictions")
+                .description("Subscribers disconnected for falling behind the event buffer (lag) or not reading (stalled)")
+                .tag("reason", "stalled")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream of the changes committed from now on
+     * @param lastEventId id of the last event received, sent back by the client when it reconnects (may be null)
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        Subscriber subscriber = new Subscriber(newEmitter(timeoutMillis));
+        long next = tail;
+        if (lastEventId != null) {
+            long resumed = resumePoint(lastEventId, next);
+            if (resumed >= 0) {
+                next = resumed;
+            } else {
+                subscriber.reset = true;
+            }
+        }
+        subscriber.cursor = next;
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        subscriber.emitter.onError(error -> remove(subscriber));
+        subscriber.emitter.onTimeout(() -> {
+            remove(subscriber);
+            subscriber.emitter.complete();
+        });
+        subscribers.add(subscriber);
+        // Also sends what was published between reading the tail and joining the subscribers
+        schedule(subscriber);
+        logger.debug("📣 Subscriber joined at event {} ({} connected)", next, subscribers.size());
+        return subscriber.emitter;
+    }
+
+    /**
+     * Collects the changes of the current transaction and pushes them after commit, so clients never hear
+     * of a change they cannot read yet; outside a transaction the change is pushed at once
+     */
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            publish(Collections.singletonList(event));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<CatalogChangedEvent> pending = (List<CatalogChangedEvent>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<CatalogChangedEvent> changes = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CatalogEventBroadcaster.this);
+                    if (status == STATUS_COMMITTED) {
+                        publish(changes);
+                    }
+                }
+            });
+            pending = changes;
+        }
+        pending.add(event);
+    }
+
+    /**
+     * Keeps idle connections open through proxies, and finds the clients that went away
+     */
+    @Scheduled(fixedDelayString = "${app.catalog-events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue = true;
+            schedule(subscriber);
+        }
+    }
+
+    /**
+     * Disconnects the subscribers whose write has been blocked for longer than the send timeout
+     * and lends the pool a thread for each, the blocked one being lost until the write gives up.
+     * The emitter is left alone, its lock being held by the blocked write: the sender completes it once the write returns
+     */
+    void evictStalled() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            synchronized (subscriber) {
+                long since = subscriber.sendingSince;
+                if (since == 0 || now - since < sendTimeoutNanos || subscriber.stalled) {
+                    continue;
+                }
+                subscriber.stalled = true;
+                resizeSenders(1);
+                // Under the lock, so the sender sees it closed when its write returns
+                remove(subscriber);
+            }
+            stalls.increment();
+            logger.debug("📣 Subscriber stalled for more than {} ms, disconnecting it", sendTimeoutNanos / 1_000_000);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    // Overridden by tests
+    SseEmitter newEmitter(long timeout) {
+        return new SseEmitter(timeout);
+    }
+
+    @Override
+    public void destroy() {
+        watchdog.shutdownNow();
+        senders.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            synchronized (subscriber) {
+                remove(subscriber);
+                // A subscriber in the middle of a write is completed by its sender when the write returns
+                if (subscriber.sendingSince == 0) {
+                    subscriber.emitter.complete();
+                }
+            }
+        }
+    }
+
+    private void publish(List<CatalogChangedEvent> events) {
+        // One change per type and source, in the order of their first event
+        Map<CatalogChangedEvent.Type, Map<DataSourceStrategy, Set<Long>>> changes = new LinkedHashMap<>();
+        for (CatalogChangedEvent event : events) {
+            changes.computeIfAbsent(event.getType(), type -> new LinkedHashMap<>())
+                    .computeIfAbsent(event.getSource(), source -> new LinkedHashSet<>())
+                    .add(event.getRestaurantId());
+        }
+        List<String> data = new ArrayList<>();
+        changes.forEach((type, bySource) -> bySource.forEach((source, ids) -> {
+            try {
+                data.add(objectMapper.writeValueAsString(CatalogChange.of(type, source, new ArrayList<>(ids))));
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+        synchronized (buffer) {
+            for (String change : data) {
+                long sequence = tail;
+                buffer.set((int) (sequence & mask), new Event(sequence, change));
+                tail = sequence + 1;
+            }
+        }
+        for (Subscriber subscriber : subscribers) {
+            schedule(subscriber);
+        }
+    }
+
+    /**
+     * @return sequence of the event after lastEventId, or -1 if it is not in the buffer any more
+     */
+    private long resumePoint(String lastEventId, long next) {
+        int separator = lastEventId.indexOf('-');
+        if (separator < 0 || !epoch.equals(lastEventId.substring(0, separator))) {
+            return -1;
+        }
+        long resumed;
+        try {
+            resumed = Long.parseLong(lastEventId.substring(separator + 1)) + 1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        return resumed <= next && resumed >= Math.max(0, next - buffer.length()) ? resumed : -1;
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.closed && subscriber.work.getAndIncrement() == 0) {
+            try {
+                senders.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                remove(subscriber);
+            }
+        }
+    }
+
+    // Never runs twice at once for a subscriber: work counts the schedules made while draining
+    private void drain(Subscriber subscriber) {
+        int missed = subscriber.work.get();
+        do {
+            if (!subscriber.closed) {
+                send(subscriber);
+            }
+            missed = subscriber.work.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void send(Subscriber subscriber) {
+        try {
+            boolean sent = false;
+            if (!subscriber.greeted) {
+                subscriber.greeted = true;
+                // The id lets a client that hears nothing before reconnecting resume from here
+                SseEmitter.SseEventBuilder greeting = SseEmitter.event().id(eventId(subscriber.cursor - 1)).reconnectTime(retryMillis);
+                write(subscriber, subscriber.reset ? greeting.name(RESET_EVENT).data("{}") : greeting.comment("connected"));
+                sent = true;
+            }
+            long end = tail;
+            for (; subscriber.cursor < end; subscriber.cursor++) {
+                Event event = buffer.get((int) (subscriber.cursor & mask));
+                if (event == null || event.sequence != subscriber.cursor) {
+                    evict(subscriber);
+                    return;
+                }
+                write(subscriber, SseEmitter.event().id(eventId(event.sequence)).name(CHANGE_EVENT).data(event.data));
+                sent = true;
+            }
+            if (subscriber.heartbeatDue) {
+                subscriber.heartbeatDue = false;
+                if (!sent) {
+                    write(subscriber, SseEmitter.event().comment("heartbeat"));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client gone, or stream already completed
+            remove(subscriber);
+        }
+    }
+
+    // Blocks while the client does not read; the watchdog (evictStalled) watches sendingSince
+    private void write(Subscriber subscriber, SseEmitter.SseEventBuilder event) throws IOException {
+        synchronized (subscriber) {
+            if (subscriber.closed) {
+                // Evicted by the watchdog while its previous write was blocked, or shut down
+                throw new IllegalStateException("Subscriber disconnected");
+            }
+            // Odd, never 0
+            subscriber.sendingSince = System.nanoTime() | 1;
+        }
+        try {
+            subscriber.emitter.send(event);
+        } finally {
+            boolean closed;
+            synchronized (subscriber) {
+                subscriber.sendingSince = 0;
+                if (subscriber.stalled) {
+                    // The thread lent for this write is not needed any more
+                    subscriber.stalled = false;
+                    resizeSenders(-1);
+                }
+                closed = subscriber.closed;
+            }
+            if (closed) {
+                // Disconnected while writing (watchdog or shutdown): the emitter lock is free now
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    private void resizeSenders(int delta) {
+        synchronized (senders) {
+            int size = senders.getCorePoolSize() + delta;
+            // The core size may never exceed the maximum
+            if (delta > 0) {
+                senders.setMaximumPoolSize(size);
+                senders.setCorePoolSize(size);
+            } else {
+                senders.setCorePoolSize(size);
+                senders.setMaximumPoolSize(size);
+            }
+        }
+    }
+
+    private void evict(Subscriber subscriber) {
+        evictions.increment();
+        logger.debug("📣 Subscriber fell more than {} events behind, disconnecting it", buffer.length());
+        remove(subscriber);
+        subscriber.emitter.complete();
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.remove(subscriber);
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    private static final class Event {
+
+        private final long sequence;
+        private final String data;
+
+        Event(long sequence, String data) {
+            this.sequence = sequence;
+            this.data = data;
+        }
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final AtomicInteger work = new AtomicInteger();
+        // Only touched by drain, which never runs concurrently for one subscriber
+        private long cursor;
+        private boolean reset;
+        private boolean greeted;
+        private volatile boolean heartbeatDue;
+        private volatile boolean closed;
+        // System.nanoTime() when the write in progress started, 0 when idle; guarded by the subscriber
+        private long sendingSince;
+        // The watchdog lent the pool a thread for the write in progress
+        private boolean stalled;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static class SenderThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            return daemon(runnable, "catalog-events-" + count.incrementAndGet());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.speed_liv.menu.services;
+
+import com.speed_liv.menu.model.event.CatalogChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic versions of the catalog and of each restaurant, used as strong ETags
+ * Bumped after every committed write, so checking a client's ETag costs a counter read:
+ * no repository access and no serialization
+ *
+ * ETags start with a random epoch so that they never match across restarts
+ * (the in-memory H2 database is reseeded and the counters start again from zero)
+ *
+ * A restaurant version is the catalog version of its last change (deletes included), so it is never reused,
+ * even for an id deleted and saved again. Only restaurants changed since the last reload are tracked, the others
+ * share the catalog version of that reload. Past MAX_TRACKED ids, the map starts over from a new base version:
+ * every restaurant ETag changes once, and clients revalidate
+ */
+@Component
+public class CatalogVersion {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogVersion.class);
+
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE);
+    // Bumped by every change
+    private final AtomicLong catalogVersion = new AtomicLong();
+    static final int MAX_TRACKED = 65536;
+
+    // Version of the restaurants not in restaurantVersions: catalog version of the last reload or reset
+    private volatile long baseVersion;
+    private final Map<Long, Long> restaurantVersions = new ConcurrentHashMap<>();
+
+    public long current() {
+        return catalogVersion.get();
+    }
+
+    /**
+     * @return strong ETag of the restaurant listing as JSON
+     */
+    public String catalogETag() {
+        return "\"" + epoch + "-" + catalogVersion.get() + "\"";
+    }
+
+    /**
+     * @return strong ETag of another representation of the restaurant listing (e.g. "ndjson")
+     */
+    public String catalogETag(String representation) {
+        return variant(catalogETag(), representation);
+    }
+
+    /**
+     * @return strong ETag of one restaurant
+     */
+    public String restaurantETag(Long id) {
+        return "\"" + epoch + "-r" + id + "-" + restaurantVersions.getOrDefault(id, baseVersion) + "\"";
+    }
+
+    /**
+     * @return the strong ETag of another representation of the same data (content-coding, media type)
+     */
+    public static String variant(String eTag, String suffix) {
+        return eTag.substring(0, eTag.length() - 1) + "-" + suffix + "\"";
+    }
+
+    /**
+     * Runs after commit: a reader that computed its ETag before the write may return either
+     * the old or the new data under the old ETag, and will refetch on its next poll
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        long version = catalogVersion.incrementAndGet();
+        if (event.getType() != CatalogChangedEvent.Type.RELOADED) {
+            restaurantVersions.put(event.getRestaurantId(), version);
+        }
+        if (event.getType() == CatalogChangedEvent.Type.RELOADED || restaurantVersions.size() > MAX_TRACKED) {
+            // Base first: until the entries are gone, readers still get the previous ETags, never a reused one
+            baseVersion = version;
+            restaurantVersions.clear();
+        }
+        logger.debug("🏷️ Catalog version {} after {}", version, event);
+    }
+}
@@ -0,0 +1,135 @@
+package com.speed_liv.menu.services;
+
+import com.speed_liv.menu.config.DataSourceConfig;
+import com.speed_liv.menu.config.ThreadsConfig;
+import com.speed_liv.menu.infrastructure.diagnostics.RequestTrace;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs data source reads concurrently for the BOTH strategy
+ * Backed by a bounded pool: when it is saturated the read is refused and left out of the response
+ * (partial result), so a request never runs a read on its own thread past the deadline
+ * With app.threads.virtual, each read gets a virtual thread instead; the connection pool bounds the database load
+ * Database reads run in a read-only transaction timing out with the fan-out: the JDBC query is cancelled
+ * instead of running on after the request gave up on it
+ */
+@Component
+public class DataSourceFanOut implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataSourceFanOut.class);
+
+    private final ExecutorService executor;
+    private final long timeoutNanos;
+    private final TransactionTemplate queries;
+
+    @Autowired
+    public DataSourceFanOut(DataSourceConfig dataSourceConfig, ThreadsConfig threadsConfig,
+                            PlatformTransactionManager transactionManager) {
+        DataSourceConfig.FanOut fanOut = dataSourceConfig.getFanOut();
+        if (threadsConfig.isVirtual()) {
+            this.executor = ThreadsConfig.virtualThreadExecutor("datasource-fanout-");
+        } else {
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                    fanOut.getThreads(), fanOut.getThreads(),
+                    60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(fanOut.getQueueCapacity()),
+                    new FanOutThreadFactory(),
+                    new ThreadPoolExecutor.AbortPolicy());
+            pool.allowCoreThreadTimeOut(true);
+            this.executor = pool;
+        }
+        this.timeoutNanos = fanOut.getTimeout().toNanos();
+        this.queries = new TransactionTemplate(transactionManager);
+        this.queries.setReadOnly(true);
+        // Transaction timeouts are in seconds: rounded up, so a query is never cut before the deadline
+        this.queries.setTimeout((int) Math.max(1, TimeUnit.NANOSECONDS.toSeconds(timeoutNanos + 999_999_999)));
+    }
+
+    /**
+     * Start a read on the pool, on behalf of the request traced by the calling thread
+     * @return the read, failed with a RejectedExecutionException when the pool is saturated
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> read) {
+        RequestTrace trace = RequestTrace.current();
+        try {
+            return CompletableFuture.supplyAsync(() -> RequestTrace.callWith(trace, read), executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Start a database read on the pool, its JDBC queries timing out with the fan-out
+     */
+    public <T> CompletableFuture<T> submitQuery(Supplier<T> read) {
+        return submit(() -> queries.execute(status -> read.get()));
+    }
+
+    /**
+     * Deadline shared by the reads of one request, to pass to {@link #await}
+     */
+    public long deadline() {
+        return System.nanoTime() + timeoutNanos;
+    }
+
+    /**
+     * Wait for a read until the deadline
+     * @return the result, or empty if the source failed or timed out (partial result)
+     */
+    public <T> Optional<T> await(String source, CompletableFuture<T> read, long deadline) {
+        try {
+            return Optional.ofNullable(read.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            // A queued read is dropped; a running query is stopped by its transaction timeout
+            read.cancel(false);
+            logger.warn("⏱️ {} did not answer within {} ms, continuing without it", source,
+                    TimeUnit.NANOSECONDS.toMillis(timeoutNanos));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                logger.warn("🚦 Fan-out pool saturated, continuing without {}", source);
+                return Optional.empty();
+            }
+            logger.warn("❌ {} read failed, continuing without it", source, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            read.cancel(false);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private static class FanOutThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "datasource-fanout-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
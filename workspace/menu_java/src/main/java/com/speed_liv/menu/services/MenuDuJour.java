@@ -0,0 +1,154 @@
+package com.speed_liv.menu.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.speed_liv.menu.config.MenuDuJourConfig;
+import com.speed_liv.menu.model.Plat;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Menu of the day: the available plats (disponible == true), kept serialized to JSON
+ * Built when the application is ready and again at each day boundary (app.menu-du-jour.cron).
+ * The snapshot remembers the PlatIndex versions it was selected from: a catalog change or an availability
+ * flip moves one of them and the next read selects and serializes again, once. In between, a request costs
+ * two counter reads
+ */
+@Component
+public class MenuDuJour {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuDuJour.class);
+
+    private final PlatIndex platIndex;
+    private final ObjectMapper objectMapper;
+    private final MenuDuJourConfig config;
+    private final Timer serialization;
+    // ETags never match across restarts, the index version starting again from zero
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE);
+
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public MenuDuJour(PlatIndex platIndex, ObjectMapper objectMapper, MenuDuJourConfig config, MeterRegistry meterRegistry) {
+        this.platIndex = platIndex;
+        this.objectMapper = objectMapper;
+        this.config = config;
+        this.serialization = Timer.builder("menu.serialization")
+                .description("Time spent serializing response bodies to JSON")
+                .tag("writer", "menu-du-jour")
+                .tag("body", "menu-du-jour")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the serialized menu of the day, current with the catalog
+     */
+    public Snapshot current() {
+        Snapshot current = snapshot;
+        if (isCurrent(current)) {
+            return current;
+        }
+        synchronized (this) {
+            // Concurrent requests after a change wait for a single rebuild
+            current = snapshot;
+            if (!isCurrent(current)) {
+                current = build(current != null ? current.day : today());
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Selects the menu for the new day; runs after PlatIndex has indexed the sources at startup
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @Scheduled(cron = "${app.menu-du-jour.cron:0 0 0 * * *}", zone = "${app.menu-du-jour.zone:Europe/Paris}")
+    public synchronized void rebuild() {
+        build(today());
+    }
+
+    private boolean isCurrent(Snapshot current) {
+        return current != null && current.version == platIndex.getVersion()
+                && current.availabilityVersion == platIndex.getAvailabilityVersion();
+    }
+
+    private Snapshot build(LocalDate day) {
+        long start = System.nanoTime();
+        // Read before the plats: a change made while selecting leaves this snapshot stale, never current
+        long version = platIndex.getVersion();
+        long availabilityVersion = platIndex.getAvailabilityVersion();
+        // One plat per id, H2 winning with BOTH
+        List<Plat> menu = platIndex.findAll().stream()
+                .filter(plat -> Boolean.TRUE.equals(plat.getDisponible()))
+                .collect(Collectors.toList());
+        Snapshot built = new Snapshot(day, version, availabilityVersion,
+                "\"" + epoch + "-" + day + "-" + version + "-" + availabilityVersion + "\"", serialize(menu));
+        snapshot = built;
+        logger.info("🍽️ Menu du jour {} rebuilt: {} plats, {} bytes in {} ms", day, menu.size(), built.json.length,
+                (System.nanoTime() - start) / 1_000_000);
+        return built;
+    }
+
+    private LocalDate today() {
+        return LocalDate.now(config.getZone());
+    }
+
+    private byte[] serialize(List<Plat> menu) {
+        long start = System.nanoTime();
+        try {
+            return objectMapper.writeValueAsBytes(menu);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize menu du jour", e);
+        } finally {
+            serialization.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Immutable JSON body of one menu, with its strong ETag
+     */
+    public static final class Snapshot {
+
+        private final LocalDate day;
+        private final long version;
+        private final long availabilityVersion;
+        private final String eTag;
+        private final byte[] json;
+
+        Snapshot(LocalDate day, long version, long availabilityVersion, String eTag, byte[] json) {
+            this.day = day;
+            this.version = version;
+            this.availabilityVersion = availabilityVersion;
+            this.eTag = eTag;
+            this.json = json;
+        }
+
+        public LocalDate getDay() {
+            return day;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+    }
+}
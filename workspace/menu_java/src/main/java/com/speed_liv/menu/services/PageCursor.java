@@ -0,0 +1,55 @@
+package com.speed_liv.menu.services;
+
+import com.speed_liv.menu.config.DataSourceStrategy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in the restaurant listing: the data source being read and the last id returned from it
+ * Encoded as an opaque URL-safe token, e.g. base64("H2:42")
+ */
+final class PageCursor {
+
+    private final DataSourceStrategy source;
+    private final Long afterId;
+
+    PageCursor(DataSourceStrategy source, Long afterId) {
+        this.source = source;
+        this.afterId = afterId;
+    }
+
+    DataSourceStrategy getSource() {
+        return source;
+    }
+
+    /**
+     * @return last id returned from the source, null to start at the beginning of the source
+     */
+    Long getAfterId() {
+        return afterId;
+    }
+
+    String encode() {
+        String raw = source + ":" + (afterId != null ? afterId : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    static PageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            DataSourceStrategy source = DataSourceStrategy.valueOf(raw.substring(0, separator));
+            if (source == DataSourceStrategy.BOTH) {
+                throw new IllegalArgumentException("BOTH is not a single data source");
+            }
+            String afterId = raw.substring(separator + 1);
+            return new PageCursor(source, afterId.isEmpty() ? null : Long.valueOf(afterId));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
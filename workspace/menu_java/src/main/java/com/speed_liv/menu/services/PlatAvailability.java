@@ -0,0 +1,149 @@
+package com.speed_liv.menu.services;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Availability (Plat.disponible) of the plats of one source, one bit per plat
+ * Each plat gets a dense ordinal the first time it is seen. Bits live in fixed-size pages that are never
+ * copied when the bitmap grows, so setting a bit is one compare-and-set and reading it one volatile load
+ *
+ * A second bitmap marks the plats changed since the last drain: a plat flipped many times between
+ * two drains is written once, with its last value
+ */
+final class PlatAvailability {
+
+    // 65536 plats per page
+    private static final int PAGE_SHIFT = 16;
+    private static final int PAGE_MASK = (1 << PAGE_SHIFT) - 1;
+    private static final int PAGE_WORDS = 1 << (PAGE_SHIFT - 6);
+
+    private final Map<Long, Integer> ordinals = new ConcurrentHashMap<>();
+    // Plat id of each ordinal, guarded by this; only read when draining
+    private long[] ids = new long[1024];
+    private volatile AtomicLongArray[] available = new AtomicLongArray[0];
+    private volatile AtomicLongArray[] changed = new AtomicLongArray[0];
+    private volatile boolean pending;
+
+    /**
+     * Availability as read from the source; it replaces a change not written yet
+     */
+    void load(long id, boolean disponible) {
+        int ordinal = ordinal(id);
+        write(available, ordinal, disponible);
+        write(changed, ordinal, false);
+    }
+
+    /**
+     * Availability changed here, to be written to the source by the next drain
+     *
+     * @return false if the plat already had this availability (nothing to write)
+     */
+    boolean set(long id, boolean disponible) {
+        int ordinal = ordinal(id);
+        if (!write(available, ordinal, disponible)) {
+            return false;
+        }
+        write(changed, ordinal, true);
+        pending = true;
+        return true;
+    }
+
+    boolean isAvailable(long id) {
+        Integer ordinal = ordinals.get(id);
+        return ordinal != null && read(available, ordinal);
+    }
+
+    /**
+     * @return the plats changed since the last drain with their current availability, and forgets them
+     */
+    Map<Long, Boolean> drain() {
+        if (!pending) {
+            return new HashMap<>();
+        }
+        pending = false;
+        Map<Long, Boolean> changes = new HashMap<>();
+        AtomicLongArray[] pages = changed;
+        for (int page = 0; page < pages.length; page++) {
+            for (int word = 0; word < PAGE_WORDS; word++) {
+                long bits = pages[page].get(word) != 0 ? pages[page].getAndSet(word, 0) : 0;
+                while (bits != 0) {
+                    int ordinal = (page << PAGE_SHIFT) + (word << 6) + Long.numberOfTrailingZeros(bits);
+                    changes.put(platId(ordinal), read(available, ordinal));
+                    bits &= bits - 1;
+                }
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Marks plats changed again, after a failed write
+     */
+    void retry(Collection<Long> platIds) {
+        for (Long id : platIds) {
+            Integer ordinal = ordinals.get(id);
+            if (ordinal != null) {
+                write(changed, ordinal, true);
+                pending = true;
+            }
+        }
+    }
+
+    private int ordinal(long id) {
+        Integer ordinal = ordinals.get(id);
+        return ordinal != null ? ordinal : assign(id);
+    }
+
+    private synchronized int assign(long id) {
+        Integer existing = ordinals.get(id);
+        if (existing != null) {
+            return existing;
+        }
+        int ordinal = ordinals.size();
+        if (ordinal == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+        }
+        ids[ordinal] = id;
+        if ((ordinal >>> PAGE_SHIFT) == available.length) {
+            available = grow(available);
+            changed = grow(changed);
+        }
+        ordinals.put(id, ordinal);
+        return ordinal;
+    }
+
+    private synchronized long platId(int ordinal) {
+        return ids[ordinal];
+    }
+
+    // The existing pages are shared with the new array: a bit set meanwhile is not lost
+    private static AtomicLongArray[] grow(AtomicLongArray[] pages) {
+        AtomicLongArray[] grown = Arrays.copyOf(pages, pages.length + 1);
+        grown[pages.length] = new AtomicLongArray(PAGE_WORDS);
+        return grown;
+    }
+
+    private static boolean read(AtomicLongArray[] pages, int ordinal) {
+        return (pages[ordinal >>> PAGE_SHIFT].get((ordinal & PAGE_MASK) >>> 6) & (1L << ordinal)) != 0;
+    }
+
+    // @return false if the bit already had this value
+    private static boolean write(AtomicLongArray[] pages, int ordinal, boolean value) {
+        AtomicLongArray page = pages[ordinal >>> PAGE_SHIFT];
+        int word = (ordinal & PAGE_MASK) >>> 6;
+        long mask = 1L << ordinal;
+        long bits;
+        do {
+            bits = page.get(word);
+            if (((bits & mask) != 0) == value) {
+                return false;
+            }
+        } while (!page.compareAndSet(word, bits, value ? bits | mask : bits & ~mask));
+        return true;
+    }
+}
@@ -0,0 +1,55 @@
+package com.speed_liv.menu.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Map;
+
+/**
+ * Writes the availabilities set by PATCH /plats/{id}/disponible to H2, in the background
+ * Every app.plat-availability.flush-delay-ms, the plats flipped since the last round are taken from the
+ * PlatIndex bitmap with their last value and written in one transaction: two UPDATE statements at most,
+ * whatever the number of flips. A failed round is handed back and written with the next one
+ */
+@Component
+public class PlatAvailabilityWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlatAvailabilityWriter.class);
+
+    private final PlatIndex platIndex;
+    private final RestaurantService restaurantService;
+
+    @Autowired
+    public PlatAvailabilityWriter(PlatIndex platIndex, RestaurantService restaurantService) {
+        this.platIndex = platIndex;
+        this.restaurantService = restaurantService;
+    }
+
+    @Scheduled(fixedDelayString = "${app.plat-availability.flush-delay-ms:200}")
+    public void flush() {
+        Map<Long, Boolean> changes = platIndex.drainDisponible();
+        if (changes.isEmpty()) {
+            return;
+        }
+        try {
+            restaurantService.updatePlatAvailability(changes);
+            logger.debug("🥡 Wrote the availability of {} plats to H2", changes.size());
+        } catch (RuntimeException e) {
+            platIndex.retryDisponible(changes.keySet());
+            logger.warn("🥡 Could not write the availability of {} plats to H2, retrying with the next round: {}",
+                    changes.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Writes what is left before the database goes away
+     */
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+}
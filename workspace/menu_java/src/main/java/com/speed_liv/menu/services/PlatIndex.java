@@ -0,0 +1,369 @@
+package com.speed_liv.menu.services;
+
+import com.speed_liv.menu.config.DataSourceConfig;
+import com.speed_liv.menu.config.DataSourceStrategy;
+import com.speed_liv.menu.model.Plat;
+import com.speed_liv.menu.model.entity.Restaurant;
+import com.speed_liv.menu.model.event.CatalogChangedEvent;
+import com.speed_liv.menu.model.repository.RestaurantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Every plat of the configured data sources, keyed by plat id
+ * A plat is found without loading its restaurant or scanning the others. Each source is read once,
+ * when the application is ready (or on first use), then kept current by CatalogChangedEvent:
+ * a saved or deleted restaurant only re-indexes its own plats, a reloaded source is indexed again
+ *
+ * Each source also keeps its plats sorted by price (PriceIndex) for price ranges and cheapest-first listings,
+ * and their availability in a bitmap (PlatAvailability) that PATCH /plats/{id}/disponible flips in memory.
+ * Every read takes disponible from the bitmap: a flip leaves the plats, the price index and the cached
+ * listing alone, it only moves getAvailabilityVersion
+ *
+ * With the BOTH strategy, H2 wins when both sources have a plat with the same id, as for restaurants
+ */
+@Component
+public class PlatIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlatIndex.class);
+
+    private final RestaurantRepository h2Repository;
+    private final RestaurantRepository jsonRepository;
+    private final DataSourceConfig dataSourceConfig;
+    private final SourceIndex h2 = new SourceIndex();
+    private final SourceIndex json = new SourceIndex();
+
+    private volatile boolean built;
+    // Listing of all plats, rebuilt on first read after a change
+    private volatile List<Plat> all;
+    // Bumped on every change, so a listing built while the index changed is not kept
+    private final AtomicLong changes = new AtomicLong();
+    // Bumped on every availability flip
+    private final AtomicLong flips = new AtomicLong();
+
+    @Autowired
+    public PlatIndex(@Qualifier("h2RestaurantRepository") RestaurantRepository h2Repository,
+                     @Qualifier("jsonRestaurantRepository") RestaurantRepository jsonRepository,
+                     DataSourceConfig dataSourceConfig) {
+        this.h2Repository = h2Repository;
+        this.jsonRepository = jsonRepository;
+        this.dataSourceConfig = dataSourceConfig;
+    }
+
+    /**
+     * @return the plat with this id, empty if no configured source has it
+     */
+    public Optional<Plat> findById(Long id) {
+        ensureBuilt();
+        Plat plat = null;
+        if (dataSourceConfig.isH2Enabled()) {
+            plat = h2.current(h2.plats.get(id));
+        }
+        if (plat == null && dataSourceConfig.isJsonEnabled()) {
+            plat = json.current(json.plats.get(id));
+        }
+        return Optional.ofNullable(plat);
+    }
+
+    /**
+     * @return all plats ordered by id, H2 first then JSON, a JSON plat whose id H2 has being left out like in findById
+     * (read-only, shared between callers; availability is read from the bitmap as the list is walked)
+     */
+    public List<Plat> findAll() {
+        ensureBuilt();
+        List<Plat> current = all;
+        if (current == null) {
+            long version = changes.get();
+            List<Plat> plats = new ArrayList<>();
+            boolean h2Enabled = dataSourceConfig.isH2Enabled();
+            if (h2Enabled) {
+                plats.addAll(h2.sorted());
+            }
+            int fromH2 = plats.size();
+            if (dataSourceConfig.isJsonEnabled()) {
+                for (Plat plat : json.sorted()) {
+                    if (!h2Enabled || !h2.plats.containsKey(plat.getId())) {
+                        plats.add(plat);
+                    }
+                }
+            }
+            current = new Listing(plats, fromH2);
+            synchronized (changes) {
+                if (changes.get() == version) {
+                    all = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * @return plats priced from minPrice to maxPrice (inclusive), cheapest first then by id (H2 first on a tie)
+     */
+    public List<Plat> findByPrice(double minPrice, double maxPrice) {
+        if (minPrice > maxPrice) {
+            throw new IllegalArgumentException("minPrice must not exceed maxPrice");
+        }
+        ensureBuilt();
+        boolean h2Enabled = dataSourceConfig.isH2Enabled();
+        PriceIndex.Sorted h2Prices = h2Enabled ? h2.prices.sorted() : PriceIndex.Sorted.EMPTY;
+        PriceIndex.Sorted jsonPrices = dataSourceConfig.isJsonEnabled() ? json.prices.sorted() : PriceIndex.Sorted.EMPTY;
+        int i = h2Prices.from(minPrice);
+        int h2End = h2Prices.to(maxPrice);
+        int j = jsonPrices.from(minPrice);
+        int jsonEnd = jsonPrices.to(maxPrice);
+        List<Plat> plats = new ArrayList<>(Math.max(0, h2End - i) + Math.max(0, jsonEnd - j));
+        // Merge of the two ranges, both already in price order
+        while (i < h2End || j < jsonEnd) {
+            if (j >= jsonEnd || i < h2End && (h2Prices.price(i) < jsonPrices.price(j)
+                    || h2Prices.price(i) == jsonPrices.price(j) && h2Prices.id(i) <= jsonPrices.id(j))) {
+                plats.add(h2.current(h2Prices.plat(i++)));
+            } else {
+                Plat plat = jsonPrices.plat(j++);
+                if (!h2Enabled || !h2.plats.containsKey(plat.getId())) {
+                    plats.add(json.current(plat));
+                }
+            }
+        }
+        return plats;
+    }
+
+    /**
+     * Sets the availability of an H2 plat in the bitmap; every read served from this index sees it at once,
+     * H2 itself is updated later by PlatAvailabilityWriter (see drainDisponible)
+     *
+     * @return the updated plat, empty if the configured strategy serves no H2 plat with this id
+     */
+    public Optional<Plat> setDisponible(Long id, boolean disponible) {
+        ensureBuilt();
+        Plat plat = dataSourceConfig.isH2Enabled() ? h2.plats.get(id) : null;
+        if (plat == null) {
+            return Optional.empty();
+        }
+        if (h2.availability.set(id, disponible)) {
+            flips.incrementAndGet();
+        }
+        return Optional.of(h2.current(plat));
+    }
+
+    /**
+     * @return H2 plats whose availability was set since the last call, with their current value
+     */
+    public Map<Long, Boolean> drainDisponible() {
+        return h2.availability.drain();
+    }
+
+    /**
+     * Hands availabilities back after they could not be written, for the next drain
+     */
+    public void retryDisponible(Collection<Long> platIds) {
+        h2.availability.retry(platIds);
+    }
+
+    /**
+     * @return a number that moves on every change of the plats of the index, for views derived from it (MenuDuJour)
+     */
+    public long getVersion() {
+        ensureBuilt();
+        return changes.get();
+    }
+
+    /**
+     * @return a number that moves on every availability flip, which getVersion does not follow
+     */
+    public long getAvailabilityVersion() {
+        return flips.get();
+    }
+
+    /**
+     * Index the sources once they are seeded, before the views derived from the index
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public synchronized void rebuild() {
+        if (dataSourceConfig.isH2Enabled()) {
+            index(DataSourceStrategy.H2, h2, h2Repository);
+        }
+        if (dataSourceConfig.isJsonEnabled()) {
+            index(DataSourceStrategy.JSON, json, jsonRepository);
+        }
+        built = true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        boolean h2Source = event.getSource() == DataSourceStrategy.H2;
+        SourceIndex index = h2Source ? h2 : json;
+        switch (event.getType()) {
+            case SAVED:
+                index.put(event.getRestaurant());
+                break;
+            case DELETED:
+                index.remove(event.getRestaurantId());
+                break;
+            case RELOADED:
+                index(event.getSource(), index, h2Source ? h2Repository : jsonRepository);
+                break;
+            case UPDATED:
+                // Availability written by PlatAvailabilityWriter, already applied by setDisponible
+                return;
+            default:
+                break;
+        }
+        changed();
+    }
+
+    private void changed() {
+        synchronized (changes) {
+            changes.incrementAndGet();
+            all = null;
+        }
+    }
+
+    private void ensureBuilt() {
+        if (!built) {
+            synchronized (this) {
+                if (!built) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    private void index(DataSourceStrategy source, SourceIndex index, RestaurantRepository repository) {
+        long start = System.nanoTime();
+        SourceIndex loaded = new SourceIndex();
+        repository.streamAll(loaded::put);
+        index.replaceWith(loaded);
+        changed();
+        logger.info("🍽️ Indexed {} plats from {} in {} ms", loaded.plats.size(), source, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static Plat toPlat(com.speed_liv.menu.model.entity.Plat plat) {
+        Plat dto = new Plat(plat.getId(), plat.getName(), plat.getPrice());
+        dto.setDisponible(plat.getDisponible());
+        return dto;
+    }
+
+    /**
+     * Plats ordered by id, the first fromH2 of them from H2, each with its current availability
+     */
+    private final class Listing extends AbstractList<Plat> implements RandomAccess {
+
+        private final List<Plat> plats;
+        private final int fromH2;
+
+        Listing(List<Plat> plats, int fromH2) {
+            this.plats = plats;
+            this.fromH2 = fromH2;
+        }
+
+        @Override
+        public Plat get(int index) {
+            return (index < fromH2 ? h2 : json).current(plats.get(index));
+        }
+
+        @Override
+        public int size() {
+            return plats.size();
+        }
+    }
+
+    /**
+     * Plats of one source, and the plat ids of each restaurant so a restaurant can be re-indexed alone
+     * The plats keep the availability read from the source, the bitmap has the current one
+     */
+    private static final class SourceIndex {
+
+        private final Map<Long, Plat> plats = new ConcurrentHashMap<>();
+        private final Map<Long, Long[]> platIdsByRestaurant = new ConcurrentHashMap<>();
+        private final PriceIndex prices = new PriceIndex();
+        private final PlatAvailability availability = new PlatAvailability();
+
+        synchronized void put(Restaurant restaurant) {
+            remove(restaurant.getId());
+            List<com.speed_liv.menu.model.entity.Plat> restaurantPlats = restaurant.getPlats();
+            if (restaurantPlats == null || restaurantPlats.isEmpty()) {
+                return;
+            }
+            Long[] ids = new Long[restaurantPlats.size()];
+            for (int i = 0; i < ids.length; i++) {
+                Plat plat = toPlat(restaurantPlats.get(i));
+                ids[i] = plat.getId();
+                if (plat.getId() != null) {
+                    Plat previous = plats.put(plat.getId(), plat);
+                    if (previous != null) {
+                        prices.remove(previous);
+                    }
+                    prices.put(plat);
+                    availability.load(plat.getId(), Boolean.TRUE.equals(plat.getDisponible()));
+                }
+            }
+            platIdsByRestaurant.put(restaurant.getId(), ids);
+        }
+
+        synchronized void remove(Long restaurantId) {
+            Long[] ids = platIdsByRestaurant.remove(restaurantId);
+            if (ids != null) {
+                for (Long id : ids) {
+                    Plat plat = id != null ? plats.remove(id) : null;
+                    if (plat != null) {
+                        prices.remove(plat);
+                    }
+                }
+            }
+        }
+
+        synchronized void replaceWith(SourceIndex loaded) {
+            plats.keySet().retainAll(loaded.plats.keySet());
+            plats.putAll(loaded.plats);
+            platIdsByRestaurant.clear();
+            platIdsByRestaurant.putAll(loaded.platIdsByRestaurant);
+            prices.replaceWith(loaded.prices);
+            for (Plat plat : loaded.plats.values()) {
+                availability.load(plat.getId(), Boolean.TRUE.equals(plat.getDisponible()));
+            }
+        }
+
+        /**
+         * @return the plat as indexed, or a copy with the availability of the bitmap when it was flipped since
+         */
+        Plat current(Plat plat) {
+            if (plat == null) {
+                return null;
+            }
+            boolean disponible = availability.isAvailable(plat.getId());
+            if (disponible == Boolean.TRUE.equals(plat.getDisponible())) {
+                return plat;
+            }
+            // Plats handed out are shared (listings, price index): copy, never modify
+            Plat flipped = new Plat(plat.getId(), plat.getName(), plat.getPrice());
+            flipped.setDisponible(disponible);
+            return flipped;
+        }
+
+        List<Plat> sorted() {
+            List<Plat> sorted = new ArrayList<>(plats.values());
+            sorted.sort(Comparator.comparing(Plat::getId));
+            return sorted;
+        }
+    }
+}
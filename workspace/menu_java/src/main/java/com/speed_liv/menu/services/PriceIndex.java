@@ -0,0 +1,190 @@
+package com.speed_liv.menu.services;
+
+import com.speed_liv.menu.model.Plat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plats of one source sorted by price (then id), in primitive arrays searched by bisection
+ * A price range costs two binary searches plus the plats it returns, without unboxing any price
+ *
+ * Changes are buffered and applied by the next read in a single merge of the sorted changes into a new copy
+ * of the arrays: a batch of writes costs one linear pass, not a sort per write. Readers never see partial arrays
+ */
+final class PriceIndex {
+
+    private static final Comparator<Plat> ORDER = Comparator.comparingDouble(Plat::getPrice).thenComparingLong(Plat::getId);
+
+    private volatile Sorted sorted = Sorted.EMPTY;
+
+    // Waiting for the next merge; a plat is in added or in removed, never in both
+    private final Map<Long, Plat> added = new HashMap<>();
+    private final List<Plat> removed = new ArrayList<>();
+    private volatile boolean pending;
+
+    /**
+     * Adds a plat whose id is not indexed (remove the previous version first); plats without a price are left out
+     */
+    synchronized void put(Plat plat) {
+        if (plat.getId() != null && plat.getPrice() != null) {
+            added.put(plat.getId(), plat);
+            pending = true;
+        }
+    }
+
+    /**
+     * Removes the plat as it was put
+     */
+    synchronized void remove(Plat plat) {
+        if (plat.getId() == null || plat.getPrice() == null) {
+            return;
+        }
+        if (added.remove(plat.getId()) == null) {
+            removed.add(plat);
+        }
+        pending = true;
+    }
+
+    synchronized void replaceWith(PriceIndex loaded) {
+        sorted = loaded.sorted();
+        added.clear();
+        removed.clear();
+        pending = false;
+    }
+
+    /**
+     * @return the arrays with every change made so far
+     */
+    Sorted sorted() {
+        if (!pending) {
+            return sorted;
+        }
+        synchronized (this) {
+            if (pending) {
+                sorted = merge(sorted);
+                added.clear();
+                removed.clear();
+                pending = false;
+            }
+            return sorted;
+        }
+    }
+
+    private Sorted merge(Sorted base) {
+        List<Plat> additions = new ArrayList<>(added.values());
+        additions.sort(ORDER);
+        removed.sort(ORDER);
+        int capacity = base.size + additions.size();
+        double[] prices = new double[capacity];
+        long[] ids = new long[capacity];
+        Plat[] plats = new Plat[capacity];
+        int size = 0;
+        int next = 0;
+        int nextRemoved = 0;
+        for (int i = 0; i < base.size; i++) {
+            // Both lists follow the order of the arrays: a removed plat is met at its position
+            while (nextRemoved < removed.size() && compare(removed.get(nextRemoved), base.prices[i], base.ids[i]) < 0) {
+                nextRemoved++;
+            }
+            if (nextRemoved < removed.size() && compare(removed.get(nextRemoved), base.prices[i], base.ids[i]) == 0) {
+                nextRemoved++;
+                continue;
+            }
+            while (next < additions.size() && compare(additions.get(next), base.prices[i], base.ids[i]) < 0) {
+                Plat plat = additions.get(next++);
+                prices[size] = plat.getPrice();
+                ids[size] = plat.getId();
+                plats[size++] = plat;
+            }
+            prices[size] = base.prices[i];
+            ids[size] = base.ids[i];
+            plats[size++] = base.plats[i];
+        }
+        while (next < additions.size()) {
+            Plat plat = additions.get(next++);
+            prices[size] = plat.getPrice();
+            ids[size] = plat.getId();
+            plats[size++] = plat;
+        }
+        return new Sorted(prices, ids, plats, size);
+    }
+
+    private static int compare(Plat plat, double price, long id) {
+        int byPrice = Double.compare(plat.getPrice(), price);
+        return byPrice != 0 ? byPrice : Long.compare(plat.getId(), id);
+    }
+
+    /**
+     * Immutable arrays of one version of the index
+     */
+    static final class Sorted {
+
+        static final Sorted EMPTY = new Sorted(new double[0], new long[0], new Plat[0], 0);
+
+        private final double[] prices;
+        private final long[] ids;
+        private final Plat[] plats;
+        private final int size;
+
+        private Sorted(double[] prices, long[] ids, Plat[] plats, int size) {
+            this.prices = prices;
+            this.ids = ids;
+            this.plats = plats;
+            this.size = size;
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * @return position of the first plat costing at least price
+         */
+        int from(double price) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (prices[middle] < price) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * @return position after the last plat costing at most price
+         */
+        int to(double price) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (prices[middle] <= price) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        double price(int position) {
+            return prices[position];
+        }
+
+        long id(int position) {
+            return ids[position];
+        }
+
+        Plat plat(int position) {
+            return plats[position];
+        }
+    }
+}
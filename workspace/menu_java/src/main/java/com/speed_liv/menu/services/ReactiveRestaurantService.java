@@ -0,0 +1,84 @@
+package com.speed_liv.menu.services;
+
+import com.speed_liv.menu.config.DataSourceConfig;
+import com.speed_liv.menu.model.RestaurantSummary;
+import com.speed_liv.menu.model.entity.Restaurant;
+import com.speed_liv.menu.model.repository.ReactiveRestaurantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive reads of restaurants using the configured strategy (Application Layer in Hexagonal Architecture)
+ * Same content and order as RestaurantService: BOTH lists H2 first, then JSON, and H2 wins on findById
+ */
+@Service
+public class ReactiveRestaurantService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveRestaurantService.class);
+
+    private final ReactiveRestaurantRepository h2Repository;
+    private final ReactiveRestaurantRepository jsonRepository;
+    private final DataSourceConfig dataSourceConfig;
+
+    @Autowired
+    public ReactiveRestaurantService(
+            @Qualifier("h2ReactiveRestaurantRepository") ReactiveRestaurantRepository h2Repository,
+            @Qualifier("jsonReactiveRestaurantRepository") ReactiveRestaurantRepository jsonRepository,
+            DataSourceConfig dataSourceConfig) {
+        this.h2Repository = h2Repository;
+        this.jsonRepository = jsonRepository;
+        this.dataSourceConfig = dataSourceConfig;
+    }
+
+    /**
+     * All restaurants, read as the subscriber requests them
+     */
+    public Flux<Restaurant> getAllRestaurants() {
+        logger.debug("🔧 Service: Streaming all restaurants reactively using strategy: {}", dataSourceConfig.getStrategy());
+        switch (dataSourceConfig.getStrategy()) {
+            case JSON:
+                return jsonRepository.findAll();
+            case BOTH:
+                // JSON is only read once H2 is done
+                return h2Repository.findAll().concatWith(jsonRepository.findAll());
+            case H2:
+            default:
+                return h2Repository.findAll();
+        }
+    }
+
+    /**
+     * Id and name of all restaurants, without their plats
+     */
+    public Flux<RestaurantSummary> getAllRestaurantSummaries() {
+        switch (dataSourceConfig.getStrategy()) {
+            case JSON:
+                return jsonRepository.findAllSummaries();
+            case BOTH:
+                return h2Repository.findAllSummaries().concatWith(jsonRepository.findAllSummaries());
+            case H2:
+            default:
+                return h2Repository.findAllSummaries();
+        }
+    }
+
+    /**
+     * @return the restaurant, or an empty Mono if no configured source has it
+     */
+    public Mono<Restaurant> getRestaurantById(Long id) {
+        switch (dataSourceConfig.getStrategy()) {
+            case JSON:
+                return jsonRepository.findById(id);
+            case BOTH:
+                return h2Repository.findById(id).switchIfEmpty(jsonRepository.findById(id));
+            case H2:
+            default:
+                return h2Repository.findById(id);
+        }
+    }
+}
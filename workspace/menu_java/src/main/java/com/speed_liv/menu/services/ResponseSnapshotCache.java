@@ -0,0 +1,332 @@
+package com.speed_liv.menu.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.speed_liv.menu.config.DataSourceConfig;
+import com.speed_liv.menu.config.DataSourceStrategy;
+import com.speed_liv.menu.infrastructure.diagnostics.RequestTrace;
+import com.speed_liv.menu.model.entity.Restaurant;
+import com.speed_liv.menu.model.event.CatalogChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized JSON of the restaurant listing and of single restaurants, ready to be written to the response
+ * Each snapshot is tagged with the ETag read before its data, so a snapshot is reused until a write bumps
+ * {@link CatalogVersion}: in between, requests cost neither a repository read nor a Jackson pass
+ *
+ * The listing is rebuilt by the first request after a change, incrementally: H2 restaurants are kept
+ * serialized one by one and only those changed since the last build go through Jackson again, the JSON part
+ * is reused as one block until the file is reloaded. Single restaurants are dropped one by one as they are
+ * saved or deleted, the others stay cached
+ *
+ * A listing missing a data source (BOTH, one source timed out) is not the catalog of its version: it gets
+ * an ETag of its own and is kept one second only, enough to spare a burst of requests the wait
+ */
+@Component
+public class ResponseSnapshotCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseSnapshotCache.class);
+
+    static final String PARTIAL = "partial";
+
+    private final RestaurantService restaurantService;
+    private final CatalogVersion catalogVersion;
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, Snapshot> restaurants;
+    private final Timer catalogSerialization;
+    private final Timer restaurantSerialization;
+
+    private volatile Snapshot catalog;
+    long partialTtlNanos = TimeUnit.SECONDS.toNanos(1);
+
+    // Pieces of the last complete listing, only touched under the rebuild lock
+    private Map<Long, byte[]> h2Fragments = Collections.emptyMap();
+    private byte[] jsonPart;
+    // What was changed since they were serialized
+    private final Set<Long> dirtyH2 = ConcurrentHashMap.newKeySet();
+    private volatile boolean jsonDirty;
+    private volatile boolean h2Dirty;
+
+    @Autowired
+    public ResponseSnapshotCache(RestaurantService restaurantService, CatalogVersion catalogVersion,
+                                 ObjectMapper objectMapper, DataSourceConfig dataSourceConfig, MeterRegistry meterRegistry) {
+        this.restaurantService = restaurantService;
+        this.catalogVersion = catalogVersion;
+        this.objectMapper = objectMapper;
+        DataSourceConfig.RepositoryCache settings = dataSourceConfig.getResponseCache();
+        this.restaurants = Caffeine.newBuilder()
+                .maximumSize(settings.getMaximumSize())
+                .expireAfterWrite(settings.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, restaurants, "responses.restaurant");
+        this.catalogSerialization = serializationTimer(meterRegistry, "catalog");
+        this.restaurantSerialization = serializationTimer(meterRegistry, "restaurant");
+    }
+
+    private static Timer serializationTimer(MeterRegistry meterRegistry, String body) {
+        return Timer.builder("menu.serialization")
+                .description("Time spent serializing response bodies to JSON")
+                .tag("writer", "response-snapshot")
+                .tag("body", body)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the serialized list of all restaurants (same bytes as Jackson would write for getAllRestaurants)
+     */
+    public Snapshot catalog() {
+        String eTag = catalogVersion.catalogETag();
+        Snapshot current = catalog;
+        if (current != null && current.isFor(eTag)) {
+            return current;
+        }
+        synchronized (this) {
+            // Concurrent requests after a change wait for a single rebuild
+            eTag = catalogVersion.catalogETag();
+            current = catalog;
+            if (current == null || !current.isFor(eTag)) {
+                current = rebuildCatalog(eTag);
+                catalog = current;
+            }
+            return current;
+        }
+    }
+
+    private Snapshot rebuildCatalog(String eTag) {
+        long start = System.nanoTime();
+        Set<Long> dirty = new HashSet<>(dirtyH2);
+        dirtyH2.removeAll(dirty);
+        boolean jsonStale = jsonDirty;
+        jsonDirty = false;
+        boolean h2Stale = h2Dirty;
+        h2Dirty = false;
+        Map<Long, byte[]> previous = h2Stale ? Collections.emptyMap() : h2Fragments;
+
+        RestaurantListing listing = restaurantService.readAllRestaurants();
+        long serializationStart = System.nanoTime();
+        Map<Long, byte[]> fragments = new HashMap<>(listing.getFromH2().size() * 4 / 3 + 1);
+        List<byte[]> parts = new ArrayList<>(listing.getFromH2().size() + 1);
+        int reused = 0;
+        for (Restaurant restaurant : listing.getFromH2()) {
+            byte[] fragment = dirty.contains(restaurant.getId()) ? null : previous.get(restaurant.getId());
+            if (fragment == null) {
+                fragment = write(restaurant);
+            } else {
+                reused++;
+            }
+            fragments.put(restaurant.getId(), fragment);
+            parts.add(fragment);
+        }
+        byte[] json = null;
+        if (!listing.getFromJson().isEmpty()) {
+            json = jsonStale || jsonPart == null ? unwrap(write(listing.getFromJson())) : jsonPart;
+            parts.add(json);
+        }
+        byte[] body = join(parts);
+        long elapsed = System.nanoTime() - serializationStart;
+        catalogSerialization.record(elapsed, TimeUnit.NANOSECONDS);
+        RequestTrace.addSerialization(elapsed);
+
+        if (!listing.isComplete()) {
+            // Keep the pieces of the last complete listing, the missing source will be back
+            dirtyH2.addAll(dirty);
+            jsonDirty |= jsonStale;
+            h2Dirty |= h2Stale;
+            logger.warn("⚠️ Catalog snapshot {} is partial: {} bytes, kept {} ms", eTag, body.length,
+                    TimeUnit.NANOSECONDS.toMillis(partialTtlNanos));
+            return new Snapshot(eTag, CatalogVersion.variant(eTag, PARTIAL), body, System.nanoTime() + partialTtlNanos);
+        }
+        h2Fragments = fragments;
+        jsonPart = json;
+        logger.info("📦 Catalog snapshot {} rebuilt: {} bytes in {} ms ({} of {} H2 restaurants reused)", eTag,
+                body.length, (System.nanoTime() - start) / 1_000_000, reused, listing.getFromH2().size());
+        return new Snapshot(eTag, body);
+    }
+
+    /**
+     * Strips the brackets of a serialized array, leaving its elements
+     */
+    private static byte[] unwrap(byte[] array) {
+        return Arrays.copyOfRange(array, 1, array.length - 1);
+    }
+
+    private static byte[] join(List<byte[]> parts) {
+        int length = 2;
+        for (byte[] part : parts) {
+            length += part.length + 1;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(length);
+        out.write('[');
+        boolean first = true;
+        for (byte[] part : parts) {
+            if (part.length == 0) {
+                continue;
+            }
+            if (!first) {
+                out.write(',');
+            }
+            out.write(part, 0, part.length);
+            first = false;
+        }
+        out.write(']');
+        return out.toByteArray();
+    }
+
+    /**
+     * @return the serialized restaurant, empty if no data source has it
+     */
+    public Optional<Snapshot> restaurant(Long id) {
+        String eTag = catalogVersion.restaurantETag(id);
+        Snapshot current = restaurants.getIfPresent(id);
+        if (current != null && current.eTag.equals(eTag)) {
+            return Optional.of(current);
+        }
+        Optional<Snapshot> snapshot = restaurantService.getRestaurantById(id)
+                .map(restaurant -> new Snapshot(eTag, serialize(restaurantSerialization, restaurant)));
+        snapshot.ifPresent(value -> restaurants.put(id, value));
+        return snapshot;
+    }
+
+    /**
+     * Frees what a committed write made stale; stale snapshots would be refused anyway, their ETag
+     * no longer matching CatalogVersion
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getType() == CatalogChangedEvent.Type.RELOADED && event.getSource() == DataSourceStrategy.JSON) {
+            // The H2 fragments still hold
+            catalog = null;
+            jsonDirty = true;
+            restaurants.invalidateAll();
+        } else if (event.getType() == CatalogChangedEvent.Type.RELOADED) {
+            invalidateAll();
+        } else {
+            catalog = null;
+            restaurants.invalidate(event.getRestaurantId());
+            if (event.getSource() == DataSourceStrategy.JSON) {
+                jsonDirty = true;
+            } else {
+                dirtyH2.add(event.getRestaurantId());
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        catalog = null;
+        jsonDirty = true;
+        // A reload can touch any H2 row: serialize them all again
+        h2Dirty = true;
+        restaurants.invalidateAll();
+    }
+
+    private byte[] serialize(Timer timer, Object value) {
+        long start = System.nanoTime();
+        try {
+            return write(value);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            timer.record(elapsed, TimeUnit.NANOSECONDS);
+            RequestTrace.addSerialization(elapsed);
+        }
+    }
+
+    private byte[] write(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize restaurant response", e);
+        }
+    }
+
+    /**
+     * Immutable JSON body with its ETag; the gzip variant is computed on first use
+     */
+    public static final class Snapshot {
+
+        private final String version;
+        private final String eTag;
+        private final byte[] json;
+        private final long expiresAt;
+        private volatile byte[] gzip;
+
+        Snapshot(String eTag, byte[] json) {
+            this(eTag, eTag, json, 0);
+        }
+
+        /**
+         * @param version the catalog ETag the data was read at
+         * @param expiresAt System.nanoTime() after which the snapshot is rebuilt, 0 for never
+         */
+        Snapshot(String version, String eTag, byte[] json, long expiresAt) {
+            this.version = version;
+            this.eTag = eTag;
+            this.json = json;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isFor(String catalogETag) {
+            return version.equals(catalogETag) && (expiresAt == 0 || System.nanoTime() - expiresAt < 0);
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        /**
+         * @return false when a data source was missing from the listing
+         */
+        public boolean isComplete() {
+            return version.equals(eTag);
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        public byte[] getGzip() {
+            byte[] compressed = gzip;
+            if (compressed == null) {
+                // Racing threads compute the same bytes, no lock needed
+                compressed = compress(json);
+                gzip = compressed;
+            }
+            return compressed;
+        }
+
+        private static byte[] compress(byte[] json) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+            try (GZIPOutputStream out = new GZIPOutputStream(buffer, 8192)) {
+                out.write(json);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return buffer.toByteArray();
+        }
+    }
+}
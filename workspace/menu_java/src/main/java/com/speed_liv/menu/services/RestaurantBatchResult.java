@@ -0,0 +1,89 @@
+package com.speed_liv.menu.services;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch write: one entry per restaurant of the request, in request order
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RestaurantBatchResult {
+
+    public enum Status {
+        SAVED,
+        // Rejected before reaching the database
+        INVALID,
+        // Its chunk was rolled back
+        FAILED
+    }
+
+    private final List<Item> items;
+    // Set when the body could not be read to the end; the items before it were still processed
+    private final String error;
+
+    public RestaurantBatchResult(List<Item> items, String error) {
+        this.items = items;
+        this.error = error;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public boolean isComplete() {
+        return error == null;
+    }
+
+    public long getSaved() {
+        return count(Status.SAVED);
+    }
+
+    public long getInvalid() {
+        return count(Status.INVALID);
+    }
+
+    public long getFailed() {
+        return count(Status.FAILED);
+    }
+
+    private long count(Status status) {
+        return items.stream().filter(item -> item.getStatus() == status).count();
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Item {
+
+        private final int index;
+        private final Long id;
+        private final Status status;
+        private final String error;
+
+        public Item(int index, Long id, Status status, String error) {
+            this.index = index;
+            this.id = id;
+            this.status = status;
+            this.error = error;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
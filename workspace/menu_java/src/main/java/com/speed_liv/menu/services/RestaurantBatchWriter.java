@@ -0,0 +1,150 @@
+package com.speed_liv.menu.services;
+
+import com.speed_liv.menu.config.DataSourceConfig;
+import com.speed_liv.menu.model.entity.Plat;
+import com.speed_liv.menu.model.entity.Restaurant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Component;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Writes a sequence of restaurants to H2 in chunks of app.datasource.batch-write.chunk-size
+ * Restaurants are pulled from the iterator as they are needed, so a request body is never held in memory
+ * in full; each chunk is saved in its own transaction through RestaurantService.saveRestaurants
+ */
+@Component
+public class RestaurantBatchWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantBatchWriter.class);
+
+    private final RestaurantService restaurantService;
+    private final Validator validator;
+    private final int chunkSize;
+
+    @Autowired
+    public RestaurantBatchWriter(RestaurantService restaurantService, Validator validator, DataSourceConfig dataSourceConfig) {
+        this.restaurantService = restaurantService;
+        this.validator = validator;
+        this.chunkSize = Math.max(1, dataSourceConfig.getBatchWrite().getChunkSize());
+    }
+
+    /**
+     * Validate and save every restaurant of the sequence
+     * Invalid restaurants are skipped, a chunk that fails is rolled back without affecting the others,
+     * and an error raised by the iterator itself (malformed input) stops the batch after the restaurants read so far
+     */
+    public RestaurantBatchResult write(Iterator<Restaurant> restaurants) {
+        long start = System.nanoTime();
+        List<RestaurantBatchResult.Item> items = new ArrayList<>();
+        Chunk chunk = new Chunk();
+        String error = null;
+        int index = 0;
+        while (true) {
+            Restaurant restaurant;
+            try {
+                if (!restaurants.hasNext()) {
+                    break;
+                }
+                restaurant = restaurants.next();
+            } catch (RuntimeException e) {
+                error = "Unreadable restaurant at index " + index + ": " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                logger.warn("❌ Batch write stopped: {}", error);
+                break;
+            }
+            String violations = validate(restaurant);
+            if (violations != null) {
+                items.add(new RestaurantBatchResult.Item(index, restaurant.getId(), RestaurantBatchResult.Status.INVALID, violations));
+            } else {
+                // Placeholder until the chunk is written, so items stay in request order
+                items.add(null);
+                chunk.add(index, restaurant);
+                if (chunk.size() == chunkSize) {
+                    save(chunk, items);
+                }
+            }
+            index++;
+        }
+        save(chunk, items);
+        logger.info("📦 Batch write of {} restaurants done in {} ms", index, (System.nanoTime() - start) / 1_000_000);
+        return new RestaurantBatchResult(items, error);
+    }
+
+    private void save(Chunk chunk, List<RestaurantBatchResult.Item> items) {
+        if (chunk.size() == 0) {
+            return;
+        }
+        try {
+            List<Restaurant> saved = restaurantService.saveRestaurants(chunk.restaurants);
+            for (int i = 0; i < saved.size(); i++) {
+                items.set(chunk.indexes.get(i), new RestaurantBatchResult.Item(
+                        chunk.indexes.get(i), saved.get(i).getId(), RestaurantBatchResult.Status.SAVED, null));
+            }
+        } catch (RuntimeException e) {
+            String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            logger.warn("❌ Batch chunk of {} restaurants rolled back: {}", chunk.size(), message);
+            for (int i = 0; i < chunk.size(); i++) {
+                items.set(chunk.indexes.get(i), new RestaurantBatchResult.Item(
+                        chunk.indexes.get(i), chunk.requestedIds.get(i), RestaurantBatchResult.Status.FAILED, message));
+            }
+        }
+        chunk.clear();
+    }
+
+    /**
+     * @return the constraint violations of the restaurant and its plats, or null when it is valid
+     */
+    private String validate(Restaurant restaurant) {
+        StringJoiner violations = new StringJoiner(", ");
+        addViolations(violations, "", validator.validate(restaurant));
+        List<Plat> plats = restaurant.getPlats();
+        if (plats != null) {
+            for (int i = 0; i < plats.size(); i++) {
+                addViolations(violations, "plats[" + i + "].", validator.validate(plats.get(i)));
+            }
+        }
+        return violations.length() == 0 ? null : violations.toString();
+    }
+
+    private static <T> void addViolations(StringJoiner violations, String prefix, Set<ConstraintViolation<T>> found) {
+        for (ConstraintViolation<T> violation : found) {
+            violations.add(prefix + violation.getPropertyPath() + " " + violation.getMessage());
+        }
+    }
+
+    /**
+     * Restaurants waiting to be written, with their position in the request
+     */
+    private static class Chunk {
+
+        private final List<Integer> indexes = new ArrayList<>();
+        // Ids as sent: saving assigns ids to new restaurants even when the transaction is then rolled back
+        private final List<Long> requestedIds = new ArrayList<>();
+        private final List<Restaurant> restaurants = new ArrayList<>();
+
+        void add(int index, Restaurant restaurant) {
+            indexes.add(index);
+            requestedIds.add(restaurant.getId());
+            restaurants.add(restaurant);
+        }
+
+        int size() {
+            return restaurants.size();
+        }
+
+        void clear() {
+            indexes.clear();
+            requestedIds.clear();
+            restaurants.clear();
+        }
+    }
+}
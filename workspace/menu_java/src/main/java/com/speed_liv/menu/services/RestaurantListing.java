@@ -0,0 +1,52 @@
+package com.speed_liv.menu.services;
+
+import com.speed_liv.menu.model.entity.Restaurant;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * All restaurants, split by data source, and whether every source of the strategy answered
+ * An incomplete listing (BOTH with one source timed out or failing) must not be cached as the catalog
+ */
+public class RestaurantListing {
+
+    private final List<Restaurant> fromH2;
+    private final List<Restaurant> fromJson;
+    private final boolean complete;
+
+    public RestaurantListing(List<Restaurant> fromH2, List<Restaurant> fromJson, boolean complete) {
+        this.fromH2 = fromH2 != null ? fromH2 : Collections.emptyList();
+        this.fromJson = fromJson != null ? fromJson : Collections.emptyList();
+        this.complete = complete;
+    }
+
+    public List<Restaurant> getFromH2() {
+        return fromH2;
+    }
+
+    public List<Restaurant> getFromJson() {
+        return fromJson;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * @return H2 restaurants first, then JSON ones
+     */
+    public List<Restaurant> getRestaurants() {
+        if (fromJson.isEmpty()) {
+            return fromH2;
+        }
+        if (fromH2.isEmpty()) {
+            return fromJson;
+        }
+        List<Restaurant> combined = new ArrayList<>(fromH2.size() + fromJson.size());
+        combined.addAll(fromH2);
+        combined.addAll(fromJson);
+        return combined;
+    }
+}
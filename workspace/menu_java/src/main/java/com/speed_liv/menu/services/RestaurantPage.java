@@ -0,0 +1,31 @@
+package com.speed_liv.menu.services;
+
+import com.speed_liv.menu.model.entity.Restaurant;
+
+import java.util.List;
+
+/**
+ * One page of restaurants and the opaque cursor of the next page (null on the last page)
+ */
+public class RestaurantPage {
+
+    private final List<Restaurant> restaurants;
+    private final String nextCursor;
+
+    public RestaurantPage(List<Restaurant> restaurants, String nextCursor) {
+        this.restaurants = restaurants;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Restaurant> getRestaurants() {
+        return restaurants;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -2,18 +2,27 @@ package com.speed_liv.menu.services;
 
 import com.speed_liv.menu.config.DataSourceConfig;
 import com.speed_liv.menu.config.DataSourceStrategy;
+import com.speed_liv.menu.model.RestaurantSummary;
 import com.speed_liv.menu.model.entity.Restaurant;
+import com.speed_liv.menu.model.event.CatalogChangedEvent;
 import com.speed_liv.menu.model.repository.RestaurantRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Service layer for Restaurant business logic (Application Layer in Hexagonal Architecture)
@@ -24,19 +33,28 @@ import java.util.Optional;
 public class RestaurantService {
 
     private static final Logger logger = LoggerFactory.getLogger(RestaurantService.class);
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
     
     private final RestaurantRepository h2Repository;
     private final RestaurantRepository jsonRepository;
     private final DataSourceConfig dataSourceConfig;
+    private final DataSourceFanOut fanOut;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public RestaurantService(
-            @Qualifier("h2RestaurantAdapter") RestaurantRepository h2Repository,
-            @Qualifier("jsonRestaurantAdapter") RestaurantRepository jsonRepository,
-            DataSourceConfig dataSourceConfig) {
+            @Qualifier("h2RestaurantRepository") RestaurantRepository h2Repository,
+            @Qualifier("jsonRestaurantRepository") RestaurantRepository jsonRepository,
+            DataSourceConfig dataSourceConfig,
+            DataSourceFanOut fanOut,
+            ApplicationEventPublisher eventPublisher) {
         this.h2Repository = h2Repository;
         this.jsonRepository = jsonRepository;
         this.dataSourceConfig = dataSourceConfig;
+        this.fanOut = fanOut;
+        this.eventPublisher = eventPublisher;
         
         logger.info("🔧 RestaurantService initialized with strategy: {}", dataSourceConfig.getStrategy());
     }
@@ -49,37 +67,146 @@ public class RestaurantService {
      */
     @Transactional(readOnly = true)
     public List<Restaurant> getAllRestaurants() {
+        return readAllRestaurants().getRestaurants();
+    }
+
+    /**
+     * Get all restaurants using configured strategy, kept apart by data source
+     * Tells whether the read is complete: with BOTH, a source that failed or timed out is left out
+     */
+    @Transactional(readOnly = true)
+    public RestaurantListing readAllRestaurants() {
         DataSourceStrategy strategy = dataSourceConfig.getStrategy();
-        logger.info("🔧 Service: Getting all restaurants using strategy: {}", strategy);
+        logger.debug("🔧 Service: Getting all restaurants using strategy: {}", strategy);
         
         switch (strategy) {
             case JSON:
-                return jsonRepository.findAll();
+                return new RestaurantListing(null, jsonRepository.findAll(), true);
+            case BOTH:
+                return getAllRestaurantsFromBoth();
             case H2:
-                return h2Repository.findAll();
+            default:
+                return new RestaurantListing(h2Repository.findAll(), null, true);
+        }
+    }
+
+    /**
+     * Get id and name of all restaurants using configured strategy, without their plats
+     * Same order as getAllRestaurants; meant for list views
+     */
+    @Transactional(readOnly = true)
+    public List<RestaurantSummary> getAllRestaurantSummaries() {
+        DataSourceStrategy strategy = dataSourceConfig.getStrategy();
+        logger.debug("🔧 Service: Getting all restaurant summaries using strategy: {}", strategy);
+
+        switch (strategy) {
+            case JSON:
+                return jsonRepository.findAllSummaries();
             case BOTH:
-                // Combine both data sources
-                List<Restaurant> combined = new ArrayList<>();
-                combined.addAll(h2Repository.findAll());
-                combined.addAll(jsonRepository.findAll());
-                logger.info("📊 Returning combined data: {} from H2 + {} from JSON = {} total",
-                        h2Repository.findAll().size(),
-                        jsonRepository.findAll().size(),
-                        combined.size());
+                // JSON is in memory, no need to fan out for a single light query
+                List<RestaurantSummary> combined = new ArrayList<>(h2Repository.findAllSummaries());
+                combined.addAll(jsonRepository.findAllSummaries());
                 return combined;
+            case H2:
+            default:
+                return h2Repository.findAllSummaries();
+        }
+    }
+
+    /**
+     * Stream all restaurants to the consumer, one at a time, using configured strategy
+     * Same content and order as getAllRestaurants, but the catalog is never held in memory
+     */
+    @Transactional(readOnly = true)
+    public void streamAllRestaurants(Consumer<? super Restaurant> consumer) {
+        DataSourceStrategy strategy = dataSourceConfig.getStrategy();
+        logger.debug("🔧 Service: Streaming all restaurants using strategy: {}", strategy);
+
+        switch (strategy) {
+            case JSON:
+                jsonRepository.streamAll(consumer);
+                break;
+            case BOTH:
+                h2Repository.streamAll(consumer);
+                jsonRepository.streamAll(consumer);
+                break;
+            case H2:
+            default:
+                h2Repository.streamAll(consumer);
+        }
+    }
+
+    /**
+     * Get one page of restaurants using configured strategy (keyset pagination)
+     * Restaurants are ordered by id within each source; BOTH lists H2 first, then JSON
+     * @param cursor token returned with the previous page, null for the first page
+     * @param limit page size, capped to MAX_PAGE_SIZE
+     * @throws IllegalArgumentException if the cursor is invalid for the current strategy
+     */
+    @Transactional(readOnly = true)
+    public RestaurantPage getRestaurantPage(String cursor, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        int pageSize = Math.min(limit, MAX_PAGE_SIZE);
+        List<DataSourceStrategy> sources = pagedSources();
+        logger.debug("🔧 Service: Getting {} restaurants from {} using strategy: {}", pageSize, sources, dataSourceConfig.getStrategy());
+
+        int sourceIndex = 0;
+        Long afterId = null;
+        if (cursor != null) {
+            PageCursor position = PageCursor.decode(cursor);
+            sourceIndex = sources.indexOf(position.getSource());
+            if (sourceIndex < 0) {
+                throw new IllegalArgumentException("Cursor does not match strategy " + dataSourceConfig.getStrategy());
+            }
+            afterId = position.getAfterId();
+        }
+
+        List<Restaurant> restaurants = new ArrayList<>(pageSize);
+        for (; sourceIndex < sources.size(); sourceIndex++, afterId = null) {
+            DataSourceStrategy source = sources.get(sourceIndex);
+            int remaining = pageSize - restaurants.size();
+            // Ask for one more to know whether this source has a next page
+            List<Restaurant> fetched = repositoryFor(source).findPage(afterId, remaining + 1);
+            if (fetched.size() > remaining) {
+                restaurants.addAll(fetched.subList(0, remaining));
+                Long lastId = restaurants.get(restaurants.size() - 1).getId();
+                return new RestaurantPage(restaurants, new PageCursor(source, lastId).encode());
+            }
+            restaurants.addAll(fetched);
+            if (restaurants.size() == pageSize && sourceIndex + 1 < sources.size()) {
+                return new RestaurantPage(restaurants, new PageCursor(sources.get(sourceIndex + 1), null).encode());
+            }
+        }
+        return new RestaurantPage(restaurants, null);
+    }
+
+    private List<DataSourceStrategy> pagedSources() {
+        switch (dataSourceConfig.getStrategy()) {
+            case JSON:
+                return Collections.singletonList(DataSourceStrategy.JSON);
+            case BOTH:
+                return Arrays.asList(DataSourceStrategy.H2, DataSourceStrategy.JSON);
+            case H2:
             default:
-                return h2Repository.findAll();
+                return Collections.singletonList(DataSourceStrategy.H2);
         }
     }
 
+    private RestaurantRepository repositoryFor(DataSourceStrategy source) {
+        return source == DataSourceStrategy.JSON ? jsonRepository : h2Repository;
+    }
+
     /**
      * Get restaurant by ID using configured strategy
      * Frontend calls this - backend decides which data source to use
+     * No transaction is opened here, so a cache hit never touches Hibernate
      */
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Optional<Restaurant> getRestaurantById(Long id) {
         DataSourceStrategy strategy = dataSourceConfig.getStrategy();
-        logger.info("🔧 Service: Getting restaurant {} using strategy: {}", id, strategy);
+        logger.debug("🔧 Service: Getting restaurant {} using strategy: {}", id, strategy);
         
         switch (strategy) {
             case JSON:
@@ -87,19 +214,53 @@ public class RestaurantService {
             case H2:
                 return h2Repository.findById(id);
             case BOTH:
-                // Try H2 first, then JSON
-                Optional<Restaurant> fromH2 = h2Repository.findById(id);
-                if (fromH2.isPresent()) {
-                    logger.info("📊 Found restaurant {} in H2", id);
-                    return fromH2;
-                }
-                logger.info("📊 Restaurant {} not in H2, checking JSON", id);
-                return jsonRepository.findById(id);
+                return getRestaurantByIdFromBoth(id);
             default:
                 return h2Repository.findById(id);
         }
     }
 
+    /**
+     * BOTH strategy: read H2 and JSON concurrently, each exactly once
+     * A source that fails or times out is skipped (partial result)
+     */
+    private RestaurantListing getAllRestaurantsFromBoth() {
+        CompletableFuture<List<Restaurant>> h2Read = fanOut.submitQuery(h2Repository::findAll);
+        CompletableFuture<List<Restaurant>> jsonRead = fanOut.submit(jsonRepository::findAll);
+        long deadline = fanOut.deadline();
+
+        Optional<List<Restaurant>> fromH2 = fanOut.await("H2", h2Read, deadline);
+        Optional<List<Restaurant>> fromJson = fanOut.await("JSON", jsonRead, deadline);
+        if (!fromH2.isPresent() && !fromJson.isPresent()) {
+            throw new IllegalStateException("Neither H2 nor JSON answered");
+        }
+
+        // Combine both data sources, H2 first
+        RestaurantListing listing = new RestaurantListing(fromH2.orElse(null), fromJson.orElse(null),
+                fromH2.isPresent() && fromJson.isPresent());
+        logger.debug("📊 Returning combined data: {} from H2 + {} from JSON{}",
+                listing.getFromH2().size(), listing.getFromJson().size(), listing.isComplete() ? "" : " (partial)");
+        return listing;
+    }
+
+    /**
+     * BOTH strategy: look the id up in H2 and JSON concurrently, H2 wins when both have it
+     */
+    private Optional<Restaurant> getRestaurantByIdFromBoth(Long id) {
+        CompletableFuture<Optional<Restaurant>> h2Read = fanOut.submitQuery(() -> h2Repository.findById(id));
+        CompletableFuture<Optional<Restaurant>> jsonRead = fanOut.submit(() -> jsonRepository.findById(id));
+        long deadline = fanOut.deadline();
+
+        Optional<Restaurant> fromH2 = fanOut.await("H2", h2Read, deadline).orElse(Optional.empty());
+        if (fromH2.isPresent()) {
+            jsonRead.cancel(false);
+            logger.debug("📊 Found restaurant {} in H2", id);
+            return fromH2;
+        }
+        logger.debug("📊 Restaurant {} not in H2, checking JSON", id);
+        return fanOut.await("JSON", jsonRead, deadline).orElse(Optional.empty());
+    }
+
     // ================ JSON-SPECIFIC METHODS ================
 
     /**
@@ -107,7 +268,7 @@ public class RestaurantService {
      */
     @Transactional(readOnly = true)
     public List<Restaurant> getAllRestaurantsFromJson() {
-        logger.info("🔧 Service: Getting all restaurants from JSON file");
+        logger.debug("🔧 Service: Getting all restaurants from JSON file");
         return jsonRepository.findAll();
     }
 
@@ -116,7 +277,7 @@ public class RestaurantService {
      */
     @Transactional(readOnly = true)
     public Optional<Restaurant> getRestaurantByIdFromJson(Long id) {
-        logger.info("🔧 Service: Getting restaurant {} from JSON file", id);
+        logger.debug("🔧 Service: Getting restaurant {} from JSON file", id);
         return jsonRepository.findById(id);
     }
 
@@ -127,7 +288,7 @@ public class RestaurantService {
      */
     @Transactional(readOnly = true)
     public List<Restaurant> getAllRestaurantsFromH2() {
-        logger.info("🔧 Service: Getting all restaurants from H2 database");
+        logger.debug("🔧 Service: Getting all restaurants from H2 database");
         return h2Repository.findAll();
     }
 
@@ -136,7 +297,7 @@ public class RestaurantService {
      */
     @Transactional(readOnly = true)
     public Optional<Restaurant> getRestaurantByIdFromH2(Long id) {
-        logger.info("🔧 Service: Getting restaurant {} from H2 database", id);
+        logger.debug("🔧 Service: Getting restaurant {} from H2 database", id);
         return h2Repository.findById(id);
     }
 
@@ -144,18 +305,47 @@ public class RestaurantService {
 
     /**
      * Save a restaurant to H2 database
+     * Listeners of CatalogChangedEvent are notified once the transaction commits
      */
     public Restaurant saveRestaurant(Restaurant restaurant) {
-        logger.info("🔧 Service: Saving restaurant to H2 database");
-        return h2Repository.save(restaurant);
+        logger.debug("🔧 Service: Saving restaurant to H2 database");
+        Restaurant saved = h2Repository.save(restaurant);
+        eventPublisher.publishEvent(CatalogChangedEvent.saved(DataSourceStrategy.H2, saved));
+        return saved;
+    }
+
+    /**
+     * Save restaurants to H2 database in a single transaction (one chunk of a batch write)
+     * Listeners of CatalogChangedEvent are notified of each restaurant once the transaction commits
+     */
+    public List<Restaurant> saveRestaurants(List<Restaurant> restaurants) {
+        logger.debug("🔧 Service: Saving {} restaurants to H2 database", restaurants.size());
+        List<Restaurant> saved = h2Repository.saveAll(restaurants);
+        for (Restaurant restaurant : saved) {
+            eventPublisher.publishEvent(CatalogChangedEvent.saved(DataSourceStrategy.H2, restaurant));
+        }
+        return saved;
+    }
+
+    /**
+     * Write plat availabilities to H2 database in place, without merging the restaurant graphs
+     * Listeners of CatalogChangedEvent are notified of each restaurant touched once the transaction commits
+     */
+    public void updatePlatAvailability(Map<Long, Boolean> disponible) {
+        logger.debug("🔧 Service: Updating availability of {} plats in H2 database", disponible.size());
+        for (Long restaurantId : h2Repository.updateDisponible(disponible)) {
+            eventPublisher.publishEvent(CatalogChangedEvent.updated(DataSourceStrategy.H2, restaurantId));
+        }
     }
 
     /**
      * Delete a restaurant from H2 database
+     * Listeners of CatalogChangedEvent are notified once the transaction commits
      */
     public void deleteRestaurant(Long id) {
-        logger.info("🔧 Service: Deleting restaurant {} from H2 database", id);
+        logger.debug("🔧 Service: Deleting restaurant {} from H2 database", id);
         h2Repository.deleteById(id);
+        eventPublisher.publishEvent(CatalogChangedEvent.deleted(DataSourceStrategy.H2, id));
     }
 
     /**
@@ -163,7 +353,7 @@ public class RestaurantService {
      */
     @Transactional(readOnly = true)
     public boolean restaurantExists(Long id) {
-        logger.info("🔧 Service: Checking if restaurant {} exists in H2 database", id);
+        logger.debug("🔧 Service: Checking if restaurant {} exists in H2 database", id);
         return h2Repository.existsById(id);
     }
 }
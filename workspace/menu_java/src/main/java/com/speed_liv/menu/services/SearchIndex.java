@@ -0,0 +1,402 @@
+package com.speed_liv.menu.services;
+
+import com.speed_liv.menu.config.DataSourceConfig;
+import com.speed_liv.menu.config.DataSourceStrategy;
+import com.speed_liv.menu.model.SearchHit;
+import com.speed_liv.menu.model.entity.Plat;
+import com.speed_liv.menu.model.entity.Restaurant;
+import com.speed_liv.menu.model.event.CatalogChangedEvent;
+import com.speed_liv.menu.model.repository.RestaurantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Inverted index of restaurant and plat names for GET /search
+ * Names are cut into words, folded to lower case without accents ("Crêpe" is found by "crepe"),
+ * and each word points to the restaurants and plats using it. Words are kept sorted, so the last word
+ * of a query matches as a prefix with a range read: "coq au v" finds "Coq au Vin" while typing
+ *
+ * Built like PlatIndex: each source is read once when the application is ready, then saved, deleted
+ * and reloaded restaurants update their own entries. Reads take no lock
+ */
+@Component
+public class SearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndex.class);
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 100;
+
+    private static final String[] NO_TERMS = new String[0];
+    // Completions of the last word counted before choosing how to answer a query of several words
+    private static final int PREFIX_PROBE = 256;
+
+    private final RestaurantRepository h2Repository;
+    private final RestaurantRepository jsonRepository;
+    private final DataSourceConfig dataSourceConfig;
+    // Replaced as a whole when a source is indexed again
+    private volatile SourceIndex h2 = new SourceIndex();
+    private volatile SourceIndex json = new SourceIndex();
+
+    private volatile boolean built;
+
+    @Autowired
+    public SearchIndex(@Qualifier("h2RestaurantRepository") RestaurantRepository h2Repository,
+                       @Qualifier("jsonRestaurantRepository") RestaurantRepository jsonRepository,
+                       DataSourceConfig dataSourceConfig) {
+        this.h2Repository = h2Repository;
+        this.jsonRepository = jsonRepository;
+        this.dataSourceConfig = dataSourceConfig;
+    }
+
+    /**
+     * Restaurants and plats whose names contain every word of the query, the last one as a prefix
+     * Completions of the last word are walked in alphabetical order ("coq" before "coquille", but
+     * "cocotte" before "coq"), so the walk stops at the limit; the hits of a word are restaurants before
+     * plats, then by id. With BOTH, H2 results come first and hide JSON entries with the same id
+     *
+     * @param limit maximum number of hits, capped to MAX_LIMIT
+     */
+    public List<SearchHit> search(String query, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        String[] terms = terms(query);
+        if (terms.length == 0) {
+            return Collections.emptyList();
+        }
+        ensureBuilt();
+        int max = Math.min(limit, MAX_LIMIT);
+        List<SearchHit> hits = new ArrayList<>(Math.min(max, DEFAULT_LIMIT));
+        SourceIndex h2Index = dataSourceConfig.isH2Enabled() ? h2 : null;
+        if (h2Index != null) {
+            h2Index.search(terms, max, hits, null);
+        }
+        if (dataSourceConfig.isJsonEnabled() && hits.size() < max) {
+            json.search(terms, max, hits, h2Index);
+        }
+        return hits;
+    }
+
+    /**
+     * Index the sources once they are seeded
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public synchronized void rebuild() {
+        if (dataSourceConfig.isH2Enabled()) {
+            h2 = index(DataSourceStrategy.H2, h2Repository);
+        }
+        if (dataSourceConfig.isJsonEnabled()) {
+            json = index(DataSourceStrategy.JSON, jsonRepository);
+        }
+        built = true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCatalogChanged(CatalogChangedEvent event) {
+        boolean h2Source = event.getSource() == DataSourceStrategy.H2;
+        switch (event.getType()) {
+            case SAVED:
+                (h2Source ? h2 : json).put(event.getRestaurant());
+                break;
+            case DELETED:
+                (h2Source ? h2 : json).remove(event.getRestaurantId());
+                break;
+            case RELOADED:
+                if (h2Source) {
+                    h2 = index(event.getSource(), h2Repository);
+                } else {
+                    json = index(event.getSource(), jsonRepository);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void ensureBuilt() {
+        if (!built) {
+            synchronized (this) {
+                if (!built) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    private static SourceIndex index(DataSourceStrategy source, RestaurantRepository repository) {
+        long start = System.nanoTime();
+        SourceIndex loaded = new SourceIndex();
+        repository.streamAll(loaded::put);
+        logger.info("🔎 Indexed {} restaurants, {} plats and {} words from {} for search in {} ms",
+                loaded.restaurants.size(), loaded.plats.size(), loaded.terms.size(), source,
+                (System.nanoTime() - start) / 1_000_000);
+        return loaded;
+    }
+
+    /**
+     * Words of a name or query: lower case, accents removed, split on anything but letters and digits
+     */
+    static String[] terms(String text) {
+        if (text == null || text.isEmpty()) {
+            return NO_TERMS;
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        List<String> terms = new ArrayList<>(4);
+        StringBuilder term = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                appendFolded(term, Character.toLowerCase(c));
+            } else if (term.length() > 0) {
+                terms.add(term.toString());
+                term.setLength(0);
+            }
+        }
+        if (term.length() > 0) {
+            terms.add(term.toString());
+        }
+        return terms.toArray(NO_TERMS);
+    }
+
+    // Ligatures have no decomposition
+    private static void appendFolded(StringBuilder term, char c) {
+        switch (c) {
+            case 'œ':
+                term.append("oe");
+                break;
+            case 'æ':
+                term.append("ae");
+                break;
+            case 'ß':
+                term.append("ss");
+                break;
+            default:
+                term.append(c);
+                break;
+        }
+    }
+
+    /**
+     * A restaurant or plat with the distinct words of its name
+     */
+    private static final class Document {
+
+        // Order of the documents sharing a word
+        static final Comparator<Document> ORDER = Comparator
+                .comparing((Document document) -> document.hit.getType())
+                .thenComparing(document -> document.hit.getId());
+
+        final SearchHit hit;
+        final String[] terms;
+
+        Document(SearchHit hit) {
+            this.hit = hit;
+            this.terms = new LinkedHashSet<>(Arrays.asList(terms(hit.getName()))).toArray(NO_TERMS);
+        }
+
+        boolean matches(String[] query) {
+            for (int i = 0; i < query.length - 1; i++) {
+                if (!contains(query[i])) {
+                    return false;
+                }
+            }
+            String prefix = query[query.length - 1];
+            for (String term : terms) {
+                if (term.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean contains(String word) {
+            for (String term : terms) {
+                if (term.equals(word)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Documents sharing a word; the size is kept apart, the size of a skip list set being a full count
+     */
+    private static final class Postings {
+
+        final ConcurrentSkipListSet<Document> documents = new ConcurrentSkipListSet<>(Document.ORDER);
+        volatile int size;
+    }
+
+    /**
+     * Index of one source. Writes are serialized by SearchIndex, reads go through the concurrent maps
+     */
+    private static final class SourceIndex {
+
+        private final ConcurrentSkipListMap<String, Postings> terms = new ConcurrentSkipListMap<>();
+        private final Map<Long, Document> restaurants = new ConcurrentHashMap<>();
+        private final Map<Long, Document> plats = new ConcurrentHashMap<>();
+        private final Map<Long, Long[]> platIdsByRestaurant = new ConcurrentHashMap<>();
+
+        void put(Restaurant restaurant) {
+            remove(restaurant.getId());
+            if (restaurant.getName() != null) {
+                Document document = new Document(SearchHit.restaurant(restaurant.getId(), restaurant.getName()));
+                restaurants.put(restaurant.getId(), document);
+                add(document);
+            }
+            List<Plat> restaurantPlats = restaurant.getPlats();
+            if (restaurantPlats == null || restaurantPlats.isEmpty()) {
+                return;
+            }
+            Long[] ids = new Long[restaurantPlats.size()];
+            for (int i = 0; i < ids.length; i++) {
+                Plat plat = restaurantPlats.get(i);
+                ids[i] = plat.getId();
+                if (plat.getId() == null || plat.getName() == null) {
+                    continue;
+                }
+                Document document = new Document(SearchHit.plat(plat.getId(), plat.getName(),
+                        restaurant.getId(), restaurant.getName()));
+                Document previous = plats.put(plat.getId(), document);
+                if (previous != null) {
+                    drop(previous);
+                }
+                add(document);
+            }
+            platIdsByRestaurant.put(restaurant.getId(), ids);
+        }
+
+        void remove(Long restaurantId) {
+            Document restaurant = restaurants.remove(restaurantId);
+            if (restaurant != null) {
+                drop(restaurant);
+            }
+            Long[] ids = platIdsByRestaurant.remove(restaurantId);
+            if (ids == null) {
+                return;
+            }
+            for (Long id : ids) {
+                Document plat = id != null ? plats.get(id) : null;
+                // The plat may have moved to another restaurant since
+                if (plat != null && restaurantId.equals(plat.hit.getRestaurantId())) {
+                    plats.remove(id);
+                    drop(plat);
+                }
+            }
+        }
+
+        private void add(Document document) {
+            for (String term : document.terms) {
+                Postings postings = terms.computeIfAbsent(term, key -> new Postings());
+                if (postings.documents.add(document)) {
+                    postings.size++;
+                }
+            }
+        }
+
+        private void drop(Document document) {
+            for (String term : document.terms) {
+                Postings postings = terms.get(term);
+                if (postings != null && postings.documents.remove(document) && --postings.size == 0) {
+                    terms.remove(term);
+                }
+            }
+        }
+
+        boolean hides(SearchHit hit) {
+            return (hit.getType() == SearchHit.Type.RESTAURANT ? restaurants : plats).containsKey(hit.getId());
+        }
+
+        void search(String[] query, int max, List<SearchHit> hits, SourceIndex shadowing) {
+            String prefix = query[query.length - 1];
+            // Walk the rarest whole word and check the other words on each of its documents
+            Postings rarest = null;
+            for (int i = 0; i < query.length - 1; i++) {
+                Postings postings = terms.get(query[i]);
+                if (postings == null) {
+                    return;
+                }
+                if (rarest == null || postings.size < rarest.size) {
+                    rarest = postings;
+                }
+            }
+            if (rarest == null || completionsFewerThan(prefix, rarest.size)) {
+                // Or the completions of the last word, when they are fewer ("ratatouille 9999")
+                searchPrefix(query, prefix, max, hits, shadowing);
+                return;
+            }
+            for (Document document : rarest.documents) {
+                if (document.matches(query) && accept(document, hits, shadowing) && hits.size() >= max) {
+                    return;
+                }
+            }
+        }
+
+        private void searchPrefix(String[] query, String prefix, int max, List<SearchHit> hits, SourceIndex shadowing) {
+            // A name with two words starting with the prefix is listed once
+            Set<Document> seen = new HashSet<>();
+            for (Postings postings : completions(prefix).values()) {
+                for (Document document : postings.documents) {
+                    if (seen.add(document) && document.matches(query) && accept(document, hits, shadowing)
+                            && hits.size() >= max) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Counts the documents of the first PREFIX_PROBE completions at most: a longer range is taken as large
+         */
+        private boolean completionsFewerThan(String prefix, int documents) {
+            int count = 0;
+            int words = 0;
+            for (Postings postings : completions(prefix).values()) {
+                count += postings.size;
+                if (count >= documents || ++words > PREFIX_PROBE) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private Map<String, Postings> completions(String prefix) {
+            return terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        }
+
+        private static boolean accept(Document document, List<SearchHit> hits, SourceIndex shadowing) {
+            if (shadowing != null && shadowing.hides(document.hit)) {
+                return false;
+            }
+            hits.add(document.hit);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.speed_liv.menu.tools;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.speed_liv.menu.infrastructure.persistance.RestaurantJsonReader;
+import com.speed_liv.menu.infrastructure.persistance.RestaurantSnapshotWriter;
+import org.springframework.core.io.FileSystemResourceLoader;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Command line converter from the JSON catalog format to the binary snapshot format
+ * Usage: CatalogSnapshotConverter &lt;input.json&gt; &lt;output.mcat&gt; [&lt;input.json&gt; &lt;output.mcat&gt; ...]
+ * Inputs are file paths or classpath: locations (e.g. classpath:bd/restaurants-h2.json)
+ *
+ * From the packaged application:
+ * java -cp openapi-spring-1.0.0-exec.jar -Dloader.main=com.speed_liv.menu.tools.CatalogSnapshotConverter
+ *      org.springframework.boot.loader.PropertiesLauncher classpath:bd/restaurants.json restaurants.mcat
+ */
+public final class CatalogSnapshotConverter {
+
+    private CatalogSnapshotConverter() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0 || args.length % 2 != 0) {
+            System.err.println("Usage: CatalogSnapshotConverter <input.json> <output.mcat> [<input.json> <output.mcat> ...]");
+            System.exit(2);
+        }
+        FileSystemResourceLoader resourceLoader = new FileSystemResourceLoader();
+        for (int i = 0; i < args.length; i += 2) {
+            convert(resourceLoader.getResource(args[i]), Paths.get(args[i + 1]));
+        }
+    }
+
+    /**
+     * Stream the JSON catalog into a snapshot; the output is written aside and moved in place when complete,
+     * so a watched snapshot is never seen half written
+     */
+    public static long convert(Resource input, Path output) throws IOException {
+        long start = System.nanoTime();
+        Path absolute = output.toAbsolutePath();
+        Path temporary = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        long count;
+        try {
+            try (RestaurantSnapshotWriter writer = RestaurantSnapshotWriter.create(temporary)) {
+                new RestaurantJsonReader(new JsonFactory(), false).read(input, restaurant -> {
+                    try {
+                        writer.write(restaurant);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                count = writer.getRestaurantCount();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        System.out.printf("%s -> %s: %d restaurants, %d bytes in %d ms%n", input.getDescription(), absolute, count,
+                Files.size(absolute), (System.nanoTime() - start) / 1_000_000);
+        return count;
+    }
+}
@@ -0,0 +1,130 @@
+package com.speed_liv.menu.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.speed_liv.menu.model.entity.Restaurant;
+import org.junit.jupiter.api.Test;
+import org.openapitools.OpenApiGeneratorApplication;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /restaurants/events with a buffer of 4 events, so that a client can fall out of it
+ */
+@SpringBootTest(classes = OpenApiGeneratorApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:catalogevents",
+        "app.datasource.strategy=H2",
+        "app.catalog-events.buffer-size=4"
+})
+@AutoConfigureMockMvc
+class CatalogEventsEndpointTest {
+
+    private static final Pattern FIRST_ID = Pattern.compile("id:(\\S+)");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void pushesCommittedChangesAndReplaysThemOnReconnect() throws Exception {
+        MockHttpServletResponse live = subscribe(null);
+        String greetingId = firstId(awaitContent(live, "connected"));
+
+        long id = create("sse");
+
+        awaitContent(live, "event:change\ndata:{\"type\":\"SAVED\",\"source\":\"H2\",\"restaurantId\":" + id + "}");
+        // Reconnecting from the greeting replays the change missed in between
+        awaitContent(subscribe(greetingId), "\"restaurantId\":" + id + "}");
+    }
+
+    @Test
+    void tellsClientsToReloadWhenTheirEventsLeftTheBuffer() throws Exception {
+        String greetingId = firstId(awaitContent(subscribe(null), "connected"));
+        for (int i = 0; i < 5; i++) {
+            create("overflow" + i);
+        }
+
+        String content = awaitContent(subscribe(greetingId), "event:reset");
+        assertFalse(content.contains("event:change"));
+        awaitContent(subscribe("unknown-3"), "event:reset");
+    }
+
+    @Test
+    void pushesABatchChunkAsOneEvent() throws Exception {
+        MockHttpServletResponse live = subscribe(null);
+        String greetingId = firstId(awaitContent(live, "connected"));
+        List<Restaurant> restaurants = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            restaurants.add(new Restaurant(null, "chunk" + i));
+        }
+
+        mockMvc.perform(post("/restaurants/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(restaurants)))
+                .andExpect(status().isOk());
+
+        String content = awaitContent(live, "\"restaurantIds\":[");
+        assertEquals(1, content.split("event:change", -1).length - 1);
+        // One slot of the buffer of 4, not 6: the client still resumes
+        String replayed = awaitContent(subscribe(greetingId), "\"restaurantIds\":[");
+        assertFalse(replayed.contains("event:reset"));
+    }
+
+    private MockHttpServletResponse subscribe(String lastEventId) throws Exception {
+        MvcResult result = mockMvc.perform(lastEventId == null
+                        ? get("/restaurants/events")
+                        : get("/restaurants/events").header("Last-Event-ID", lastEventId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return result.getResponse();
+    }
+
+    private long create(String name) throws Exception {
+        String body = mockMvc.perform(post("/restaurants")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(new Restaurant(null, name))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, Restaurant.class).getId();
+    }
+
+    // Events are written by the sender threads
+    private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            String content = response.getContentAsString();
+            if (content.contains(expected)) {
+                return content;
+            }
+            Thread.sleep(10);
+        }
+        fail("No " + expected + " in " + response.getContentAsString());
+        return null;
+    }
+
+    private static String firstId(String content) {
+        Matcher matcher = FIRST_ID.matcher(content);
+        assertTrue(matcher.find());
+        return matcher.group(1);
+    }
+}
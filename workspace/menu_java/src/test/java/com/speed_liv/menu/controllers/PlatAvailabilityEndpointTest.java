@@ -0,0 +1,86 @@
+package com.speed_liv.menu.controllers;
+
+import com.speed_liv.menu.services.PlatAvailabilityWriter;
+import org.junit.jupiter.api.Test;
+import org.openapitools.OpenApiGeneratorApplication;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * PATCH /plats/{id}/disponible against a database of its own; the writer is only run by the test
+ */
+@SpringBootTest(classes = OpenApiGeneratorApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:platavailability",
+        "app.datasource.strategy=H2",
+        "app.plat-availability.flush-delay-ms=3600000"
+})
+@AutoConfigureMockMvc
+class PlatAvailabilityEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatAvailabilityWriter writer;
+
+    @Test
+    void flipIsReadAtOnceAndWrittenToH2ByTheWriter() throws Exception {
+        mockMvc.perform(patch("/plats/2/disponible").contentType(MediaType.APPLICATION_JSON).content("false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(2))
+                .andExpect(jsonPath("$.disponible").value(false));
+
+        mockMvc.perform(get("/plats/2"))
+                .andExpect(jsonPath("$.disponible").value(false));
+        mockMvc.perform(get("/plats"))
+                .andExpect(jsonPath("$[?(@.id == 2)].disponible", contains(false)));
+        mockMvc.perform(get("/plats").param("sort", "price"))
+                .andExpect(jsonPath("$[?(@.id == 2)].disponible", contains(false)));
+        mockMvc.perform(get("/menus/jour"))
+                .andExpect(jsonPath("$[*].id", not(hasItem(2))));
+        assertEquals(Boolean.TRUE, disponible(2));
+        // /restaurants is read from H2: it lags until the writer's round
+        mockMvc.perform(get("/restaurants/1"))
+                .andExpect(jsonPath("$.plats[?(@.id == 2)].disponible", contains(true)));
+
+        writer.flush();
+        assertEquals(Boolean.FALSE, disponible(2));
+        mockMvc.perform(get("/restaurants/1"))
+                .andExpect(jsonPath("$.plats[?(@.id == 2)].disponible", contains(false)));
+        mockMvc.perform(get("/restaurants"))
+                .andExpect(jsonPath("$[?(@.id == 1)].plats[?(@.id == 2)].disponible", contains(false)));
+
+        mockMvc.perform(patch("/plats/2/disponible").contentType(MediaType.APPLICATION_JSON).content("true"))
+                .andExpect(jsonPath("$.disponible").value(true));
+        mockMvc.perform(get("/menus/jour"))
+                .andExpect(jsonPath("$[*].id", hasItem(2)));
+        writer.flush();
+        assertEquals(Boolean.TRUE, disponible(2));
+    }
+
+    @Test
+    void unknownPlatIsNotFound() throws Exception {
+        mockMvc.perform(patch("/plats/999999/disponible").contentType(MediaType.APPLICATION_JSON).content("true"))
+                .andExpect(status().isNotFound());
+    }
+
+    private Boolean disponible(long platId) {
+        return jdbc.queryForObject("SELECT disponible FROM plats WHERE id = ?", Boolean.class, platId);
+    }
+}
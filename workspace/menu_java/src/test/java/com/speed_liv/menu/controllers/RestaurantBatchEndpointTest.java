@@ -0,0 +1,133 @@
+package com.speed_liv.menu.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.speed_liv.menu.model.entity.Plat;
+import com.speed_liv.menu.model.entity.Restaurant;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.openapitools.OpenApiGeneratorApplication;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * POST /restaurants/batch against a database of its own, in chunks of 50
+ */
+@SpringBootTest(classes = OpenApiGeneratorApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:batchwrite",
+        "app.datasource.strategy=H2",
+        "app.datasource.batch-write.chunk-size=50",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureMockMvc
+class RestaurantBatchEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void savesValidRestaurantsInBatchesAndReportsEachItem() throws Exception {
+        List<Restaurant> restaurants = restaurants("batch", 120);
+        restaurants.get(5).setName(null);
+        Long existingId = jdbc.queryForObject("SELECT MIN(id) FROM restaurants", Long.class);
+        restaurants.get(7).setId(existingId);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(post("/restaurants/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(restaurants)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.complete").value(true))
+                .andExpect(jsonPath("$.saved").value(119))
+                .andExpect(jsonPath("$.invalid").value(1))
+                .andExpect(jsonPath("$.items", hasSize(120)))
+                .andExpect(jsonPath("$.items[5].status").value("INVALID"))
+                .andExpect(jsonPath("$.items[5].error").value("name must not be null"))
+                .andExpect(jsonPath("$.items[7].id").value(existingId))
+                .andExpect(jsonPath("$.items[119].index").value(119))
+                .andExpect(jsonPath("$.items[119].status").value("SAVED"));
+
+        assertEquals(118L, count("SELECT COUNT(*) FROM restaurants WHERE name LIKE 'batch%' AND id <> " + existingId));
+        assertEquals("batch7", jdbc.queryForObject("SELECT name FROM restaurants WHERE id = ?", String.class, existingId));
+        assertEquals(3L, count("SELECT COUNT(*) FROM plats WHERE restaurant_id = " + existingId));
+        // 3 chunks of about 200 rows each: JDBC batches, not one statement per row
+        assertTrue(statistics.getPrepareStatementCount() < 60, "statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void rollsBackOnlyTheFailingChunk() throws Exception {
+        List<Restaurant> restaurants = restaurants("rollback", 100);
+        // Longer than the column: accepted by validation, rejected by the database
+        restaurants.get(60).setName(String.join("", Collections.nCopies(300, "x")));
+
+        mockMvc.perform(post("/restaurants/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(restaurants)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.saved").value(50))
+                .andExpect(jsonPath("$.failed").value(50))
+                .andExpect(jsonPath("$.items[49].status").value("SAVED"))
+                .andExpect(jsonPath("$.items[50].status").value("FAILED"))
+                .andExpect(jsonPath("$.items[50].id").doesNotExist());
+
+        assertEquals(50L, count("SELECT COUNT(*) FROM restaurants WHERE name LIKE 'rollback%'"));
+    }
+
+    @Test
+    void keepsWhatWasReadBeforeAMalformedRestaurant() throws Exception {
+        String body = "[{\"name\":\"truncated1\",\"plats\":[]},{\"name\":\"truncated2\",\"plats\":[]},{\"name\":";
+
+        mockMvc.perform(post("/restaurants/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.complete").value(false))
+                .andExpect(jsonPath("$.saved").value(2))
+                .andExpect(jsonPath("$.error").exists());
+
+        assertEquals(2L, count("SELECT COUNT(*) FROM restaurants WHERE name LIKE 'truncated%'"));
+    }
+
+    private static List<Restaurant> restaurants(String prefix, int size) {
+        List<Restaurant> restaurants = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Restaurant restaurant = new Restaurant(null, prefix + i);
+            for (int plat = 1; plat <= 3; plat++) {
+                restaurant.addPlat(new Plat(null, prefix + i + "-" + plat, 9.5));
+            }
+            restaurants.add(restaurant);
+        }
+        return restaurants;
+    }
+
+    private long count(String sql) {
+        return jdbc.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,145 @@
+package com.speed_liv.menu.controllers;
+
+import com.speed_liv.menu.infrastructure.persistance.CachingRestaurantRepository;
+import com.speed_liv.menu.services.ResponseSnapshotCache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openapitools.OpenApiGeneratorApplication;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards against N+1 queries on Restaurant.plats: each H2 read request runs a fixed number of SQL statements
+ * whatever the number of restaurants (3 restaurants, 8 plats are loaded from restaurants-h2.json)
+ */
+@SpringBootTest(classes = OpenApiGeneratorApplication.class, properties = {
+        "app.datasource.strategy=H2",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureMockMvc
+class RestaurantControllerSqlCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CachingRestaurantRepository h2RestaurantRepository;
+
+    @Autowired
+    private ResponseSnapshotCache responseSnapshotCache;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // Count the statements of a cold read, whatever ran before
+        h2RestaurantRepository.invalidateAll();
+        responseSnapshotCache.invalidateAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getAllRestaurantsRunsOneStatement() throws Exception {
+        mockMvc.perform(get("/restaurants"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[1].plats", hasSize(3)));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getRestaurantByIdRunsOneStatement() throws Exception {
+        mockMvc.perform(get("/restaurants/2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.plats", hasSize(3)));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getRestaurantPageRunsTwoStatements() throws Exception {
+        mockMvc.perform(get("/restaurants").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].plats", hasSize(3)));
+
+        // ids of the page, then restaurants and plats of those ids
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void streamAllRestaurantsRunsOneStatement() throws Exception {
+        String body = mockMvc.perform(get("/restaurants").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(3, body.split("\n").length);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getRestaurantSummariesRunsOneStatementWithoutPlats() throws Exception {
+        mockMvc.perform(get("/restaurants/summaries"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].plats").doesNotExist());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void conditionalGetWithCurrentETagRunsNoStatement() throws Exception {
+        String eTag = mockMvc.perform(get("/restaurants/2"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        statistics.clear();
+
+        mockMvc.perform(get("/restaurants/2").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void gzipVariantIsRevalidatedUnderItsOwnETag() throws Exception {
+        String identity = mockMvc.perform(get("/restaurants"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String gzip = mockMvc.perform(get("/restaurants").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertEquals(identity.replaceAll("\"$", "-gz\""), gzip);
+        mockMvc.perform(get("/restaurants").header(HttpHeaders.ACCEPT_ENCODING, "gzip").header(HttpHeaders.IF_NONE_MATCH, gzip))
+                .andExpect(status().isNotModified());
+        // A cached gzip body is no match for a client that cannot inflate it
+        mockMvc.perform(get("/restaurants").header(HttpHeaders.IF_NONE_MATCH, gzip))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, identity));
+    }
+}
@@ -0,0 +1,38 @@
+package com.speed_liv.menu.infrastructure.diagnostics;
+
+import com.speed_liv.menu.config.FlightRecorderConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FlightRecorderTest {
+
+    @Test
+    void keepsTheLastRequestsMostRecentFirst() {
+        FlightRecorderConfig config = new FlightRecorderConfig();
+        config.setCapacity(6);
+        FlightRecorder recorder = new FlightRecorder(config);
+
+        for (int i = 0; i < 20; i++) {
+            RequestTrace trace = RequestTrace.begin();
+            RequestTrace.addSqlStatement();
+            RequestTrace.addRepository(1_000_000);
+            RequestTrace.end();
+            recorder.record("GET", "/restaurants/" + i, 200, trace);
+        }
+        // Not traced: ignored
+        RequestTrace.addSqlStatement();
+
+        assertEquals(8, recorder.getCapacity());
+        assertEquals(20, recorder.getRecorded());
+        List<FlightRecorder.Entry> entries = recorder.entries(100);
+        assertEquals(8, entries.size());
+        assertEquals("/restaurants/19", entries.get(0).getUri());
+        assertEquals("/restaurants/12", entries.get(7).getUri());
+        assertEquals(1, entries.get(0).getSqlStatements());
+        assertEquals(1.0, entries.get(0).getRepositoryMs());
+        assertEquals(3, recorder.entries(3).size());
+    }
+}
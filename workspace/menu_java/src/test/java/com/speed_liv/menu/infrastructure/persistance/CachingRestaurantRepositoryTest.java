@@ -0,0 +1,63 @@
+package com.speed_liv.menu.infrastructure.persistance;
+
+import com.speed_liv.menu.config.DataSourceConfig;
+import com.speed_liv.menu.model.entity.Restaurant;
+import com.speed_liv.menu.model.repository.RestaurantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingRestaurantRepositoryTest {
+
+    private RestaurantRepository delegate;
+    private CachingRestaurantRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(RestaurantRepository.class);
+        repository = new CachingRestaurantRepository("test", delegate, new DataSourceConfig.RepositoryCache(true));
+    }
+
+    @Test
+    void servesRepeatedLookupsFromMemory() {
+        when(delegate.findById(1L)).thenReturn(Optional.of(new Restaurant(1L, "resto1")));
+        when(delegate.findById(2L)).thenReturn(Optional.empty());
+
+        assertEquals("resto1", repository.findById(1L).map(Restaurant::getName).orElse(null));
+        assertEquals("resto1", repository.findById(1L).map(Restaurant::getName).orElse(null));
+        assertTrue(repository.existsById(1L));
+        assertFalse(repository.findById(2L).isPresent());
+        assertFalse(repository.existsById(2L));
+
+        verify(delegate, times(1)).findById(1L);
+        verify(delegate, times(1)).findById(2L);
+        verify(delegate, never()).existsById(1L);
+        assertEquals(3, repository.stats().hitCount());
+        assertEquals(2, repository.stats().missCount());
+    }
+
+    @Test
+    void saveAndDeleteInvalidateTheRestaurant() {
+        Restaurant renamed = new Restaurant(1L, "renamed");
+        when(delegate.findById(1L)).thenReturn(Optional.of(new Restaurant(1L, "resto1")), Optional.of(renamed), Optional.empty());
+        when(delegate.save(renamed)).thenReturn(renamed);
+
+        repository.findById(1L);
+        repository.save(renamed);
+        assertEquals("renamed", repository.findById(1L).map(Restaurant::getName).orElse(null));
+
+        repository.deleteById(1L);
+        assertFalse(repository.findById(1L).isPresent());
+        verify(delegate, times(3)).findById(1L);
+    }
+}
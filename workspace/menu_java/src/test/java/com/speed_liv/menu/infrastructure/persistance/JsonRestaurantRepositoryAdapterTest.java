@@ -0,0 +1,91 @@
+package com.speed_liv.menu.infrastructure.persistance;
+
+import com.speed_liv.menu.config.DataSourceConfig;
+import com.speed_liv.menu.config.DataSourceStrategy;
+import com.speed_liv.menu.model.entity.Restaurant;
+import com.speed_liv.menu.model.event.CatalogChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class JsonRestaurantRepositoryAdapterTest {
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private ApplicationEventPublisher eventPublisher;
+    private SimpleMeterRegistry meterRegistry;
+    private JsonRestaurantRepositoryAdapter adapter;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = directory.resolve("restaurants.json");
+        write("[{\"id\": 1, \"name\": \"resto1\", \"plats\": []}]");
+        DataSourceConfig config = new DataSourceConfig();
+        config.setJsonLocation(file.toUri().toString());
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        meterRegistry = new SimpleMeterRegistry();
+        adapter = new JsonRestaurantRepositoryAdapter(Jackson2ObjectMapperBuilder.json().build(), config,
+                new DefaultResourceLoader(), eventPublisher, meterRegistry);
+    }
+
+    @Test
+    void reloadPublishesTheNewCatalog() throws IOException {
+        List<Restaurant> before = adapter.findAll();
+        write("[{\"id\": 1, \"name\": \"resto1\"}, {\"id\": 7, \"name\": \"resto7\"}]");
+
+        assertTrue(adapter.reload());
+
+        assertEquals(1, before.size());
+        assertEquals(2, adapter.findAll().size());
+        assertEquals("resto7", adapter.findById(7L).get().getName());
+        assertEquals(2.0, meterRegistry.get("menu.catalog.json.size").gauge().value());
+        assertEquals(1, meterRegistry.get("menu.catalog.json.reload").tag("outcome", "success").timer().count());
+        ArgumentCaptor<CatalogChangedEvent> event = ArgumentCaptor.forClass(CatalogChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(CatalogChangedEvent.Type.RELOADED, event.getValue().getType());
+        assertEquals(DataSourceStrategy.JSON, event.getValue().getSource());
+    }
+
+    @Test
+    void invalidFileKeepsTheCurrentCatalog() throws IOException {
+        write("[{\"id\": 1, \"name\": \"resto1\"}, {\"id\": 2, \"na");
+        assertFalse(adapter.reload());
+
+        write("[{\"id\": 1, \"name\": \"resto1\"}, {\"name\": \"no id\"}]");
+        assertFalse(adapter.reload());
+
+        assertEquals("resto1", names(adapter.findAll()));
+        assertEquals(2, meterRegistry.get("menu.catalog.json.reload").tag("outcome", "failure").timer().count());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    private void write(String json) throws IOException {
+        Files.write(file, json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String names(List<Restaurant> restaurants) {
+        return restaurants.stream().map(Restaurant::getName).collect(Collectors.joining(","));
+    }
+}
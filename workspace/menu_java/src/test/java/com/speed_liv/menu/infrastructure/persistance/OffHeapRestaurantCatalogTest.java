@@ -0,0 +1,94 @@
+package com.speed_liv.menu.infrastructure.persistance;
+
+import com.speed_liv.menu.model.RestaurantSummary;
+import com.speed_liv.menu.model.entity.Plat;
+import com.speed_liv.menu.model.entity.Restaurant;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapRestaurantCatalogTest {
+
+    @Test
+    void readsBackWhatTheHeapCatalogHolds() {
+        Restaurant first = new Restaurant(7L, "Crème & Brûlée");
+        Plat plat = new Plat(70L, "Tarte", 6.5);
+        plat.setDisponible(false);
+        first.addPlat(plat);
+        // Nothing but the id
+        first.addPlat(new Plat());
+        Restaurant duplicate = new Restaurant(7L, "duplicate");
+        List<Restaurant> source = Arrays.asList(first, new Restaurant(3L, "resto3"), duplicate, new Restaurant(5L, "resto5"));
+
+        RestaurantCatalog heap = RestaurantCatalog.of(source);
+        OffHeapRestaurantCatalog offHeap = OffHeapRestaurantCatalog.of(source);
+
+        assertEquals(heap.size(), offHeap.size());
+        assertEquals(describe(heap.all()), describe(offHeap.all()));
+        assertEquals(describe(heap.page(null, 2)), describe(offHeap.page(null, 2)));
+        assertEquals(describe(heap.page(3L, 10)), describe(offHeap.page(3L, 10)));
+        assertEquals(describe(heap.page(4L, 1)), describe(offHeap.page(4L, 1)));
+        assertTrue(offHeap.page(7L, 10).isEmpty());
+        assertEquals(summaries(heap.summaries()), summaries(offHeap.summaries()));
+        // The first restaurant with an id wins
+        assertEquals("Crème & Brûlée", offHeap.findById(7L).map(Restaurant::getName).orElse(null));
+        assertTrue(offHeap.contains(5L));
+        assertFalse(offHeap.contains(4L));
+        assertFalse(offHeap.findById(4L).isPresent());
+
+        Plat empty = offHeap.findById(7L).get().getPlats().get(1);
+        assertNull(empty.getId());
+        assertNull(empty.getPrice());
+        assertNull(empty.getDisponible());
+        // Every read builds its own entities
+        assertNotSame(offHeap.all().get(0), offHeap.all().get(0));
+    }
+
+    @Test
+    void visitsRecordsThroughOneView() {
+        Restaurant restaurant = new Restaurant(1L, "resto1");
+        restaurant.addPlat(new Plat(10L, "Pizza", 8.5));
+        restaurant.addPlat(new Plat(11L, "Pizza", 9.0));
+        OffHeapRestaurantCatalog catalog = OffHeapRestaurantCatalog.of(Arrays.asList(restaurant, new Restaurant(2L, "resto2")));
+
+        List<Object> views = new ArrayList<>();
+        List<String> plats = new ArrayList<>();
+        catalog.forEach(view -> {
+            views.add(view);
+            for (int i = 0; i < view.platCount(); i++) {
+                OffHeapRestaurantCatalog.PlatView plat = view.plat(i);
+                plats.add(view.id() + ":" + plat.id() + ":" + plat.name() + ":" + plat.price());
+            }
+        });
+
+        assertEquals(Arrays.asList("1:10:Pizza:8.5", "1:11:Pizza:9.0"), plats);
+        assertEquals(2, views.size());
+        assertSame(views.get(0), views.get(1));
+        // 2 restaurants, 2 plats, 2 index entries, and "Pizza" stored once next to the restaurant names
+        assertEquals(2 * 24 + 2 * 24 + 2 * 12 + (4 + 6) + (4 + 5) + (4 + 6), catalog.offHeapBytes());
+    }
+
+    private static List<String> describe(List<Restaurant> restaurants) {
+        List<String> described = new ArrayList<>();
+        for (Restaurant restaurant : restaurants) {
+            described.add(restaurant.getId() + " " + restaurant.getName() + " " + restaurant.getPlats().stream()
+                    .map(plat -> plat.getId() + "/" + plat.getName() + "/" + plat.getPrice() + "/" + plat.getDisponible())
+                    .collect(Collectors.joining(",")));
+        }
+        return described;
+    }
+
+    private static List<String> summaries(List<RestaurantSummary> summaries) {
+        return summaries.stream().map(summary -> summary.getId() + " " + summary.getName()).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,93 @@
+package com.speed_liv.menu.infrastructure.persistance;
+
+import com.speed_liv.menu.model.entity.Restaurant;
+import com.speed_liv.menu.model.repository.RestaurantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static com.speed_liv.menu.infrastructure.persistance.ReactiveJpaRestaurantRepository.PAGE_SIZE;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ReactiveJpaRestaurantRepositoryTest {
+
+    private RestaurantRepository delegate;
+    private ReactiveJpaRestaurantRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(RestaurantRepository.class);
+        repository = new ReactiveJpaRestaurantRepository(delegate, Schedulers.immediate());
+    }
+
+    @Test
+    void readsAtMostOnePageAheadOfTheSubscriber() {
+        when(delegate.findPage(isNull(), anyInt())).thenReturn(restaurants(1, PAGE_SIZE));
+        when(delegate.findPage((long) PAGE_SIZE, PAGE_SIZE)).thenReturn(restaurants(PAGE_SIZE + 1, PAGE_SIZE));
+        when(delegate.findPage(2L * PAGE_SIZE, PAGE_SIZE)).thenReturn(restaurants(2 * PAGE_SIZE + 1, 2));
+        Flux<Restaurant> restaurants = repository.findAll();
+        verifyNoInteractions(delegate);
+
+        StepVerifier.create(restaurants, 0)
+                .thenRequest(PAGE_SIZE - 1)
+                .expectNextCount(PAGE_SIZE - 1)
+                .then(() -> verify(delegate, never()).findPage(2L * PAGE_SIZE, PAGE_SIZE))
+                .thenRequest(Long.MAX_VALUE)
+                .expectNextCount(PAGE_SIZE + 1)
+                .expectNextMatches(restaurant -> restaurant.getId() == 2 * PAGE_SIZE + 1)
+                .expectNextCount(1)
+                // A short page is the last one
+                .verifyComplete();
+        verify(delegate, never()).findPage(2L * PAGE_SIZE + 2, PAGE_SIZE);
+    }
+
+    @Test
+    void pagesThroughALargeCatalogWithoutGrowingTheStack() {
+        int pages = 5000;
+        when(delegate.findPage(any(), anyInt())).thenAnswer(invocation -> {
+            Long afterId = invocation.getArgument(0);
+            long first = afterId == null ? 1 : afterId + 1;
+            // The last page is short
+            return restaurants(first, first > (long) (pages - 1) * PAGE_SIZE ? PAGE_SIZE / 2 : PAGE_SIZE);
+        });
+
+        StepVerifier.create(repository.findAll().map(Restaurant::getId).reduce(0L, (count, id) -> count + 1))
+                .expectNext((long) (pages - 1) * PAGE_SIZE + PAGE_SIZE / 2)
+                .verifyComplete();
+        verify(delegate, times(pages)).findPage(any(), anyInt());
+    }
+
+    @Test
+    void findsNothingBeforeSubscription() {
+        when(delegate.findById(1L)).thenReturn(Optional.of(new Restaurant(1L, "resto1")));
+        when(delegate.findById(2L)).thenReturn(Optional.empty());
+
+        repository.findById(1L);
+        verifyNoInteractions(delegate);
+
+        StepVerifier.create(repository.findById(1L)).expectNextMatches(r -> r.getName().equals("resto1")).verifyComplete();
+        StepVerifier.create(repository.findById(2L)).verifyComplete();
+    }
+
+    private static List<Restaurant> restaurants(long firstId, int count) {
+        List<Restaurant> restaurants = new ArrayList<>(count);
+        for (long id = firstId; id < firstId + count; id++) {
+            restaurants.add(new Restaurant(id, "resto" + id));
+        }
+        return restaurants;
+    }
+}
@@ -0,0 +1,91 @@
+package com.speed_liv.menu.infrastructure.persistance;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.speed_liv.menu.model.entity.Plat;
+import com.speed_liv.menu.model.entity.Restaurant;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openapitools.OpenApiGeneratorApplication;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Imports a generated catalog in parallel chunks into a database of its own
+ */
+@SpringBootTest(classes = OpenApiGeneratorApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulkimport",
+        "app.datasource.seed-import.chunk-size=100",
+        "app.datasource.seed-import.threads=2",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+class RestaurantBulkImporterTest {
+
+    private static final int RESTAURANTS = 250;
+
+    @TempDir
+    Path directory;
+
+    @Autowired
+    private RestaurantBulkImporter importer;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void importsEveryRowInBatches() throws IOException {
+        Path file = directory.resolve("catalog.json");
+        objectMapper.writeValue(file.toFile(), catalog());
+        long restaurantsBefore = count("restaurants");
+        long platsBefore = count("plats");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        RestaurantBulkImporter.Result result = importer.importCatalog(new FileSystemResource(file));
+
+        assertEquals(RESTAURANTS, result.getRestaurants());
+        assertEquals(RESTAURANTS * 3, result.getPlats());
+        assertEquals(restaurantsBefore + RESTAURANTS, count("restaurants"));
+        assertEquals(platsBefore + RESTAURANTS * 3, count("plats"));
+        // Each imported restaurant kept its own plats
+        assertEquals(0L, jdbc.queryForObject("SELECT COUNT(*) FROM plats p JOIN restaurants r ON p.restaurant_id = r.id "
+                + "WHERE r.name LIKE 'bulk%' AND p.name NOT LIKE CONCAT(r.name, '-%')", Long.class));
+        // 1000 rows: JDBC batches of 50 plus sequence calls, not one statement per row
+        assertTrue(statistics.getPrepareStatementCount() < 100, "statements: " + statistics.getPrepareStatementCount());
+    }
+
+    private static List<Restaurant> catalog() {
+        List<Restaurant> restaurants = new ArrayList<>();
+        for (long id = 1; id <= RESTAURANTS; id++) {
+            Restaurant restaurant = new Restaurant(id, "bulk" + id);
+            for (long plat = 1; plat <= 3; plat++) {
+                restaurant.addPlat(new Plat(id * 10 + plat, "bulk" + id + "-" + plat, 9.5));
+            }
+            restaurants.add(restaurant);
+        }
+        return restaurants;
+    }
+
+    private long count(String table) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+}
@@ -0,0 +1,55 @@
+package com.speed_liv.menu.infrastructure.persistance;
+
+import com.speed_liv.menu.model.RestaurantSummary;
+import com.speed_liv.menu.model.entity.Restaurant;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RestaurantCatalogTest {
+
+    private final Restaurant first = new Restaurant(7L, "first");
+    private final RestaurantCatalog catalog = RestaurantCatalog.of(Arrays.asList(
+            first, new Restaurant(3L, "resto3"), new Restaurant(7L, "duplicate"), new Restaurant(5L, "resto5")));
+
+    @Test
+    void looksRestaurantsUpById() {
+        // The first restaurant with an id wins
+        assertSame(first, catalog.findById(7L).orElse(null));
+        assertEquals("resto3", catalog.findById(3L).map(Restaurant::getName).orElse(null));
+        assertFalse(catalog.findById(4L).isPresent());
+        assertTrue(catalog.contains(5L));
+        assertFalse(catalog.contains(4L));
+    }
+
+    @Test
+    void keepsTheSourceOrder() {
+        assertEquals(Arrays.asList("first", "resto3", "duplicate", "resto5"), names(catalog.all()));
+        assertEquals(4, catalog.size());
+        assertEquals(Arrays.asList(7L, 3L, 7L, 5L),
+                catalog.summaries().stream().map(RestaurantSummary::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void pagesByIdAfterTheCursor() {
+        assertEquals(Arrays.asList("resto3", "resto5"), names(catalog.page(null, 2)));
+        assertEquals(Arrays.asList("resto5", "first"), names(catalog.page(3L, 10)));
+        // A cursor between two ids starts at the next one
+        assertEquals(Collections.singletonList("resto5"), names(catalog.page(4L, 1)));
+        assertEquals(Arrays.asList("resto3", "resto5", "first"), names(catalog.page(null, Integer.MAX_VALUE)));
+        assertTrue(catalog.page(7L, 10).isEmpty());
+        assertTrue(RestaurantCatalog.empty().page(null, 10).isEmpty());
+    }
+
+    private static List<String> names(List<Restaurant> restaurants) {
+        return restaurants.stream().map(Restaurant::getName).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,96 @@
+package com.speed_liv.menu.infrastructure.persistance;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.speed_liv.menu.model.entity.Plat;
+import com.speed_liv.menu.model.entity.Restaurant;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RestaurantJsonReaderTest {
+
+    private static final String CATALOG = "[" +
+            "{\"id\": 1, \"name\": \"resto1\", \"rating\": {\"stars\": 4}, \"plats\": [" +
+            "  {\"id\": 1, \"name\": \"Pizza\", \"price\": 8.5, \"disponible\": true}," +
+            "  {\"id\": 2, \"name\": \"Lasagnes\", \"price\": 10}]}," +
+            "{\"id\": 2, \"name\": \"resto2\", \"plats\": [{\"id\": 3, \"name\": \"Pizza\", \"price\": 8.5}]}," +
+            "{\"id\": 3, \"name\": \"resto3\", \"plats\": null}" +
+            "]";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsRestaurantsWithLinkedPlats() throws IOException {
+        List<Restaurant> restaurants = read(new RestaurantJsonReader(new JsonFactory(), false), resource(CATALOG));
+
+        assertEquals(3, restaurants.size());
+        Restaurant first = restaurants.get(0);
+        assertEquals("resto1", first.getName());
+        assertEquals(2, first.getPlats().size());
+        Plat lasagnes = first.getPlats().get(1);
+        assertEquals(10.0, lasagnes.getPrice());
+        assertNull(lasagnes.getDisponible());
+        assertSame(first, lasagnes.getRestaurant());
+        assertTrue(restaurants.get(2).getPlats().isEmpty());
+    }
+
+    @Test
+    void sharesRepeatedValues() throws IOException {
+        List<Restaurant> restaurants = read(new RestaurantJsonReader(new JsonFactory(), false), resource(CATALOG));
+
+        Plat first = restaurants.get(0).getPlats().get(0);
+        Plat second = restaurants.get(1).getPlats().get(0);
+        assertSame(first.getName(), second.getName());
+        assertSame(first.getPrice(), second.getPrice());
+    }
+
+    @Test
+    void memoryMappedFileGivesTheSameCatalog() throws IOException {
+        Path file = directory.resolve("restaurants.json");
+        Files.write(file, CATALOG.getBytes(StandardCharsets.UTF_8));
+
+        List<Restaurant> mapped = read(new RestaurantJsonReader(new JsonFactory(), true), new FileSystemResource(file));
+        List<Restaurant> streamed = read(new RestaurantJsonReader(new JsonFactory(), false), resource(CATALOG));
+
+        assertEquals(streamed, mapped);
+        for (int i = 0; i < streamed.size(); i++) {
+            assertEquals(streamed.get(i).getPlats(), mapped.get(i).getPlats());
+        }
+    }
+
+    @Test
+    void rejectsTruncatedOrMisshapenInput() {
+        RestaurantJsonReader reader = new RestaurantJsonReader(new JsonFactory(), false);
+
+        assertThrows(IOException.class, () -> read(reader, resource(CATALOG.substring(0, 60))));
+        assertThrows(JsonParseException.class, () -> read(reader, resource("{\"id\": 1}")));
+        assertThrows(JsonParseException.class, () -> read(reader, resource("[1, 2]")));
+    }
+
+    private static ByteArrayResource resource(String json) {
+        return new ByteArrayResource(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<Restaurant> read(RestaurantJsonReader reader, Resource resource) throws IOException {
+        List<Restaurant> restaurants = new ArrayList<>();
+        reader.read(resource, restaurants::add);
+        return restaurants;
+    }
+}
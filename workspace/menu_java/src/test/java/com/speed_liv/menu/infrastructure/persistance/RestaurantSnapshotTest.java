@@ -0,0 +1,109 @@
+package com.speed_liv.menu.infrastructure.persistance;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.speed_liv.menu.model.entity.Plat;
+import com.speed_liv.menu.model.entity.Restaurant;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RestaurantSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsTheJsonCatalog() throws IOException {
+        ClassPathResource json = new ClassPathResource("bd/restaurants-h2.json");
+        List<Restaurant> expected = new ArrayList<>();
+        new RestaurantJsonReader(new JsonFactory(), false).read(json, expected::add);
+        Path file = write(expected);
+
+        FileSystemResource snapshot = new FileSystemResource(file);
+        List<Restaurant> actual = read(snapshot);
+
+        assertTrue(RestaurantSnapshotReader.isSnapshot(snapshot));
+        assertFalse(RestaurantSnapshotReader.isSnapshot(json));
+        assertEquals(expected, actual);
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getPlats(), actual.get(i).getPlats());
+            for (Plat plat : actual.get(i).getPlats()) {
+                assertSame(actual.get(i), plat.getRestaurant());
+            }
+        }
+        // Same result when the snapshot is not a file (e.g. packaged in the jar)
+        assertEquals(actual, read(new ByteArrayResource(Files.readAllBytes(file))));
+    }
+
+    @Test
+    void keepsNullsAndSharesStrings() throws IOException {
+        Restaurant first = new Restaurant(null, "first");
+        first.addPlat(new Plat(null, "Pizza", null));
+        Restaurant second = new Restaurant(2L, null);
+        Plat pizza = new Plat(7L, "Pizza", 9.5);
+        pizza.setDisponible(false);
+        second.addPlat(pizza);
+
+        List<Restaurant> actual = read(new FileSystemResource(write(Arrays.asList(first, second))));
+
+        Plat firstPlat = actual.get(0).getPlats().get(0);
+        Plat secondPlat = actual.get(1).getPlats().get(0);
+        assertNull(actual.get(0).getId());
+        assertNull(actual.get(1).getName());
+        assertNull(firstPlat.getId());
+        assertNull(firstPlat.getPrice());
+        assertNull(firstPlat.getDisponible());
+        assertEquals(Boolean.FALSE, secondPlat.getDisponible());
+        assertEquals(9.5, secondPlat.getPrice());
+        assertSame(firstPlat.getName(), secondPlat.getName());
+    }
+
+    @Test
+    void rejectsCorruptOrTruncatedSnapshots() throws IOException {
+        Path file = write(Arrays.asList(new Restaurant(1L, "one"), new Restaurant(2L, "two")));
+        byte[] bytes = Files.readAllBytes(file);
+
+        byte[] corrupt = bytes.clone();
+        corrupt[SnapshotFormat.HEADER_SIZE + 6] ^= 1;
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 3);
+        byte[] newer = bytes.clone();
+        newer[5] = 2;
+
+        assertThrows(IOException.class, () -> read(new ByteArrayResource(corrupt)));
+        assertThrows(IOException.class, () -> read(new ByteArrayResource(truncated)));
+        assertThrows(IOException.class, () -> read(new ByteArrayResource(newer)));
+    }
+
+    private Path write(List<Restaurant> restaurants) throws IOException {
+        Path file = Files.createTempFile(directory, "catalog", ".mcat");
+        try (RestaurantSnapshotWriter writer = RestaurantSnapshotWriter.create(file)) {
+            for (Restaurant restaurant : restaurants) {
+                writer.write(restaurant);
+            }
+        }
+        return file;
+    }
+
+    private static List<Restaurant> read(Resource resource) throws IOException {
+        List<Restaurant> restaurants = new ArrayList<>();
+        RestaurantSnapshotReader.read(resource, restaurants::add);
+        return restaurants;
+    }
+}
@@ -0,0 +1,47 @@
+package com.speed_liv.menu.infrastructure.persistance;
+
+import com.speed_liv.menu.model.entity.Restaurant;
+import com.speed_liv.menu.model.repository.RestaurantRepository;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TimedRestaurantRepositoryTest {
+
+    @Test
+    void recordsEachCallUnderItsAdapterStrategyAndMethod() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RestaurantRepository delegate = mock(RestaurantRepository.class);
+        when(delegate.findById(1L)).thenReturn(Optional.of(new Restaurant(1L, "resto1")));
+        when(delegate.existsById(1L)).thenReturn(true);
+        when(delegate.save(null)).thenThrow(new IllegalArgumentException("no restaurant"));
+        RestaurantRepository repository = new TimedRestaurantRepository("H2", "BOTH", delegate, meterRegistry);
+
+        assertEquals("resto1", repository.findById(1L).map(Restaurant::getName).orElse(null));
+        repository.findById(1L);
+        assertTrue(repository.existsById(1L));
+        assertThrows(IllegalArgumentException.class, () -> repository.save(null));
+
+        assertEquals(2, timer(meterRegistry, "findById").count());
+        assertEquals(1, timer(meterRegistry, "existsById").count());
+        // Failed calls are timed too
+        assertEquals(1, timer(meterRegistry, "save").count());
+        assertEquals(0, timer(meterRegistry, "findAll").count());
+    }
+
+    private static Timer timer(SimpleMeterRegistry meterRegistry, String method) {
+        return meterRegistry.get(TimedRestaurantRepository.METRIC)
+                .tag("adapter", "H2")
+                .tag("strategy", "BOTH")
+                .tag("method", method)
+                .timer();
+    }
+}
@@ -0,0 +1,125 @@
+package com.speed_liv.menu.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.speed_liv.menu.config.CatalogEventsConfig;
+import com.speed_liv.menu.config.DataSourceStrategy;
+import com.speed_liv.menu.model.event.CatalogChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class CatalogEventBroadcasterTest {
+
+    private final CountDownLatch unblock = new CountDownLatch(1);
+    private CatalogEventBroadcaster broadcaster;
+
+    @AfterEach
+    void tearDown() {
+        unblock.countDown();
+        broadcaster.destroy();
+    }
+
+    @Test
+    void stalledSubscriberDoesNotHoldUpTheOthers() throws Exception {
+        CatalogEventsConfig config = new CatalogEventsConfig();
+        config.setSenders(1);
+        config.setSendTimeout(Duration.ofMillis(50));
+        // Driven by hand below
+        config.setWatchdog(Duration.ofHours(1));
+        List<Emitter> emitters = new ArrayList<>();
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        broadcaster = new CatalogEventBroadcaster(config, objectMapper, new SimpleMeterRegistry()) {
+            @Override
+            SseEmitter newEmitter(long timeout) {
+                // The first client never reads: its writes block
+                Emitter emitter = new Emitter(emitters.isEmpty() ? unblock : null);
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+
+        broadcaster.subscribe(null);
+        assertTrue(emitters.get(0).blocked.await(5, TimeUnit.SECONDS));
+        Emitter healthy = (Emitter) broadcaster.subscribe(null);
+        broadcaster.onCatalogChanged(CatalogChangedEvent.deleted(DataSourceStrategy.H2, 1L));
+        // The only sender is blocked on the first client
+        Thread.sleep(100);
+        assertTrue(healthy.sent.isEmpty());
+
+        // Must not wait on the emitter locked by the blocked write
+        assertTimeoutPreemptively(Duration.ofSeconds(1), broadcaster::evictStalled);
+
+        healthy.await("{\"type\":\"DELETED\",\"source\":\"H2\",\"restaurantId\":1}");
+        assertEquals(1, broadcaster.getSubscriberCount());
+        Emitter stalled = emitters.get(0);
+        assertEquals(1, stalled.completed.getCount());
+        // Completed by its sender once the write gives up
+        unblock.countDown();
+        assertTrue(stalled.completed.await(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Records what is sent; blocks every send until released when given a latch
+     * Holds its monitor while sending, like SseEmitter
+     */
+    private static final class Emitter extends SseEmitter {
+
+        private final CountDownLatch release;
+        private final CountDownLatch blocked = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final List<String> sent = Collections.synchronizedList(new ArrayList<>());
+
+        Emitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public synchronized void send(SseEventBuilder builder) throws IOException {
+            if (release != null) {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IOException("Client gone");
+            }
+            sent.add(builder.build().stream().map(data -> String.valueOf(data.getData())).collect(Collectors.joining()));
+        }
+
+        @Override
+        public synchronized void complete() {
+            super.complete();
+            completed.countDown();
+        }
+
+        void await(String expected) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (System.currentTimeMillis() < deadline) {
+                synchronized (sent) {
+                    if (sent.stream().anyMatch(event -> event.contains(expected))) {
+                        return;
+                    }
+                }
+                Thread.sleep(10);
+            }
+            fail("No " + expected + " in " + sent);
+        }
+    }
+}
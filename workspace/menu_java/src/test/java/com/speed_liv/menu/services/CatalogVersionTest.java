@@ -0,0 +1,68 @@
+package com.speed_liv.menu.services;
+
+import com.speed_liv.menu.config.DataSourceStrategy;
+import com.speed_liv.menu.model.entity.Restaurant;
+import com.speed_liv.menu.model.event.CatalogChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogVersionTest {
+
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+
+    @Test
+    void givesEachRepresentationOfTheListingItsOwnETag() {
+        String json = catalogVersion.catalogETag();
+        String ndjson = catalogVersion.catalogETag("ndjson");
+
+        assertNotEquals(json, ndjson);
+        assertEquals(json.substring(0, json.length() - 1) + "-ndjson\"", ndjson);
+        assertEquals(json.substring(0, json.length() - 1) + "-gz\"", CatalogVersion.variant(json, "gz"));
+    }
+
+    @Test
+    void neverReusesTheETagOfARestaurantDeletedAndSavedAgain() {
+        Set<String> seen = new HashSet<>();
+        assertTrue(seen.add(catalogVersion.restaurantETag(1L)));
+        String untouched = catalogVersion.restaurantETag(2L);
+
+        catalogVersion.onCatalogChanged(CatalogChangedEvent.saved(DataSourceStrategy.H2, new Restaurant(1L, "resto1")));
+        assertTrue(seen.add(catalogVersion.restaurantETag(1L)));
+        assertEquals(untouched, catalogVersion.restaurantETag(2L));
+
+        catalogVersion.onCatalogChanged(CatalogChangedEvent.deleted(DataSourceStrategy.H2, 1L));
+        assertTrue(seen.add(catalogVersion.restaurantETag(1L)));
+        assertEquals(untouched, catalogVersion.restaurantETag(2L));
+
+        catalogVersion.onCatalogChanged(CatalogChangedEvent.saved(DataSourceStrategy.H2, new Restaurant(1L, "resto1 again")));
+        assertTrue(seen.add(catalogVersion.restaurantETag(1L)));
+
+        catalogVersion.onCatalogChanged(CatalogChangedEvent.reloaded(DataSourceStrategy.JSON));
+        assertTrue(seen.add(catalogVersion.restaurantETag(1L)));
+        assertNotEquals(untouched, catalogVersion.restaurantETag(2L));
+    }
+
+    @Test
+    void startsOverInsteadOfTrackingEveryIdEverChanged() {
+        String untouched = catalogVersion.restaurantETag(0L);
+        String deleted = null;
+        for (long id = 1; id <= CatalogVersion.MAX_TRACKED; id++) {
+            catalogVersion.onCatalogChanged(CatalogChangedEvent.deleted(DataSourceStrategy.H2, id));
+            deleted = id == 1 ? catalogVersion.restaurantETag(1L) : deleted;
+        }
+        assertEquals(untouched, catalogVersion.restaurantETag(0L));
+
+        catalogVersion.onCatalogChanged(CatalogChangedEvent.deleted(DataSourceStrategy.H2, CatalogVersion.MAX_TRACKED + 1L));
+
+        // Every ETag moved to the new base, none of them back to an earlier one
+        assertNotEquals(untouched, catalogVersion.restaurantETag(0L));
+        assertNotEquals(deleted, catalogVersion.restaurantETag(1L));
+        assertEquals(catalogVersion.restaurantETag(0L).replace("-r0-", "-r1-"), catalogVersion.restaurantETag(1L));
+    }
+}
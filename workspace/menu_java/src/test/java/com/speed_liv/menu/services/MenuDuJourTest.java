@@ -0,0 +1,122 @@
+package com.speed_liv.menu.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.speed_liv.menu.config.DataSourceConfig;
+import com.speed_liv.menu.config.DataSourceStrategy;
+import com.speed_liv.menu.config.MenuDuJourConfig;
+import com.speed_liv.menu.model.entity.Plat;
+import com.speed_liv.menu.model.entity.Restaurant;
+import com.speed_liv.menu.model.event.CatalogChangedEvent;
+import com.speed_liv.menu.model.repository.RestaurantRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class MenuDuJourTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private RestaurantRepository repository;
+    private PlatIndex platIndex;
+    private MenuDuJour menuDuJour;
+
+    @BeforeEach
+    void setUp() {
+        DataSourceConfig config = new DataSourceConfig();
+        config.setStrategy(DataSourceStrategy.H2);
+        repository = mock(RestaurantRepository.class);
+        doAnswer(invocation -> {
+            Consumer<Restaurant> consumer = invocation.getArgument(0);
+            consumer.accept(restaurant("Le Gourmet", true, false, null));
+            return null;
+        }).when(repository).streamAll(any());
+        platIndex = new PlatIndex(repository, mock(RestaurantRepository.class), config);
+        menuDuJour = new MenuDuJour(platIndex, objectMapper, new MenuDuJourConfig(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void servesAvailablePlatsFromOneSnapshotUntilTheCatalogChanges() throws Exception {
+        MenuDuJour.Snapshot snapshot = menuDuJour.current();
+        assertEquals("[\"Le Gourmet-1\"]", names(snapshot));
+        assertSame(snapshot, menuDuJour.current());
+
+        platIndex.onCatalogChanged(CatalogChangedEvent.saved(DataSourceStrategy.H2, restaurant("Le Gourmet", true, true, false)));
+        MenuDuJour.Snapshot changed = menuDuJour.current();
+        assertEquals("[\"Le Gourmet-1\",\"Le Gourmet-2\"]", names(changed));
+        assertNotEquals(snapshot.getETag(), changed.getETag());
+        assertSame(changed, menuDuJour.current());
+
+        // The source was read once: the menu is selected from the plat index
+        verify(repository, times(1)).streamAll(any());
+    }
+
+    @Test
+    void followsAvailabilityFlips() throws Exception {
+        MenuDuJour.Snapshot snapshot = menuDuJour.current();
+
+        platIndex.setDisponible(2L, true);
+        MenuDuJour.Snapshot flipped = menuDuJour.current();
+
+        assertEquals("[\"Le Gourmet-1\",\"Le Gourmet-2\"]", names(flipped));
+        assertNotEquals(snapshot.getETag(), flipped.getETag());
+        assertSame(flipped, menuDuJour.current());
+    }
+
+    @Test
+    void listsEachPlatOnceWithBothSources() throws Exception {
+        DataSourceConfig config = new DataSourceConfig();
+        config.setStrategy(DataSourceStrategy.BOTH);
+        RestaurantRepository jsonRepository = mock(RestaurantRepository.class);
+        doAnswer(invocation -> {
+            Consumer<Restaurant> consumer = invocation.getArgument(0);
+            consumer.accept(restaurant("Json", true, true, true, true));
+            return null;
+        }).when(jsonRepository).streamAll(any());
+        platIndex = new PlatIndex(repository, jsonRepository, config);
+        menuDuJour = new MenuDuJour(platIndex, objectMapper, new MenuDuJourConfig(), new SimpleMeterRegistry());
+
+        // Plats 1 to 3 are the H2 ones, even where the JSON plat is available and the H2 one is not
+        assertEquals("[\"Le Gourmet-1\",\"Json-4\"]", names(menuDuJour.current()));
+    }
+
+    @Test
+    void scheduledRebuildSelectsTheMenuOfToday() {
+        MenuDuJour.Snapshot snapshot = menuDuJour.current();
+        assertEquals(LocalDate.now(new MenuDuJourConfig().getZone()), snapshot.getDay());
+
+        menuDuJour.rebuild();
+        assertNotSame(snapshot, menuDuJour.current());
+        // Same day, same plats: clients keep their copy
+        assertEquals(snapshot.getETag(), menuDuJour.current().getETag());
+    }
+
+    private String names(MenuDuJour.Snapshot snapshot) throws Exception {
+        return Arrays.stream(objectMapper.readValue(snapshot.getJson(), com.speed_liv.menu.model.Plat[].class))
+                .map(plat -> "\"" + plat.getName() + "\"")
+                .collect(Collectors.joining(",", "[", "]"));
+    }
+
+    private static Restaurant restaurant(String name, Boolean... disponible) {
+        Restaurant restaurant = new Restaurant(1L, name);
+        for (int i = 0; i < disponible.length; i++) {
+            Plat plat = new Plat((long) i + 1, name + "-" + (i + 1), 10.0);
+            plat.setDisponible(disponible[i]);
+            restaurant.addPlat(plat);
+        }
+        return restaurant;
+    }
+}
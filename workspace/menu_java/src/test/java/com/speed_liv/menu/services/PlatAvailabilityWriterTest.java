@@ -0,0 +1,98 @@
+package com.speed_liv.menu.services;
+
+import com.speed_liv.menu.config.DataSourceConfig;
+import com.speed_liv.menu.config.DataSourceStrategy;
+import com.speed_liv.menu.model.entity.Plat;
+import com.speed_liv.menu.model.entity.Restaurant;
+import com.speed_liv.menu.model.repository.RestaurantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class PlatAvailabilityWriterTest {
+
+    private PlatIndex platIndex;
+    private RestaurantService restaurantService;
+    private PlatAvailabilityWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        DataSourceConfig config = new DataSourceConfig();
+        config.setStrategy(DataSourceStrategy.H2);
+        RestaurantRepository repository = mock(RestaurantRepository.class);
+        doAnswer(invocation -> {
+            Consumer<Restaurant> consumer = invocation.getArgument(0);
+            Restaurant restaurant = new Restaurant(1L, "resto1");
+            for (long id = 10; id <= 12; id++) {
+                Plat plat = new Plat(id, "plat" + id, 10.0);
+                plat.setDisponible(true);
+                restaurant.addPlat(plat);
+            }
+            consumer.accept(restaurant);
+            return null;
+        }).when(repository).streamAll(any());
+        platIndex = new PlatIndex(repository, mock(RestaurantRepository.class), config);
+        restaurantService = mock(RestaurantService.class);
+        writer = new PlatAvailabilityWriter(platIndex, restaurantService);
+    }
+
+    @Test
+    void writesTheLastValueOfEachFlippedPlatOnce() {
+        platIndex.setDisponible(10L, false);
+        platIndex.setDisponible(10L, true);
+        platIndex.setDisponible(10L, false);
+        platIndex.setDisponible(11L, false);
+        // Already available: nothing to write
+        platIndex.setDisponible(12L, true);
+
+        writer.flush();
+        writer.flush();
+
+        Map<Long, Boolean> expected = new HashMap<>();
+        expected.put(10L, false);
+        expected.put(11L, false);
+        verify(restaurantService, times(1)).updatePlatAvailability(expected);
+        verify(restaurantService, times(1)).updatePlatAvailability(anyMap());
+    }
+
+    @Test
+    void writesNothingWithoutFlips() {
+        writer.flush();
+
+        verify(restaurantService, never()).updatePlatAvailability(anyMap());
+    }
+
+    @Test
+    void retriesAFailedRoundWithTheNextOne() {
+        platIndex.setDisponible(10L, false);
+        doThrow(new IllegalStateException("database down"))
+                .doNothing()
+                .when(restaurantService).updatePlatAvailability(anyMap());
+
+        writer.flush();
+        // Flipped while the failed round was out: written with it
+        platIndex.setDisponible(11L, false);
+        writer.flush();
+        writer.flush();
+
+        Map<Long, Boolean> expected = new HashMap<>();
+        expected.put(10L, false);
+        expected.put(11L, false);
+        verify(restaurantService, times(1)).updatePlatAvailability(Collections.singletonMap(10L, false));
+        verify(restaurantService, times(1)).updatePlatAvailability(expected);
+        verify(restaurantService, times(2)).updatePlatAvailability(anyMap());
+    }
+}
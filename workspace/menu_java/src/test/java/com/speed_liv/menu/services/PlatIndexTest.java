@@ -0,0 +1,152 @@
+package com.speed_liv.menu.services;
+
+import com.speed_liv.menu.config.DataSourceConfig;
+import com.speed_liv.menu.config.DataSourceStrategy;
+import com.speed_liv.menu.model.Plat;
+import com.speed_liv.menu.model.entity.Restaurant;
+import com.speed_liv.menu.model.event.CatalogChangedEvent;
+import com.speed_liv.menu.model.repository.RestaurantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class PlatIndexTest {
+
+    private RestaurantRepository h2Repository;
+    private RestaurantRepository jsonRepository;
+    private PlatIndex platIndex;
+
+    @BeforeEach
+    void setUp() {
+        DataSourceConfig config = new DataSourceConfig();
+        config.setStrategy(DataSourceStrategy.BOTH);
+        h2Repository = mock(RestaurantRepository.class);
+        jsonRepository = mock(RestaurantRepository.class);
+        stream(h2Repository, restaurant(1L, "h2", 10L, 11L));
+        stream(jsonRepository, restaurant(1L, "json", 11L, 12L));
+        platIndex = new PlatIndex(h2Repository, jsonRepository, config);
+    }
+
+    @Test
+    void findsPlatsWithoutLoadingRestaurants() {
+        assertEquals("h2-11", platIndex.findById(11L).map(Plat::getName).orElse(null));
+        assertEquals("json-12", platIndex.findById(12L).map(Plat::getName).orElse(null));
+        assertFalse(platIndex.findById(13L).isPresent());
+        // JSON plat 11 is hidden by the H2 one, as in findById
+        assertEquals(Arrays.asList("h2-10", "h2-11", "json-12"), names(platIndex.findAll()));
+
+        // Each source was read once, lookups never go back to the repositories
+        verify(h2Repository, times(1)).streamAll(any());
+        verify(jsonRepository, times(1)).streamAll(any());
+        verify(h2Repository, never()).findById(any());
+    }
+
+    @Test
+    void followsSavedAndDeletedRestaurants() {
+        platIndex.findAll();
+
+        platIndex.onCatalogChanged(CatalogChangedEvent.saved(DataSourceStrategy.H2, restaurant(1L, "renamed", 10L, 20L)));
+        assertEquals("renamed-20", platIndex.findById(20L).map(Plat::getName).orElse(null));
+        // Plat 11 left the restaurant: the JSON one shows through
+        assertEquals("json-11", platIndex.findById(11L).map(Plat::getName).orElse(null));
+        assertEquals(Arrays.asList("renamed-10", "renamed-20", "json-11", "json-12"), names(platIndex.findAll()));
+
+        platIndex.onCatalogChanged(CatalogChangedEvent.deleted(DataSourceStrategy.H2, 1L));
+        assertFalse(platIndex.findById(10L).isPresent());
+        assertEquals(Arrays.asList("json-11", "json-12"), names(platIndex.findAll()));
+
+        platIndex.onCatalogChanged(CatalogChangedEvent.saved(DataSourceStrategy.H2, restaurant(1L, "h2", 12L)));
+        assertEquals(Arrays.asList("h2-12", "json-11"), names(platIndex.findAll()));
+    }
+
+    @Test
+    void listsPriceRangesCheapestFirst() {
+        // Prices: plat 10 -> 10.0, 11 -> 11.0, 12 -> 12.0; JSON plat 11 is hidden by the H2 one
+        assertEquals(Arrays.asList("h2-11", "json-12"), names(platIndex.findByPrice(10.5, 12.0)));
+        assertEquals(Arrays.asList("h2-10", "h2-11", "json-12"), names(platIndex.findByPrice(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY)));
+        assertTrue(platIndex.findByPrice(12.5, 20.0).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> platIndex.findByPrice(12.0, 10.0));
+
+        platIndex.onCatalogChanged(CatalogChangedEvent.saved(DataSourceStrategy.H2, restaurant(1L, "h2", 30L, 12L)));
+        // Plat 12 is now the H2 one, the plat 11 of JSON shows through
+        assertEquals(Arrays.asList("json-11", "h2-12", "h2-30"), names(platIndex.findByPrice(11.0, 40.0)));
+    }
+
+    @Test
+    void coalescesAvailabilityChangesUntilDrained() {
+        platIndex.setDisponible(10L, true);
+        platIndex.setDisponible(10L, false);
+        platIndex.setDisponible(11L, true);
+        assertEquals(Boolean.TRUE, platIndex.findById(11L).map(Plat::getDisponible).orElse(null));
+        // JSON plats are not writable
+        assertFalse(platIndex.setDisponible(12L, true).isPresent());
+
+        Map<Long, Boolean> expected = new HashMap<>();
+        expected.put(10L, false);
+        expected.put(11L, true);
+        assertEquals(expected, platIndex.drainDisponible());
+        assertTrue(platIndex.drainDisponible().isEmpty());
+
+        platIndex.retryDisponible(Collections.singletonList(11L));
+        assertEquals(Collections.singletonMap(11L, true), platIndex.drainDisponible());
+    }
+
+    @Test
+    void servesFlippedAvailabilityWithoutRebuildingTheListing() {
+        List<Plat> listing = platIndex.findAll();
+        long version = platIndex.getVersion();
+
+        assertEquals(Boolean.TRUE, platIndex.setDisponible(10L, true).map(Plat::getDisponible).orElse(null));
+
+        assertSame(listing, platIndex.findAll());
+        assertEquals(version, platIndex.getVersion());
+        assertEquals(1L, platIndex.getAvailabilityVersion());
+        assertEquals(Boolean.TRUE, listing.get(0).getDisponible());
+        assertEquals(Boolean.TRUE, platIndex.findById(10L).map(Plat::getDisponible).orElse(null));
+        assertEquals(Boolean.TRUE, platIndex.findByPrice(10.0, 10.0).get(0).getDisponible());
+        // Unflipped plats are handed out as indexed
+        assertSame(listing.get(1), platIndex.findById(11L).orElse(null));
+
+        platIndex.setDisponible(10L, true);
+        assertEquals(1L, platIndex.getAvailabilityVersion());
+    }
+
+    private static void stream(RestaurantRepository repository, Restaurant... restaurants) {
+        doAnswer(invocation -> {
+            Consumer<Restaurant> consumer = invocation.getArgument(0);
+            Arrays.asList(restaurants).forEach(consumer);
+            return null;
+        }).when(repository).streamAll(any());
+    }
+
+    private static Restaurant restaurant(Long id, String name, Long... platIds) {
+        Restaurant restaurant = new Restaurant(id, name);
+        for (Long platId : platIds) {
+            restaurant.addPlat(new com.speed_liv.menu.model.entity.Plat(platId, name + "-" + platId, platId.doubleValue()));
+        }
+        return restaurant;
+    }
+
+    private static List<String> names(List<Plat> plats) {
+        return plats.stream().map(Plat::getName).collect(Collectors.toList());
+    }
+}
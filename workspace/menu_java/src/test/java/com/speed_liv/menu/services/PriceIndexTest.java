@@ -0,0 +1,60 @@
+package com.speed_liv.menu.services;
+
+import com.speed_liv.menu.model.Plat;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PriceIndexTest {
+
+    @Test
+    void mergedChangesMatchAFullSort() {
+        Random random = new Random(42);
+        PriceIndex index = new PriceIndex();
+        Map<Long, Plat> expected = new HashMap<>();
+        for (int round = 0; round < 50; round++) {
+            // A burst of writes between two reads, some of them on the same plat
+            for (int write = 0; write < 40; write++) {
+                long id = random.nextInt(200);
+                Plat previous = expected.remove(id);
+                if (previous != null) {
+                    index.remove(previous);
+                }
+                if (random.nextInt(4) > 0) {
+                    Plat plat = new Plat(id, "plat-" + id, (double) random.nextInt(30));
+                    index.put(plat);
+                    expected.put(id, plat);
+                }
+            }
+            assertEquals(sortedByPrice(expected), ids(index.sorted(), 0, index.sorted().size()));
+        }
+        PriceIndex.Sorted sorted = index.sorted();
+        List<Long> range = sortedByPrice(expected).stream()
+                .filter(id -> expected.get(id).getPrice() >= 10.0 && expected.get(id).getPrice() <= 20.0)
+                .collect(Collectors.toList());
+        assertEquals(range, ids(sorted, sorted.from(10.0), sorted.to(20.0)));
+    }
+
+    private static List<Long> sortedByPrice(Map<Long, Plat> plats) {
+        return plats.values().stream()
+                .sorted(Comparator.comparingDouble(Plat::getPrice).thenComparingLong(Plat::getId))
+                .map(Plat::getId)
+                .collect(Collectors.toList());
+    }
+
+    private static List<Long> ids(PriceIndex.Sorted sorted, int from, int to) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            ids.add(sorted.id(i));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,155 @@
+package com.speed_liv.menu.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.speed_liv.menu.config.DataSourceConfig;
+import com.speed_liv.menu.config.DataSourceStrategy;
+import com.speed_liv.menu.model.entity.Restaurant;
+import com.speed_liv.menu.model.event.CatalogChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ResponseSnapshotCacheTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private RestaurantService restaurantService;
+    private CatalogVersion catalogVersion;
+    private ResponseSnapshotCache cache;
+
+    @BeforeEach
+    void setUp() {
+        restaurantService = mock(RestaurantService.class);
+        catalogVersion = new CatalogVersion();
+        cache = new ResponseSnapshotCache(restaurantService, catalogVersion, objectMapper, new DataSourceConfig(),
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void catalogIsSerializedOncePerVersion() throws IOException {
+        when(restaurantService.readAllRestaurants())
+                .thenReturn(h2(new Restaurant(1L, "one")))
+                .thenReturn(h2(new Restaurant(1L, "one"), new Restaurant(2L, "two")));
+
+        ResponseSnapshotCache.Snapshot first = cache.catalog();
+        assertSame(first, cache.catalog());
+        verify(restaurantService, times(1)).readAllRestaurants();
+
+        changed(CatalogChangedEvent.saved(DataSourceStrategy.H2, new Restaurant(2L, "two")));
+        ResponseSnapshotCache.Snapshot second = cache.catalog();
+
+        assertNotEquals(first.getETag(), second.getETag());
+        assertEquals(catalogVersion.catalogETag(), second.getETag());
+        assertArrayEquals(objectMapper.writeValueAsBytes(
+                Arrays.asList(new Restaurant(1L, "one"), new Restaurant(2L, "two"))), second.getJson());
+        verify(restaurantService, times(2)).readAllRestaurants();
+    }
+
+    @Test
+    void rebuildOnlySerializesTheChangedRestaurants() throws IOException {
+        Restaurant one = new Restaurant(1L, "one");
+        Restaurant json = new Restaurant(9L, "json");
+        when(restaurantService.readAllRestaurants())
+                .thenReturn(new RestaurantListing(Arrays.asList(one, new Restaurant(2L, "two")),
+                        Collections.singletonList(json), true));
+        cache.catalog();
+
+        // Renamed behind the cache's back: only an event makes it serialize a restaurant again
+        one.setName("renamed");
+        json.setName("renamed too");
+        Restaurant three = new Restaurant(3L, "three");
+        when(restaurantService.readAllRestaurants())
+                .thenReturn(new RestaurantListing(Arrays.asList(one, three), Collections.singletonList(json), true));
+        changed(CatalogChangedEvent.deleted(DataSourceStrategy.H2, 2L));
+        changed(CatalogChangedEvent.saved(DataSourceStrategy.H2, three));
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(Arrays.asList(new Restaurant(1L, "one"), three,
+                new Restaurant(9L, "json"))), cache.catalog().getJson());
+
+        changed(CatalogChangedEvent.updated(DataSourceStrategy.H2, 1L));
+        changed(CatalogChangedEvent.reloaded(DataSourceStrategy.JSON));
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(Arrays.asList(one, three, json)), cache.catalog().getJson());
+    }
+
+    @Test
+    void partialListingIsNotCachedAsTheCatalog() throws IOException {
+        when(restaurantService.readAllRestaurants())
+                .thenReturn(new RestaurantListing(null, Collections.singletonList(new Restaurant(9L, "json")), false))
+                .thenReturn(new RestaurantListing(null, Collections.singletonList(new Restaurant(9L, "json")), false))
+                .thenReturn(new RestaurantListing(Collections.singletonList(new Restaurant(1L, "one")),
+                        Collections.singletonList(new Restaurant(9L, "json")), true));
+
+        ResponseSnapshotCache.Snapshot partial = cache.catalog();
+
+        assertFalse(partial.isComplete());
+        assertEquals(CatalogVersion.variant(catalogVersion.catalogETag(), ResponseSnapshotCache.PARTIAL), partial.getETag());
+        // Shared by a burst of requests, not beyond its TTL
+        assertSame(partial, cache.catalog());
+        cache.partialTtlNanos = 0;
+        changed(CatalogChangedEvent.saved(DataSourceStrategy.H2, new Restaurant(1L, "one")));
+        assertFalse(cache.catalog().isComplete());
+
+        ResponseSnapshotCache.Snapshot complete = cache.catalog();
+
+        assertTrue(complete.isComplete());
+        assertEquals(catalogVersion.catalogETag(), complete.getETag());
+        assertArrayEquals(objectMapper.writeValueAsBytes(Arrays.asList(new Restaurant(1L, "one"),
+                new Restaurant(9L, "json"))), complete.getJson());
+        verify(restaurantService, times(3)).readAllRestaurants();
+    }
+
+    @Test
+    void writeOnlyReloadsTheChangedRestaurant() {
+        when(restaurantService.getRestaurantById(1L)).thenReturn(Optional.of(new Restaurant(1L, "one")));
+        when(restaurantService.getRestaurantById(2L)).thenReturn(Optional.of(new Restaurant(2L, "two")));
+        cache.restaurant(1L);
+        cache.restaurant(2L);
+
+        changed(CatalogChangedEvent.deleted(DataSourceStrategy.H2, 2L));
+        when(restaurantService.getRestaurantById(2L)).thenReturn(Optional.empty());
+
+        assertEquals(catalogVersion.restaurantETag(1L), cache.restaurant(1L).get().getETag());
+        assertFalse(cache.restaurant(2L).isPresent());
+        verify(restaurantService, times(1)).getRestaurantById(1L);
+        verify(restaurantService, times(2)).getRestaurantById(2L);
+    }
+
+    @Test
+    void gzipVariantInflatesToTheJson() throws IOException {
+        when(restaurantService.readAllRestaurants()).thenReturn(h2(new Restaurant(1L, "one")));
+        ResponseSnapshotCache.Snapshot snapshot = cache.catalog();
+
+        byte[] inflated = StreamUtils.copyToByteArray(new GZIPInputStream(new ByteArrayInputStream(snapshot.getGzip())));
+
+        assertArrayEquals(snapshot.getJson(), inflated);
+    }
+
+    private static RestaurantListing h2(Restaurant... restaurants) {
+        return new RestaurantListing(Arrays.asList(restaurants), null, true);
+    }
+
+    private void changed(CatalogChangedEvent event) {
+        cache.onCatalogChanged(event);
+        catalogVersion.onCatalogChanged(event);
+    }
+}
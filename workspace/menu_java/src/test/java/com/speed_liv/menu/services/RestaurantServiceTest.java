@@ -0,0 +1,156 @@
+package com.speed_liv.menu.services;
+
+import com.speed_liv.menu.config.DataSourceConfig;
+import com.speed_liv.menu.config.DataSourceStrategy;
+import com.speed_liv.menu.config.ThreadsConfig;
+import com.speed_liv.menu.model.entity.Restaurant;
+import com.speed_liv.menu.model.repository.RestaurantRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RestaurantServiceTest {
+
+    private RestaurantRepository h2Repository;
+    private RestaurantRepository jsonRepository;
+    private DataSourceFanOut fanOut;
+    private RestaurantService restaurantService;
+
+    @BeforeEach
+    void setUp() {
+        DataSourceConfig config = new DataSourceConfig();
+        config.setStrategy(DataSourceStrategy.BOTH);
+        config.getFanOut().setTimeout(Duration.ofMillis(200));
+        h2Repository = mock(RestaurantRepository.class);
+        jsonRepository = mock(RestaurantRepository.class);
+        fanOut = new DataSourceFanOut(config, new ThreadsConfig(), mock(PlatformTransactionManager.class));
+        restaurantService = new RestaurantService(h2Repository, jsonRepository, config, fanOut, mock(ApplicationEventPublisher.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        fanOut.destroy();
+    }
+
+    @Test
+    void bothReadsEachSourceOnce() {
+        when(h2Repository.findAll()).thenReturn(Arrays.asList(new Restaurant(1L, "h2-1"), new Restaurant(2L, "h2-2")));
+        when(jsonRepository.findAll()).thenReturn(Collections.singletonList(new Restaurant(1L, "json-1")));
+
+        List<Restaurant> restaurants = restaurantService.getAllRestaurants();
+
+        assertEquals(Arrays.asList("h2-1", "h2-2", "json-1"), names(restaurants));
+        verify(h2Repository, times(1)).findAll();
+        verify(jsonRepository, times(1)).findAll();
+    }
+
+    @Test
+    void bothReturnsPartialResultWhenASourceIsTooSlow() {
+        when(h2Repository.findAll()).thenAnswer(invocation -> {
+            Thread.sleep(2_000);
+            return Collections.singletonList(new Restaurant(1L, "h2-1"));
+        });
+        when(jsonRepository.findAll()).thenReturn(Collections.singletonList(new Restaurant(1L, "json-1")));
+
+        long start = System.nanoTime();
+        List<Restaurant> restaurants = restaurantService.getAllRestaurants();
+
+        assertEquals(Collections.singletonList("json-1"), names(restaurants));
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1_000);
+    }
+
+    @Test
+    void saturatedFanOutLeavesTheReadOutInsteadOfRunningItOnTheCaller() throws Exception {
+        DataSourceConfig config = new DataSourceConfig();
+        config.getFanOut().setThreads(1);
+        config.getFanOut().setQueueCapacity(1);
+        DataSourceFanOut saturated = new DataSourceFanOut(config, new ThreadsConfig(), mock(PlatformTransactionManager.class));
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            saturated.submit(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            });
+            saturated.submit(() -> null);
+
+            AtomicBoolean ran = new AtomicBoolean();
+            CompletableFuture<String> refused = saturated.submitQuery(() -> {
+                ran.set(true);
+                return "h2";
+            });
+
+            assertFalse(saturated.await("H2", refused, saturated.deadline()).isPresent());
+            assertFalse(ran.get());
+        } finally {
+            release.countDown();
+            saturated.destroy();
+        }
+    }
+
+    @Test
+    void bothPrefersH2AndFallsBackToJson() {
+        when(h2Repository.findById(1L)).thenReturn(Optional.of(new Restaurant(1L, "h2-1")));
+        when(jsonRepository.findById(1L)).thenReturn(Optional.of(new Restaurant(1L, "json-1")));
+        when(h2Repository.findById(2L)).thenThrow(new IllegalStateException("H2 down"));
+        when(jsonRepository.findById(2L)).thenReturn(Optional.of(new Restaurant(2L, "json-2")));
+        when(h2Repository.findById(3L)).thenReturn(Optional.empty());
+        when(jsonRepository.findById(3L)).thenReturn(Optional.empty());
+
+        assertEquals("h2-1", restaurantService.getRestaurantById(1L).map(Restaurant::getName).orElse(null));
+        assertEquals("json-2", restaurantService.getRestaurantById(2L).map(Restaurant::getName).orElse(null));
+        assertFalse(restaurantService.getRestaurantById(3L).isPresent());
+    }
+
+    @Test
+    void bothPagesThroughH2ThenJson() {
+        when(h2Repository.findPage(null, 3)).thenReturn(Arrays.asList(new Restaurant(1L, "h2-1"), new Restaurant(2L, "h2-2")));
+        when(jsonRepository.findPage(null, 2)).thenReturn(Arrays.asList(new Restaurant(1L, "json-1"), new Restaurant(2L, "json-2")));
+        when(jsonRepository.findPage(1L, 3)).thenReturn(Collections.singletonList(new Restaurant(2L, "json-2")));
+
+        RestaurantPage first = restaurantService.getRestaurantPage(null, 2);
+        assertEquals(Arrays.asList("h2-1", "h2-2"), names(first.getRestaurants()));
+        assertTrue(first.hasNext());
+
+        RestaurantPage second = restaurantService.getRestaurantPage(first.getNextCursor(), 1);
+        assertEquals(Collections.singletonList("json-1"), names(second.getRestaurants()));
+
+        RestaurantPage last = restaurantService.getRestaurantPage(second.getNextCursor(), 2);
+        assertEquals(Collections.singletonList("json-2"), names(last.getRestaurants()));
+        assertFalse(last.hasNext());
+    }
+
+    @Test
+    void rejectsForeignCursor() {
+        assertThrows(IllegalArgumentException.class, () -> restaurantService.getRestaurantPage("not-a-cursor", 10));
+        assertThrows(IllegalArgumentException.class, () -> restaurantService.getRestaurantPage(null, 0));
+    }
+
+    private static List<String> names(List<Restaurant> restaurants) {
+        return restaurants.stream().map(Restaurant::getName).collect(Collectors.toList());
+    }
+}
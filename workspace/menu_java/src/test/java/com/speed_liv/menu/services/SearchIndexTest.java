@@ -0,0 +1,118 @@
+package com.speed_liv.menu.services;
+
+import com.speed_liv.menu.config.DataSourceConfig;
+import com.speed_liv.menu.config.DataSourceStrategy;
+import com.speed_liv.menu.model.SearchHit;
+import com.speed_liv.menu.model.entity.Plat;
+import com.speed_liv.menu.model.entity.Restaurant;
+import com.speed_liv.menu.model.event.CatalogChangedEvent;
+import com.speed_liv.menu.model.repository.RestaurantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class SearchIndexTest {
+
+    private RestaurantRepository h2Repository;
+    private SearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        DataSourceConfig config = new DataSourceConfig();
+        config.setStrategy(DataSourceStrategy.BOTH);
+        h2Repository = mock(RestaurantRepository.class);
+        RestaurantRepository jsonRepository = mock(RestaurantRepository.class);
+        stream(h2Repository, restaurant(1L, "Le Gourmet", 10L, "Crème Brûlée", 11L, "Coq au Vin"));
+        stream(jsonRepository, restaurant(2L, "Crêperie Œuf", 11L, "Coq au Riesling", 12L, "Crêpe Suzette"));
+        searchIndex = new SearchIndex(h2Repository, jsonRepository, config);
+    }
+
+    @Test
+    void foldsCaseAccentsAndLigatures() {
+        assertArrayEquals(new String[]{"creme", "brulee", "l", "oeuf"}, SearchIndex.terms("Crème BRÛLÉE, l'Œuf"));
+        assertEquals(Arrays.asList("Crème Brûlée"), names(searchIndex.search("creme", 10)));
+        assertEquals(Arrays.asList("Crêperie Œuf"), names(searchIndex.search("OEUF", 10)));
+    }
+
+    @Test
+    void completesTheLastWord() {
+        assertEquals(Arrays.asList("Crème Brûlée", "Crêpe Suzette", "Crêperie Œuf"), names(searchIndex.search("cre", 10)));
+        assertEquals(Arrays.asList("Crêpe Suzette", "Crêperie Œuf"), names(searchIndex.search("crep", 10)));
+        assertEquals(Arrays.asList("Coq au Vin"), names(searchIndex.search("coq au v", 10)));
+        assertEquals(Arrays.asList("Crème Brûlée"), names(searchIndex.search("cre", 1)));
+        assertTrue(searchIndex.search("  ", 10).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> searchIndex.search("coq", 0));
+    }
+
+    @Test
+    void walksCompletionsInAlphabeticalOrder() {
+        stream(h2Repository, restaurant(1L, "Le Gourmet", 10L, "Crème Brûlée", 11L, "Coq au Vin", 13L, "Cocotte"),
+                restaurant(3L, "Coq d'Or", 14L, "Coquille Saint-Jacques"));
+        searchIndex.rebuild();
+
+        // Not by length: "cocotte" sorts before "coq"; within a word, restaurants before plats
+        assertEquals(Arrays.asList("Cocotte", "Coq d'Or", "Coq au Vin", "Coquille Saint-Jacques"),
+                names(searchIndex.search("co", 10)));
+        assertEquals(Arrays.asList("Crème Brûlée", "Crêpe Suzette", "Crêperie Œuf"), names(searchIndex.search("cr", 10)));
+    }
+
+    @Test
+    void h2HidesJsonEntriesWithTheSameId() {
+        // JSON plat 11 (Coq au Riesling) has the id of the H2 one
+        assertEquals(Arrays.asList("Coq au Vin"), names(searchIndex.search("coq", 10)));
+        SearchHit plat = searchIndex.search("vin", 10).get(0);
+        assertEquals(Long.valueOf(1L), plat.getRestaurantId());
+        assertEquals("Le Gourmet", plat.getRestaurantName());
+    }
+
+    @Test
+    void followsSavedAndDeletedRestaurants() {
+        searchIndex.search("coq", 10);
+
+        searchIndex.onCatalogChanged(CatalogChangedEvent.saved(DataSourceStrategy.H2,
+                restaurant(1L, "Le Bistrot", 10L, "Crème Brûlée", 20L, "Bœuf Bourguignon")));
+        assertEquals(Arrays.asList("Le Bistrot"), names(searchIndex.search("bi", 10)));
+        assertEquals(Arrays.asList("Bœuf Bourguignon"), names(searchIndex.search("bo", 10)));
+        // Plats carry the new restaurant name
+        assertEquals("Le Bistrot", searchIndex.search("creme", 10).get(0).getRestaurantName());
+        assertTrue(searchIndex.search("gourmet", 10).isEmpty());
+        // Plat 11 left the H2 restaurant: the JSON one shows through
+        assertEquals(Arrays.asList("Coq au Riesling"), names(searchIndex.search("coq", 10)));
+
+        searchIndex.onCatalogChanged(CatalogChangedEvent.deleted(DataSourceStrategy.H2, 1L));
+        assertTrue(searchIndex.search("bistrot", 10).isEmpty());
+        assertTrue(searchIndex.search("bourguignon", 10).isEmpty());
+    }
+
+    private static void stream(RestaurantRepository repository, Restaurant... restaurants) {
+        doAnswer(invocation -> {
+            Consumer<Restaurant> consumer = invocation.getArgument(0);
+            Arrays.asList(restaurants).forEach(consumer);
+            return null;
+        }).when(repository).streamAll(any());
+    }
+
+    private static Restaurant restaurant(Long id, String name, Object... plats) {
+        Restaurant restaurant = new Restaurant(id, name);
+        for (int i = 0; i < plats.length; i += 2) {
+            restaurant.addPlat(new Plat((Long) plats[i], (String) plats[i + 1], 10.0));
+        }
+        return restaurant;
+    }
+
+    private static List<String> names(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::getName).collect(Collectors.toList());
+    }
+}